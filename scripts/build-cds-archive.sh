@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Build a class-data-sharing (AppCDS) archive for the application.
+#
+#   mvn -Pfast-start -DskipTests package
+#   scripts/build-cds-archive.sh [application arguments...]
+#
+# Extracts the jar to target/cds (CDS needs plain jars on the class path), then does a training
+# run that stops right after the context has refreshed and dumps every loaded class into
+# target/cds/application.jsa. Start the application with:
+#
+#   java -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true \
+#        -jar target/cds/<jar name>
+#
+# The class path used at runtime must match the training run (same extracted jar, same EXTRA_CP).
+# Environment: AOT=false for a jar built without -Pfast-start, EXTRA_CP for extra jars (e.g. a
+# JDBC driver for a local database).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=${JAR:-$(ls target/*.jar | grep -v original | head -1)}
+OUT=target/cds
+AOT=${AOT:-true}
+
+rm -rf "$OUT"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT"
+APP_JAR="$OUT/$(basename "$JAR")"
+# manifest lines are wrapped at 72 characters; join continuation lines first
+MAIN=$(unzip -p "$JAR" META-INF/MANIFEST.MF | tr -d '\r' | sed -e ':a' -e 'N' -e '$!ba' -e 's/\n //g' \
+       | sed -n 's/^Start-Class: *//p')
+
+java -XX:ArchiveClassesAtExit="$OUT/application.jsa" \
+     -Dspring.aot.enabled="$AOT" -Dspring.context.exit=onRefresh \
+     -cp "$APP_JAR${EXTRA_CP:+:$EXTRA_CP}" "$MAIN" "$@"
+
+echo "CDS archive: $OUT/application.jsa ($(du -h "$OUT/application.jsa" | cut -f1))"
@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Time-to-first-request and resident memory of the application in three start modes:
+#
+#   jvm      plain fat jar (how the application starts today)
+#   aot      extracted jar with Spring AOT initialisation (-Dspring.aot.enabled=true)
+#   aot+cds  the same plus the class-data-sharing archive
+#
+#   mvn -Pfast-start -DskipTests package
+#   scripts/build-cds-archive.sh [application arguments...]
+#   scripts/startup-benchmark.sh [application arguments...]
+#
+# Each mode is started RUNS times (default 3); the clock runs from launching java until
+# GET /login answers 200. RSS is read from /proc after that first request. Medians are
+# written to target/startup-benchmark.txt. Pass the same application arguments and EXTRA_CP
+# as for build-cds-archive.sh.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=${JAR:-$(ls target/*.jar | grep -v original | head -1)}
+CDS_DIR=target/cds
+CDS_JAR="$CDS_DIR/$(basename "$JAR")"
+PORT=${PORT:-18080}
+RUNS=${RUNS:-3}
+REPORT=target/startup-benchmark.txt
+MAIN=$(unzip -p "$JAR" META-INF/MANIFEST.MF | tr -d '\r' | sed -e ':a' -e 'N' -e '$!ba' -e 's/\n //g' \
+       | sed -n 's/^Start-Class: *//p')
+
+[ -f "$CDS_DIR/application.jsa" ] || { echo "Run scripts/build-cds-archive.sh first" >&2; exit 1; }
+
+now_ms() { date +%s%3N; }
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'; }
+
+# start <mode> -> prints "<ms to first request> <rss KiB>"
+start() {
+    local mode=$1; shift
+    local cmd
+    case "$mode" in
+        jvm)     cmd=(java -cp "$JAR" -Dloader.path="${EXTRA_CP:-}" org.springframework.boot.loader.launch.PropertiesLauncher) ;;
+        aot)     cmd=(java -Dspring.aot.enabled=true -cp "$CDS_JAR${EXTRA_CP:+:$EXTRA_CP}" "$MAIN") ;;
+        aot+cds) cmd=(java -XX:SharedArchiveFile="$CDS_DIR/application.jsa" -Xlog:cds=off -Xlog:cds+dynamic=off
+                      -Dspring.aot.enabled=true -cp "$CDS_JAR${EXTRA_CP:+:$EXTRA_CP}" "$MAIN") ;;
+    esac
+    local began; began=$(now_ms)
+    "${cmd[@]}" --server.port="$PORT" "$@" > "target/startup-$mode.log" 2>&1 &
+    local pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/login")" = "200" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application ($mode) exited during startup, see target/startup-$mode.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    local elapsed=$(( $(now_ms) - began ))
+    local rss; rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+{
+    printf '%-8s %22s %12s\n' mode time-to-first-request rss
+    for mode in jvm aot aot+cds; do
+        : > target/startup-runs.txt
+        for _ in $(seq "$RUNS"); do
+            start "$mode" "$@" >> target/startup-runs.txt
+        done
+        ms=$(cut -d' ' -f1 target/startup-runs.txt | median)
+        rss=$(cut -d' ' -f2 target/startup-runs.txt | median)
+        printf '%-8s %19s ms %9s MB\n' "$mode" "$ms" "$(( rss / 1024 ))"
+    done
+} | tee "$REPORT"
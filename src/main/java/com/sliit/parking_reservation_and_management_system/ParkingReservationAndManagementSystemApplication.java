@@ -2,10 +2,13 @@ package com.sliit.parking_reservation_and_management_system;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ParkingReservationAndManagementSystemApplication {
 
     public static void main(String[] args) {
@@ -19,14 +22,15 @@ public class ParkingReservationAndManagementSystemApplication {
         app.run(args);
     }
 
-    @Bean
-    public String debugInfo(Environment env) {
-        System.out.println("🚀 Starting Parking Reservation and Management System");
+    // Printed once the server is accepting requests, so it stays off the startup path
+    @EventListener(ApplicationReadyEvent.class)
+    public void debugInfo(ApplicationReadyEvent event) {
+        Environment env = event.getApplicationContext().getEnvironment();
+        System.out.println("🚀 Started Parking Reservation and Management System in "
+                + event.getTimeTaken().toMillis() + " ms");
         System.out.println("🔗 Database URL: " + env.getProperty("spring.datasource.url"));
         System.out.println("👤 Database User: " + env.getProperty("spring.datasource.username"));
         System.out.println("🌐 Server Port: " + env.getProperty("server.port"));
-
-        return "debug-info";
     }
 
 //    @Bean
@@ -1,9 +1,10 @@
 package com.sliit.parking_reservation_and_management_system.config;
 
-import com.sliit.parking_reservation_and_management_system.repository.UserRepository;
+import com.sliit.parking_reservation_and_management_system.service.LoginAttemptLimiter;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.stereotype.Component;
@@ -13,10 +14,10 @@ import java.io.IOException;
 @Component
 public class CustomAuthenticationFailureHandler implements AuthenticationFailureHandler {
 
-    private final UserRepository userRepository;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
-    public CustomAuthenticationFailureHandler(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CustomAuthenticationFailureHandler(LoginAttemptLimiter loginAttemptLimiter) {
+        this.loginAttemptLimiter = loginAttemptLimiter;
     }
 
     @Override
@@ -26,18 +27,15 @@ public class CustomAuthenticationFailureHandler implements AuthenticationFailure
             throws IOException, ServletException {
 
         String email = request.getParameter("username"); // must match login form input name
-        String errorMessage = "Invalid username or password";
-
-        userRepository.findByEmail(email).ifPresentOrElse(user -> {
-            if ("INACTIVE".equalsIgnoreCase(user.getStatus())) {
-                request.getSession().setAttribute("error", "Your account has been temporarily deactivated.");
-            } else {
-                request.getSession().setAttribute("error", errorMessage);
-            }
-        }, () -> request.getSession().setAttribute("error", errorMessage));
-
-        // Redirect without "?error" so only our message shows
-        response.sendRedirect("/login");
+        loginAttemptLimiter.recordFailure(request.getRemoteAddr(), email);
+
+        // CustomUserDetailsService marks INACTIVE users as disabled, so no second lookup is needed.
+        // The message travels as a query flag instead of a session attribute.
+        if (exception instanceof DisabledException) {
+            response.sendRedirect("/login?disabled");
+        } else {
+            response.sendRedirect("/login?error");
+        }
     }
 
 }
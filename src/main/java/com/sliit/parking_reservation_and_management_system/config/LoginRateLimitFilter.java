@@ -0,0 +1,54 @@
+package com.sliit.parking_reservation_and_management_system.config;
+
+import com.sliit.parking_reservation_and_management_system.service.LoginAttemptLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs in the security chain before the username/password filter, so throttled
+ * login POSTs never reach the user lookup or the BCrypt check.
+ *
+ * Clients are keyed by request.getRemoteAddr(). Behind a load balancer that is the client
+ * address only because server.forward-headers-strategy takes X-Forwarded-For from trusted
+ * proxies (server.tomcat.remoteip.internal-proxies); otherwise every user would share the
+ * proxy's bucket, and a client could pick its own key by sending the header itself.
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private final LoginAttemptLimiter limiter;
+
+    public LoginRateLimitFilter(LoginAttemptLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !("POST".equals(request.getMethod()) && "/login".equals(request.getServletPath()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // must match login form input name
+        String ip = request.getRemoteAddr();
+        String account = request.getParameter("username");
+        LoginAttemptLimiter.Decision decision = limiter.tryAcquire(ip, account);
+        if (!decision.isAllowed()) {
+            long waitNanos = limiter.retryAfterNanos(decision, ip, account);
+            // whole seconds, rounded up
+            long waitSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos) + (waitNanos % 1_000_000_000 == 0 ? 0 : 1);
+            waitSeconds = Math.max(1, waitSeconds);
+            response.setHeader("Retry-After", Long.toString(waitSeconds));
+            // no session is created for rejected attempts
+            response.sendRedirect("/login?throttled");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
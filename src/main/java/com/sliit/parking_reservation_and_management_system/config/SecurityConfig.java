@@ -1,5 +1,6 @@
 package com.sliit.parking_reservation_and_management_system.config;
 
+import com.sliit.parking_reservation_and_management_system.service.LoginAttemptLimiter;
 import com.sliit.parking_reservation_and_management_system.util.AdminLogger;
 import com.sliit.parking_reservation_and_management_system.util.AdminSessionManager;
 import org.springframework.context.annotation.Bean;
@@ -11,6 +12,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 public class SecurityConfig {
@@ -28,9 +30,12 @@ public class SecurityConfig {
     }
 
     private final CustomAuthenticationFailureHandler customAuthenticationFailureHandler;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
-    public SecurityConfig(CustomAuthenticationFailureHandler customAuthenticationFailureHandler) {
+    public SecurityConfig(CustomAuthenticationFailureHandler customAuthenticationFailureHandler,
+                          LoginAttemptLimiter loginAttemptLimiter) {
         this.customAuthenticationFailureHandler = customAuthenticationFailureHandler;
+        this.loginAttemptLimiter = loginAttemptLimiter;
     }
 
     // Success handler: redirects users based on their role
@@ -41,6 +46,7 @@ public class SecurityConfig {
 
             String email = authentication.getName();
             String role = authorities.iterator().next().getAuthority();
+            loginAttemptLimiter.recordSuccess(email);
 
             // ✅ Only track admin logins
             if (role.equals("ROLE_ADMIN")) {
@@ -73,6 +79,8 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
+                // Shed abusive login attempts before authentication runs
+                .addFilterBefore(new LoginRateLimitFilter(loginAttemptLimiter), UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth
                         // Public pages
                         .requestMatchers("/", "/index", "/login", "/register", "/css/**", "/js/**").permitAll()
@@ -0,0 +1,86 @@
+package com.sliit.parking_reservation_and_management_system.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primary + read replica data sources, active only when app.datasource.replicas.urls is set.
+ * Without it Spring Boot's single auto-configured pool is used as before.
+ *
+ * Service methods marked @Transactional(readOnly = true) (and Spring Data's own read methods)
+ * go to a replica; all other work goes to the primary configured under spring.datasource.*.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+@ConditionalOnProperty(name = "app.datasource.replicas.urls")
+public class ReadReplicaConfig {
+
+    // Bound to spring.datasource.hikari.* like Boot's own pool
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties primaryProperties,
+            HikariDataSource primaryDataSource,
+            ReadYourWritesGuard guard,
+            @Value("${app.datasource.replicas.urls}") List<String> replicaUrls,
+            @Value("${app.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${app.datasource.replicas.health-timeout-seconds:2}") int healthTimeoutSeconds) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(primaryProperties.determineDriverClassName());
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // a replica that is down at startup must not stop the application
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, guard, healthTimeoutSeconds);
+    }
+
+    // What JPA, Spring Session and JdbcTemplate see; the real connection is fetched on first use
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // Give the connection back after each transaction, so a read-only transaction's replica
+    // connection is never reused by a later write in the same request (open-in-view)
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+}
@@ -0,0 +1,143 @@
+package com.sliit.parking_reservation_and_management_system.config.datasource;
+
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keeps reads on the primary for a short while after a write, so replica lag never shows a
+ * user stale data they have just changed.
+ *
+ * A write pins the current request and HTTP session, plus any entity keys passed in (e.g. the
+ * email of a freshly registered user, whose first login happens in a new session).
+ * When no replicas are configured this is a no-op in practice: every read already hits the primary.
+ */
+@Component
+public class ReadYourWritesGuard {
+
+    private static final String REQUEST_PIN = ReadYourWritesGuard.class.getName() + ".PIN";
+
+    private final long windowMillis;
+    private final int maxPins;
+    private final LongSupplier clock;
+
+    // session id / entity key -> pinned until (epoch millis)
+    private final Map<String, Long> sessionPins = new ConcurrentHashMap<>();
+    private final Map<String, Long> keyPins = new ConcurrentHashMap<>();
+    private final ThreadLocal<Integer> forcedPrimary = ThreadLocal.withInitial(() -> 0);
+
+    @Autowired
+    public ReadYourWritesGuard(@Value("${app.datasource.read-your-writes-ms:5000}") long windowMillis,
+                               @Value("${app.datasource.read-your-writes-max-pins:50000}") int maxPins) {
+        this(windowMillis, maxPins, System::currentTimeMillis);
+    }
+
+    ReadYourWritesGuard(long windowMillis, int maxPins, LongSupplier clock) {
+        this.windowMillis = windowMillis;
+        this.maxPins = maxPins;
+        this.clock = clock;
+    }
+
+    // Call after a committed (or about to commit) write
+    public void recordWrite(String... keys) {
+        long until = clock.getAsLong() + windowMillis;
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(REQUEST_PIN, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            String sessionId = currentSessionId(attributes);
+            if (sessionId != null) {
+                pin(sessionPins, sessionId, until);
+            }
+        }
+        for (String key : keys) {
+            if (key != null) {
+                pin(keyPins, normalize(key), until);
+            }
+        }
+    }
+
+    // Run a read on the primary if the given key was written recently
+    public <T> T readFor(String key, Supplier<T> read) {
+        Long until = key == null ? null : keyPins.get(normalize(key));
+        if (until == null || until < clock.getAsLong()) {
+            return read.get();
+        }
+        return onPrimary(read);
+    }
+
+    public <T> T onPrimary(Supplier<T> read) {
+        forcedPrimary.set(forcedPrimary.get() + 1);
+        try {
+            return read.get();
+        } finally {
+            int depth = forcedPrimary.get() - 1;
+            if (depth == 0) {
+                forcedPrimary.remove();
+            } else {
+                forcedPrimary.set(depth);
+            }
+        }
+    }
+
+    // Asked by the routing data source when a read-only connection is requested
+    public boolean mustReadPrimary() {
+        if (forcedPrimary.get() > 0) {
+            return true;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        if (attributes.getAttribute(REQUEST_PIN, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        String sessionId = currentSessionId(attributes);
+        Long until = sessionId == null ? null : sessionPins.get(sessionId);
+        return until != null && until >= clock.getAsLong();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.read-your-writes-ms:5000}")
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        sessionPins.values().removeIf(until -> until < now);
+        keyPins.values().removeIf(until -> until < now);
+    }
+
+    int pinCount() {
+        return sessionPins.size() + keyPins.size();
+    }
+
+    private void pin(Map<String, Long> pins, String key, long until) {
+        if (pins.size() >= maxPins) {
+            evictExpired();
+            if (pins.size() >= maxPins) {
+                // still full of live pins: forget them all rather than grow; worst case a stale read
+                pins.clear();
+            }
+        }
+        pins.put(key, until);
+    }
+
+    // Never creates a session just to pin it
+    private static String currentSessionId(RequestAttributes attributes) {
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            HttpSession session = servlet.getRequest().getSession(false);
+            return session == null ? null : session.getId();
+        }
+        return null;
+    }
+
+    private static String normalize(String key) {
+        return key.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,134 @@
+package com.sliit.parking_reservation_and_management_system.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica (round robin) and
+ * everything else to the primary.
+ *
+ * The decision is made when a connection is actually requested, so this must sit behind a
+ * LazyConnectionDataSourceProxy: by then the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWritesGuard guard;
+    private final int healthTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder primaryWrites = new LongAdder();
+    private final LongAdder primaryReadsPinned = new LongAdder();
+    private final LongAdder primaryReadsFallback = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaPools,
+                                    ReadYourWritesGuard guard, int healthTimeoutSeconds) {
+        this.guard = guard;
+        this.healthTimeoutSeconds = healthTimeoutSeconds;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaPools.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaPools.get(i));
+            replicas.add(replica);
+            targets.put(replica.name, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.increment();
+            return PRIMARY;
+        }
+        if (guard.mustReadPrimary()) {
+            primaryReadsPinned.increment();
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                replica.reads.increment();
+                return replica.name;
+            }
+        }
+        primaryReadsFallback.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Probe every replica with Connection.isValid. A replica that fails is taken out of
+     * rotation until a later probe succeeds.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-interval-ms:10000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean ok;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                ok = connection.isValid(healthTimeoutSeconds);
+            } catch (Exception e) {
+                ok = false;
+            }
+            if (ok != replica.healthy) {
+                System.err.println((ok ? "✅ Replica back in rotation: " : "⚠️ Replica taken out of rotation: ")
+                        + replica.name);
+            }
+            replica.healthy = ok;
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("primaryWrites", primaryWrites.sum());
+        metrics.put("primaryReadsPinned", primaryReadsPinned.sum());
+        metrics.put("primaryReadsFallback", primaryReadsFallback.sum());
+        long replicaReads = 0;
+        for (Replica replica : replicas) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("healthy", replica.healthy);
+            entry.put("reads", replica.reads.sum());
+            metrics.put(replica.name, entry);
+            replicaReads += replica.reads.sum();
+        }
+        metrics.put("replicaReads", replicaReads);
+        return metrics;
+    }
+
+    // Replica pools are owned here (the primary is a bean of its own)
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final LongAdder reads = new LongAdder();
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,632 @@
+package com.sliit.parking_reservation_and_management_system.config.session;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Session repository that answers from memory and writes to the spring-session-jdbc tables
+ * in the background.
+ *
+ * - Reads come from a bounded LRU map; a miss loads the session through JdbcIndexedSessionRepository.
+ * - save() only records what changed. A request that changed nothing but the last-access time
+ *   writes nothing, unless the stored expiry is getting close (touch interval).
+ * - Pending changes are flushed in JDBC batches every flush interval, in one transaction,
+ *   on SessionFlushScheduler's own thread rather than the scheduler shared by other jobs.
+ *   A session whose changes cannot be written (an attribute that does not serialize, a value
+ *   the table rejects) is dropped from memory instead of holding up everyone else's; the table
+ *   keeps its last flushed state.
+ * - Deletes and session id changes (login) go to the database straight away.
+ * - Expired sessions are dropped from memory in one sweep; rows are removed by
+ *   JdbcIndexedSessionRepository's bulk cleanup job as before.
+ *
+ * The tables stay the source of truth: another node (or this one after a restart) loads the
+ * session from them. Changes made in the last flush interval before a crash are lost, and
+ * nodes are expected to use sticky sessions so one node's cache is not stale against another's writes.
+ */
+@Component
+@Primary
+public class CachingSessionRepository implements SessionRepository<CachingSessionRepository.CachedSession> {
+
+    private static final String SPRING_SECURITY_CONTEXT = "SPRING_SECURITY_CONTEXT";
+
+    private final JdbcIndexedSessionRepository jdbcRepository;
+    private final JdbcOperations jdbc;
+    private final TransactionOperations transactions;
+    private final Duration defaultMaxInactive;
+    private final Duration touchInterval;
+    private final int maxEntries;
+    private final Clock clock;
+    private final SerializingConverter serializer = new SerializingConverter();
+
+    private final String insertSession;
+    private final String updateSession;
+    private final String changeSessionId;
+    private final String insertAttribute;
+    private final String updateAttribute;
+    private final String deleteAttribute;
+
+    // guarded by this; dirty entries stay reachable even after the LRU map evicts them
+    private final LinkedHashMap<String, Entry> cache;
+    private final Map<String, Entry> dirty = new LinkedHashMap<>();
+    // serialises database writes (flush, delete, id change) so a flush can never resurrect a deleted row
+    private final Object writeLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder skippedWrites = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder rowWrites = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder droppedSessions = new LongAdder();
+
+    @Autowired
+    public CachingSessionRepository(JdbcIndexedSessionRepository jdbcRepository,
+                                    JdbcOperations jdbc,
+                                    TransactionOperations transactions,
+                                    @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String tableName,
+                                    @Value("${spring.session.timeout:${server.servlet.session.timeout:30m}}") Duration defaultMaxInactive,
+                                    @Value("${app.session.touch-interval:60s}") Duration touchInterval,
+                                    @Value("${app.session.cache-max-entries:20000}") int maxEntries) {
+        this(jdbcRepository, jdbc, transactions, tableName, defaultMaxInactive, touchInterval, maxEntries,
+                Clock.systemUTC());
+    }
+
+    CachingSessionRepository(JdbcIndexedSessionRepository jdbcRepository, JdbcOperations jdbc,
+                             TransactionOperations transactions, String tableName, Duration defaultMaxInactive,
+                             Duration touchInterval, int maxEntries, Clock clock) {
+        this.jdbcRepository = jdbcRepository;
+        this.jdbc = jdbc;
+        this.transactions = transactions;
+        this.defaultMaxInactive = defaultMaxInactive;
+        this.touchInterval = touchInterval;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+
+        String attributes = tableName + "_ATTRIBUTES";
+        String primaryId = "(SELECT PRIMARY_ID FROM " + tableName + " WHERE SESSION_ID = ?)";
+        this.insertSession = "INSERT INTO " + tableName + " (PRIMARY_ID, SESSION_ID, CREATION_TIME, LAST_ACCESS_TIME, "
+                + "MAX_INACTIVE_INTERVAL, EXPIRY_TIME, PRINCIPAL_NAME) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        this.updateSession = "UPDATE " + tableName + " SET LAST_ACCESS_TIME = ?, MAX_INACTIVE_INTERVAL = ?, "
+                + "EXPIRY_TIME = ?, PRINCIPAL_NAME = ? WHERE SESSION_ID = ?";
+        this.changeSessionId = "UPDATE " + tableName + " SET SESSION_ID = ? WHERE SESSION_ID = ?";
+        this.insertAttribute = "INSERT INTO " + attributes + " (SESSION_PRIMARY_ID, ATTRIBUTE_NAME, ATTRIBUTE_BYTES) "
+                + "SELECT PRIMARY_ID, ?, ? FROM " + tableName + " WHERE SESSION_ID = ?";
+        this.updateAttribute = "UPDATE " + attributes + " SET ATTRIBUTE_BYTES = ? "
+                + "WHERE SESSION_PRIMARY_ID = " + primaryId + " AND ATTRIBUTE_NAME = ?";
+        this.deleteAttribute = "DELETE FROM " + attributes + " WHERE SESSION_PRIMARY_ID = " + primaryId
+                + " AND ATTRIBUTE_NAME = ?";
+
+        this.cache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > CachingSessionRepository.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public CachedSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(defaultMaxInactive);
+        session.setCreationTime(clock.instant());
+        session.setLastAccessedTime(session.getCreationTime());
+        return new CachedSession(session, true);
+    }
+
+    @Override
+    public CachedSession findById(String id) {
+        synchronized (this) {
+            Entry entry = lookup(id);
+            if (entry != null) {
+                if (isExpired(entry.session, clock.instant())) {
+                    drop(id);
+                    return null;
+                }
+                hits.increment();
+                return new CachedSession(new MapSession(entry.session), false);
+            }
+        }
+
+        misses.increment();
+        Session stored = jdbcRepository.findById(id);
+        if (stored == null) {
+            return null;
+        }
+        MapSession copy = new MapSession(stored.getId());
+        copy.setCreationTime(stored.getCreationTime());
+        copy.setLastAccessedTime(stored.getLastAccessedTime());
+        copy.setMaxInactiveInterval(stored.getMaxInactiveInterval());
+        for (String name : stored.getAttributeNames()) {
+            copy.setAttribute(name, stored.getAttribute(name));
+        }
+        if (isExpired(copy, clock.instant())) {
+            return null;
+        }
+        synchronized (this) {
+            // another request of the same session may have loaded it meanwhile
+            Entry entry = lookup(id);
+            if (entry == null) {
+                entry = new Entry(copy);
+                entry.persistedAttributes = new HashSet<>(copy.getAttributeNames());
+                entry.persistedLastAccess = copy.getLastAccessedTime();
+                cache.put(id, entry);
+            }
+            return new CachedSession(new MapSession(entry.session), false);
+        }
+    }
+
+    @Override
+    public void save(CachedSession session) {
+        if (!session.getId().equals(session.originalId)) {
+            changeId(session);
+        }
+        synchronized (this) {
+            Entry entry = lookup(session.getId());
+            if (entry == null) {
+                if (!session.isNew && !session.hasChanges()) {
+                    // deleted (or evicted clean) while the request ran; nothing to record
+                    skippedWrites.increment();
+                    return;
+                }
+                entry = new Entry(new MapSession(session.delegate));
+                if (session.isNew) {
+                    entry.needsInsert = true;
+                    entry.persistedAttributes = new HashSet<>();
+                    entry.dirtyAttributes.addAll(session.getAttributeNames());
+                } else {
+                    // not known what the table holds for this session; rewrite what changed
+                    entry.persistedAttributes = null;
+                    entry.rowDirty = true;
+                }
+                cache.put(session.getId(), entry);
+            }
+
+            for (String name : session.changedAttributes) {
+                Object value = session.getAttribute(name);
+                if (value == null) {
+                    entry.session.removeAttribute(name);
+                } else {
+                    entry.session.setAttribute(name, value);
+                }
+                entry.dirtyAttributes.add(name);
+                if (name.equals(SPRING_SECURITY_CONTEXT)
+                        || name.equals(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME)) {
+                    entry.rowDirty = true;
+                }
+            }
+            if (!session.getMaxInactiveInterval().equals(entry.session.getMaxInactiveInterval())) {
+                entry.session.setMaxInactiveInterval(session.getMaxInactiveInterval());
+                entry.rowDirty = true;
+            }
+            if (session.getLastAccessedTime().isAfter(entry.session.getLastAccessedTime())) {
+                entry.session.setLastAccessedTime(session.getLastAccessedTime());
+            }
+            // the stored expiry must never run out while the session is in use, or the bulk
+            // cleanup job would delete a live session
+            if (!entry.needsInsert && Duration.between(entry.persistedLastAccess,
+                    entry.session.getLastAccessedTime()).compareTo(effectiveTouchInterval(entry)) >= 0) {
+                entry.rowDirty = true;
+            }
+
+            if (entry.hasPendingWrites()) {
+                dirty.put(session.getId(), entry);
+            } else {
+                skippedWrites.increment();
+            }
+        }
+    }
+
+    @Override
+    public void deleteById(String id) {
+        synchronized (writeLock) {
+            boolean persisted;
+            synchronized (this) {
+                Entry entry = lookup(id);
+                persisted = entry == null || !entry.needsInsert;
+                drop(id);
+            }
+            if (persisted) {
+                jdbcRepository.deleteById(id);
+                rowWrites.increment();
+            }
+        }
+    }
+
+    /**
+     * Write every pending change in one transaction, batched per statement type.
+     * If that fails, each session is written in a transaction of its own: when some of them go
+     * through, the ones that failed are dropped; when none do (database down), all are queued
+     * again for the next run.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            List<PendingWrite> batch = takePending();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                write(batch);
+                flushes.increment();
+                return;
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                if (batch.size() == 1) {
+                    System.err.println("⚠️ Session flush failed, will retry: " + e.getMessage());
+                    requeue(batch);
+                    return;
+                }
+            }
+            List<PendingWrite> failed = new ArrayList<>();
+            RuntimeException lastFailure = null;
+            for (PendingWrite write : batch) {
+                try {
+                    write(List.of(write));
+                } catch (RuntimeException e) {
+                    failed.add(write);
+                    lastFailure = e;
+                }
+            }
+            if (failed.size() == batch.size()) {
+                System.err.println("⚠️ Session flush failed, will retry: " + lastFailure.getMessage());
+                requeue(batch);
+            } else {
+                flushes.increment();
+                if (!failed.isEmpty()) {
+                    System.err.println("⚠️ Dropping " + failed.size() + " session(s) from the cache that could not be "
+                            + "written: " + lastFailure.getMessage());
+                    discard(failed);
+                }
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        List<Object[]> sessionInserts = new ArrayList<>();
+        List<Object[]> sessionUpdates = new ArrayList<>();
+        List<Object[]> attributeDeletes = new ArrayList<>();
+        List<Object[]> attributeUpdates = new ArrayList<>();
+        List<Object[]> attributeInserts = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            MapSession s = write.session;
+            long expiry = expiryTime(s);
+            if (write.insert) {
+                sessionInserts.add(new Object[]{UUID.randomUUID().toString(), s.getId(),
+                        s.getCreationTime().toEpochMilli(), s.getLastAccessedTime().toEpochMilli(),
+                        (int) s.getMaxInactiveInterval().getSeconds(), expiry, write.principal});
+            } else if (write.rowUpdate) {
+                sessionUpdates.add(new Object[]{s.getLastAccessedTime().toEpochMilli(),
+                        (int) s.getMaxInactiveInterval().getSeconds(), expiry, write.principal, s.getId()});
+            }
+            for (Map.Entry<String, byte[]> attribute : write.attributes.entrySet()) {
+                String name = attribute.getKey();
+                byte[] bytes = attribute.getValue();
+                boolean stored = write.storedAttributes == null || write.storedAttributes.contains(name);
+                if (bytes == null || write.storedAttributes == null) {
+                    if (stored) {
+                        attributeDeletes.add(new Object[]{s.getId(), name});
+                    }
+                    if (bytes != null) {
+                        attributeInserts.add(new Object[]{name, bytes, s.getId()});
+                    }
+                } else if (stored) {
+                    attributeUpdates.add(new Object[]{bytes, s.getId(), name});
+                } else {
+                    attributeInserts.add(new Object[]{name, bytes, s.getId()});
+                }
+            }
+        }
+        transactions.executeWithoutResult(status -> {
+            batchUpdate(insertSession, sessionInserts);
+            batchUpdate(updateSession, sessionUpdates);
+            batchUpdate(deleteAttribute, attributeDeletes);
+            batchUpdate(updateAttribute, attributeUpdates);
+            batchUpdate(insertAttribute, attributeInserts);
+        });
+    }
+
+    // Drop expired sessions from memory in one pass (rows: JdbcIndexedSessionRepository's cleanup job)
+    public synchronized void sweepExpired() {
+        Instant now = clock.instant();
+        cache.values().removeIf(entry -> isExpired(entry.session, now));
+        dirty.values().removeIf(entry -> isExpired(entry.session, now));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hits.sum());
+        metrics.put("misses", misses.sum());
+        metrics.put("skippedWrites", skippedWrites.sum());
+        metrics.put("flushes", flushes.sum());
+        metrics.put("rowWrites", rowWrites.sum());
+        metrics.put("flushFailures", flushFailures.sum());
+        metrics.put("droppedSessions", droppedSessions.sum());
+        synchronized (this) {
+            metrics.put("cached", (long) cache.size());
+            metrics.put("pending", (long) dirty.size());
+        }
+        return metrics;
+    }
+
+    // Session fixation protection on login: the new id must be in the table before the response goes out
+    private void changeId(CachedSession session) {
+        synchronized (writeLock) {
+            boolean persisted;
+            synchronized (this) {
+                Entry entry = lookup(session.originalId);
+                cache.remove(session.originalId);
+                Entry pending = dirty.remove(session.originalId);
+                persisted = entry != null ? !entry.needsInsert : !session.isNew;
+                if (entry != null) {
+                    MapSession renamed = new MapSession(entry.session);
+                    renamed.setId(session.getId());
+                    entry.session = renamed;
+                    cache.put(session.getId(), entry);
+                    if (pending != null) {
+                        dirty.put(session.getId(), entry);
+                    }
+                }
+            }
+            if (persisted) {
+                jdbc.update(changeSessionId, session.getId(), session.originalId);
+                rowWrites.increment();
+            }
+            session.originalId = session.getId();
+        }
+    }
+
+    private synchronized List<PendingWrite> takePending() {
+        List<PendingWrite> batch = new ArrayList<>(dirty.size());
+        for (Iterator<Entry> it = dirty.values().iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            it.remove();
+            // serialize before touching the entry, so a failure leaves nothing half marked as written
+            Map<String, byte[]> attributes = new HashMap<>();
+            try {
+                for (String name : entry.dirtyAttributes) {
+                    Object value = entry.session.getAttribute(name);
+                    attributes.put(name, value == null ? null : serializer.convert(value));
+                }
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Dropping a session from the cache, an attribute cannot be serialized: "
+                        + e.getMessage());
+                cache.remove(entry.session.getId());
+                droppedSessions.increment();
+                continue;
+            }
+            PendingWrite write = new PendingWrite(entry, new MapSession(entry.session), entry.needsInsert,
+                    entry.rowDirty, principalName(entry.session), attributes,
+                    entry.persistedAttributes == null ? null : new HashSet<>(entry.persistedAttributes),
+                    entry.persistedLastAccess);
+            batch.add(write);
+
+            // assume success; requeue() puts things back if the transaction fails
+            if (entry.persistedAttributes == null) {
+                entry.persistedAttributes = new HashSet<>();
+            }
+            attributes.forEach((name, bytes) -> {
+                if (bytes == null) {
+                    entry.persistedAttributes.remove(name);
+                } else {
+                    entry.persistedAttributes.add(name);
+                }
+            });
+            entry.persistedLastAccess = entry.session.getLastAccessedTime();
+            entry.needsInsert = false;
+            entry.rowDirty = false;
+            entry.dirtyAttributes.clear();
+        }
+        return batch;
+    }
+
+    private synchronized void requeue(List<PendingWrite> batch) {
+        for (PendingWrite write : batch) {
+            Entry entry = write.entry;
+            if (lookup(write.session.getId()) != entry) {
+                continue;   // deleted meanwhile
+            }
+            entry.needsInsert |= write.insert;
+            entry.rowDirty |= write.rowUpdate;
+            entry.dirtyAttributes.addAll(write.attributes.keySet());
+            entry.persistedAttributes = write.storedAttributes;
+            entry.persistedLastAccess = write.storedLastAccess;
+            dirty.put(write.session.getId(), entry);
+        }
+    }
+
+    // Writes that failed on their own: forget the session here, the next request reloads the table's copy
+    private synchronized void discard(List<PendingWrite> failed) {
+        for (PendingWrite write : failed) {
+            if (lookup(write.session.getId()) == write.entry) {
+                drop(write.session.getId());
+                droppedSessions.increment();
+            }
+        }
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows);
+            rowWrites.add(rows.size());
+        }
+    }
+
+    private Entry lookup(String id) {
+        Entry entry = dirty.get(id);
+        return entry != null ? entry : cache.get(id);
+    }
+
+    private void drop(String id) {
+        cache.remove(id);
+        dirty.remove(id);
+    }
+
+    private Duration effectiveTouchInterval(Entry entry) {
+        Duration maxInactive = entry.session.getMaxInactiveInterval();
+        if (maxInactive.isNegative()) {
+            return touchInterval;
+        }
+        Duration half = maxInactive.dividedBy(2);
+        return touchInterval.compareTo(half) < 0 ? touchInterval : half;
+    }
+
+    private static boolean isExpired(MapSession session, Instant now) {
+        Duration maxInactive = session.getMaxInactiveInterval();
+        return !maxInactive.isNegative() && !now.isBefore(session.getLastAccessedTime().plus(maxInactive));
+    }
+
+    private static long expiryTime(MapSession session) {
+        Duration maxInactive = session.getMaxInactiveInterval();
+        return maxInactive.isNegative() ? Long.MAX_VALUE
+                : session.getLastAccessedTime().plus(maxInactive).toEpochMilli();
+    }
+
+    // Same rule as Spring Session's PrincipalNameIndexResolver
+    private static String principalName(MapSession session) {
+        Object name = session.getAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME);
+        if (name != null) {
+            return name.toString();
+        }
+        Object context = session.getAttribute(SPRING_SECURITY_CONTEXT);
+        if (context instanceof SecurityContext securityContext && securityContext.getAuthentication() != null) {
+            return securityContext.getAuthentication().getName();
+        }
+        return null;
+    }
+
+    private static final class Entry {
+        private MapSession session;
+        private boolean needsInsert;
+        private boolean rowDirty;
+        private final Set<String> dirtyAttributes = new HashSet<>();
+        private Set<String> persistedAttributes;   // null: unknown, rewrite attributes as delete + insert
+        private Instant persistedLastAccess = Instant.EPOCH;
+
+        Entry(MapSession session) {
+            this.session = session;
+        }
+
+        boolean hasPendingWrites() {
+            return needsInsert || rowDirty || !dirtyAttributes.isEmpty();
+        }
+    }
+
+    private record PendingWrite(Entry entry, MapSession session, boolean insert, boolean rowUpdate, String principal,
+                                Map<String, byte[]> attributes, Set<String> storedAttributes,
+                                Instant storedLastAccess) {
+    }
+
+    /**
+     * The copy of a session one request works on. Records which attributes it set or removed so
+     * save() knows what to write.
+     */
+    public static final class CachedSession implements Session {
+
+        private final MapSession delegate;
+        private final boolean isNew;
+        private final Set<String> changedAttributes = new HashSet<>();
+        private String originalId;
+
+        CachedSession(MapSession delegate, boolean isNew) {
+            this.delegate = delegate;
+            this.isNew = isNew;
+            this.originalId = delegate.getId();
+        }
+
+        boolean hasChanges() {
+            return !changedAttributes.isEmpty();
+        }
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            return delegate.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegate.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            delegate.setAttribute(attributeName, attributeValue);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            delegate.removeAttribute(attributeName);
+            changedAttributes.add(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            delegate.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            delegate.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return delegate.isExpired();
+        }
+    }
+}
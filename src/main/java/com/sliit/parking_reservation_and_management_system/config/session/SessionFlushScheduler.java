@@ -0,0 +1,65 @@
+package com.sliit.parking_reservation_and_management_system.config.session;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs CachingSessionRepository's flush and expiry sweep on a thread of their own.
+ *
+ * The flush interval is what bounds how many session changes a crash can lose, so it must not
+ * wait behind the other @Scheduled jobs (log compaction, filter rebuilds, statistics
+ * reconciliation, ...) on Spring's shared scheduler. This bean depends on the repository, so it
+ * is stopped first on shutdown and the repository's own final flush runs after the last
+ * scheduled one.
+ */
+@Component
+public class SessionFlushScheduler {
+
+    private final CachingSessionRepository repository;
+    private final long flushIntervalMs;
+    private final long sweepIntervalMs;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "session-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SessionFlushScheduler(CachingSessionRepository repository,
+                                 @Value("${app.session.flush-interval-ms:500}") long flushIntervalMs,
+                                 @Value("${app.session.sweep-interval-ms:60000}") long sweepIntervalMs) {
+        this.repository = repository;
+        this.flushIntervalMs = flushIntervalMs;
+        this.sweepIntervalMs = sweepIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> run("flush", repository::flush),
+                flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(() -> run("sweep", repository::sweepExpired),
+                sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            System.err.println("⚠️ Session flush thread did not stop in time");
+        }
+    }
+
+    // An exception would cancel the periodic task for good; keep going like @Scheduled does
+    private static void run(String name, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Session " + name + " failed: " + e.getMessage());
+        }
+    }
+}
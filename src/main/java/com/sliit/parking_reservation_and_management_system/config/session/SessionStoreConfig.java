@@ -0,0 +1,55 @@
+package com.sliit.parking_reservation_and_management_system.config.session;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.session.JdbcSessionDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.session.JdbcSessionProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wiring for the session store. Boot's JDBC session auto-configuration backs off as soon as
+ * CachingSessionRepository exists, so the JDBC repository it wraps, the schema initializer
+ * and the session filter are declared here, still driven by the spring.session.* properties.
+ */
+@Configuration
+@EnableSpringHttpSession
+@EnableConfigurationProperties(JdbcSessionProperties.class)
+public class SessionStoreConfig {
+
+    @Bean
+    public JdbcIndexedSessionRepository jdbcIndexedSessionRepository(
+            JdbcOperations jdbc,
+            PlatformTransactionManager transactionManager,
+            JdbcSessionProperties properties,
+            @Value("${spring.session.timeout:${server.servlet.session.timeout:30m}}") Duration timeout) {
+        // same transaction setup as spring-session's own configuration
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactions.afterPropertiesSet();
+
+        JdbcIndexedSessionRepository repository = new JdbcIndexedSessionRepository(jdbc, transactions);
+        repository.setTableName(properties.getTableName());
+        repository.setDefaultMaxInactiveInterval(timeout);
+        repository.setFlushMode(properties.getFlushMode());
+        repository.setSaveMode(properties.getSaveMode());
+        // bulk delete of expired rows; runs on the repository's own scheduler
+        repository.setCleanupCron(properties.getCleanupCron());
+        return repository;
+    }
+
+    @Bean
+    public JdbcSessionDataSourceScriptDatabaseInitializer jdbcSessionDataSourceScriptDatabaseInitializer(
+            DataSource dataSource, JdbcSessionProperties properties) {
+        return new JdbcSessionDataSourceScriptDatabaseInitializer(dataSource, properties);
+    }
+}
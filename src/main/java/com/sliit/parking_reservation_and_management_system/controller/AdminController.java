@@ -1,28 +1,37 @@
 package com.sliit.parking_reservation_and_management_system.controller;
 
+import com.sliit.parking_reservation_and_management_system.dto.UserDTO;
+import com.sliit.parking_reservation_and_management_system.dto.UserStatistics;
 import com.sliit.parking_reservation_and_management_system.entity.User;
+import com.sliit.parking_reservation_and_management_system.service.DuplicateEmailException;
 import com.sliit.parking_reservation_and_management_system.service.UserService;
+import com.sliit.parking_reservation_and_management_system.service.UserStatisticsService;
 import com.sliit.parking_reservation_and_management_system.util.AdminLogger;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.Page;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/admin")
 public class AdminController {
 
     private final UserService userService;
+    private final UserStatisticsService userStatisticsService;
 
-    public AdminController(UserService userService) {
+    public AdminController(UserService userService, UserStatisticsService userStatisticsService) {
         this.userService = userService;
+        this.userStatisticsService = userStatisticsService;
     }
 
-    // static role list for dropdown
-    private static final List<String> ROLE_OPTIONS = List.of(
+    // static role list for dropdown (the test profile seeds users in each of these)
+    public static final List<String> ROLE_OPTIONS = List.of(
             "ADMIN",
             "CUSTOMER",
             "PARKING_SLOT_MANAGER",
@@ -43,7 +52,8 @@ public class AdminController {
     ) {
         int pageSize = 15;
 
-        Page<User> userPage = userService.searchUsers(role, status, email, page, pageSize);
+        // only the displayed columns are fetched
+        Page<UserDTO> userPage = userService.searchUserRows(role, status, email, page, pageSize);
 
         model.addAttribute("userPage", userPage);
         model.addAttribute("currentPage", page);
@@ -57,6 +67,15 @@ public class AdminController {
         // provide dropdown role options
         model.addAttribute("roleOptions", ROLE_OPTIONS);
 
+        // user counts (in-memory, no extra queries)
+        UserStatistics stats = userStatisticsService.getStatistics();
+        Map<String, Long> roleCounts = new LinkedHashMap<>();
+        for (String r : ROLE_OPTIONS) {
+            roleCounts.put(r, stats.countForRole(r));
+        }
+        model.addAttribute("userStats", stats);
+        model.addAttribute("roleCounts", roleCounts);
+
         return "admin-dashboard";
     }
 
@@ -131,7 +150,15 @@ public class AdminController {
         user.setStatus("ACTIVE");
 
         // 6. Save user
-        userService.saveUser(user);
+        try {
+            userService.saveUser(user);
+        } catch (DuplicateEmailException e) {
+            // Lost a race with another registration for the same email; don't echo the hash back
+            user.setPasswordHash(null);
+            model.addAttribute("user", user);
+            model.addAttribute("error", "Email already exists. Please use another one.");
+            return "user-register";
+        }
         redirectAttributes.addFlashAttribute("success", "User registered successfully!");
         // Log the action
         AdminLogger.getInstance().log("Registered new user: " + user.getEmail());
@@ -153,7 +180,7 @@ public class AdminController {
     public String updateUser(@PathVariable("id") int id,
                              @ModelAttribute("user") User updatedUser,
                              Model model , RedirectAttributes redirectAttributes) {
-        User user = userService.getUserById(id)
+        User user = userService.getUserForUpdate(id)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid user Id:" + id));
 
         // --- Email validation ---
@@ -180,7 +207,14 @@ public class AdminController {
         user.setRole(updatedUser.getRole());
         user.setStatus(updatedUser.getStatus());
 
-        userService.saveUser(user);
+        try {
+            userService.saveUser(user);
+        } catch (OptimisticLockingFailureException e) {
+            // The copy we changed was stale (changed meanwhile, or an outdated cached copy)
+            model.addAttribute("user", updatedUser);
+            model.addAttribute("error", "This user was changed in the meantime. Please reload and try again.");
+            return "edit-user";
+        }
 
         // Add success message for redirect
         redirectAttributes.addFlashAttribute("success", "User updated successfully!");
@@ -203,8 +237,13 @@ public class AdminController {
     // Deactivate user
     @GetMapping("/deactivate/{id}")
     public String deactivateUser(@PathVariable("id") int id, RedirectAttributes redirectAttributes) {
+        try {
+            userService.deactivateUser(id);
+        } catch (OptimisticLockingFailureException e) {
+            redirectAttributes.addFlashAttribute("error", "This user was changed in the meantime. Please try again.");
+            return "redirect:/admin/dashboard";
+        }
         redirectAttributes.addFlashAttribute("success", "User deactivated successfully!");
-        userService.deactivateUser(id);
         // Log the action
         AdminLogger.getInstance().log("Deactivated user with ID: " + id);
         return "redirect:/admin/dashboard";
@@ -213,8 +252,13 @@ public class AdminController {
     // Activate user
     @GetMapping("/activate/{id}")
     public String activateUser(@PathVariable("id") int id, RedirectAttributes redirectAttributes) {
+        try {
+            userService.activateUser(id);
+        } catch (OptimisticLockingFailureException e) {
+            redirectAttributes.addFlashAttribute("error", "This user was changed in the meantime. Please try again.");
+            return "redirect:/admin/dashboard";
+        }
         redirectAttributes.addFlashAttribute("success", "User activated successfully!");
-        userService.activateUser(id);
         // Log the action
         AdminLogger.getInstance().log("Activated user with ID: " + id);
         return "redirect:/admin/dashboard";
@@ -0,0 +1,75 @@
+package com.sliit.parking_reservation_and_management_system.controller;
+
+import com.sliit.parking_reservation_and_management_system.config.datasource.ReplicaRoutingDataSource;
+import com.sliit.parking_reservation_and_management_system.config.session.CachingSessionRepository;
+import com.sliit.parking_reservation_and_management_system.service.EmailMembershipFilter;
+import com.sliit.parking_reservation_and_management_system.service.LoginAttemptLimiter;
+import com.sliit.parking_reservation_and_management_system.service.notification.NotificationDispatcher;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Operational counters for admins (JSON)
+@RestController
+@RequestMapping("/admin/api/metrics")
+public class AdminMetricsController {
+
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+    private final CachingSessionRepository sessionRepository;
+    private final EmailMembershipFilter emailMembershipFilter;
+    private final ReservationStore reservationStore;
+    private final NotificationDispatcher notificationDispatcher;
+
+    public AdminMetricsController(LoginAttemptLimiter loginAttemptLimiter,
+                                  ObjectProvider<ReplicaRoutingDataSource> replicaRouting,
+                                  CachingSessionRepository sessionRepository,
+                                  EmailMembershipFilter emailMembershipFilter,
+                                  ReservationStore reservationStore,
+                                  NotificationDispatcher notificationDispatcher) {
+        this.loginAttemptLimiter = loginAttemptLimiter;
+        this.replicaRouting = replicaRouting;
+        this.sessionRepository = sessionRepository;
+        this.emailMembershipFilter = emailMembershipFilter;
+        this.reservationStore = reservationStore;
+        this.notificationDispatcher = notificationDispatcher;
+    }
+
+    @GetMapping("/login")
+    public Map<String, Long> loginMetrics() {
+        return loginAttemptLimiter.metrics();
+    }
+
+    // Primary/replica split; empty when no replicas are configured
+    @GetMapping("/datasource")
+    public Map<String, Object> dataSourceMetrics() {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        return routing == null ? Map.of() : routing.metrics();
+    }
+
+    @GetMapping("/sessions")
+    public Map<String, Long> sessionMetrics() {
+        return sessionRepository.metrics();
+    }
+
+    @GetMapping("/email-filter")
+    public Map<String, Long> emailFilterMetrics() {
+        return emailMembershipFilter.metrics();
+    }
+
+    // Event log size, snapshot position, consumer lag and last recovery time
+    @GetMapping("/reservations")
+    public Map<String, Object> reservationMetrics() {
+        return reservationStore.metrics();
+    }
+
+    // Queue depth, scheduled reminders, sends, retries and outbox lag
+    @GetMapping("/notifications")
+    public Map<String, Object> notificationMetrics() {
+        return notificationDispatcher.metrics();
+    }
+}
@@ -0,0 +1,45 @@
+package com.sliit.parking_reservation_and_management_system.controller;
+
+import com.sliit.parking_reservation_and_management_system.dto.PageResponse;
+import com.sliit.parking_reservation_and_management_system.dto.UserDTO;
+import com.sliit.parking_reservation_and_management_system.service.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Paginated user listing for admin tooling (JSON), same filters as the dashboard
+@RestController
+@RequestMapping("/admin/api/users")
+public class AdminUserApiController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final UserService userService;
+
+    public AdminUserApiController(UserService userService) {
+        this.userService = userService;
+    }
+
+    @GetMapping
+    public PageResponse<UserDTO> list(@RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "50") int size,
+                                      @RequestParam(required = false) String role,
+                                      @RequestParam(required = false) String status,
+                                      @RequestParam(required = false) String email) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageResponse.of(userService.searchUserRows(role, status, email, page, size));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+    }
+}
@@ -1,7 +1,8 @@
 package com.sliit.parking_reservation_and_management_system.controller;
 
 import com.sliit.parking_reservation_and_management_system.entity.User;
-import com.sliit.parking_reservation_and_management_system.repository.UserRepository;
+import com.sliit.parking_reservation_and_management_system.service.DuplicateEmailException;
+import com.sliit.parking_reservation_and_management_system.service.UserService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -12,11 +13,11 @@ import java.util.regex.Pattern;
 @Controller
 public class AuthController {
 
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final PasswordEncoder passwordEncoder;
 
-    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder) {
-        this.userRepository = userRepository;
+    public AuthController(UserService userService, PasswordEncoder passwordEncoder) {
+        this.userService = userService;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -45,7 +46,7 @@ public class AuthController {
             Model model
     ) {
         // 1. Check duplicate email
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
+        if (userService.emailExists(user.getEmail())) {
             model.addAttribute("user", user);
             model.addAttribute("error", "Email already exists. Please use another one.");
             return "register";
@@ -91,8 +92,16 @@ public class AuthController {
             user.setRole("CUSTOMER");
         }
 
-        // 8. Save to DB
-        userRepository.save(user);
+        // 8. Save to DB (through UserService so dashboard statistics stay exact)
+        try {
+            userService.saveUser(user);
+        } catch (DuplicateEmailException e) {
+            // Lost a race with another registration for the same email; don't echo the hash back
+            user.setPasswordHash(null);
+            model.addAttribute("user", user);
+            model.addAttribute("error", "Email already exists. Please use another one.");
+            return "register";
+        }
 
         // ✅ Redirect back to index with a success flag
         return "redirect:/?success";
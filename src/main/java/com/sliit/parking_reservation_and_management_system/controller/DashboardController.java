@@ -1,13 +1,24 @@
 package com.sliit.parking_reservation_and_management_system.controller;
 
+import com.sliit.parking_reservation_and_management_system.service.waitlist.WaitlistService;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
+import java.security.Principal;
+
 @Controller
 public class DashboardController {
 
+    private final WaitlistService waitlistService;
+
+    public DashboardController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
     @GetMapping("/customer/dashboard")
-    public String customerDashboard() {
+    public String customerDashboard(Principal principal, Model model) {
+        model.addAttribute("waitlist", waitlistService.entriesFor(principal.getName()));
         return "customer-dashboard";
     }
 
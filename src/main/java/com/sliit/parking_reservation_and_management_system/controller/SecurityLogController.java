@@ -0,0 +1,64 @@
+package com.sliit.parking_reservation_and_management_system.controller;
+
+import com.sliit.parking_reservation_and_management_system.service.security.SecurityLogKind;
+import com.sliit.parking_reservation_and_management_system.service.security.SecurityLogRecord;
+import com.sliit.parking_reservation_and_management_system.service.security.SecurityLogStore;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/security/logs")
+public class SecurityLogController {
+
+    private final SecurityLogStore logStore;
+
+    public SecurityLogController(SecurityLogStore logStore) {
+        this.logStore = logStore;
+    }
+
+    // Officer files an incident report
+    @PostMapping("/incidents")
+    public ResponseEntity<SecurityLogRecord> reportIncident(@RequestParam String source,
+                                                            @RequestParam String message,
+                                                            Principal principal) {
+        SecurityLogRecord record = new SecurityLogRecord(System.currentTimeMillis(), SecurityLogKind.INCIDENT,
+                source.trim(), message + " (reported by " + principal.getName() + ")");
+        logStore.append(record);
+        return ResponseEntity.status(HttpStatus.CREATED).body(record);
+    }
+
+    // Bulk CCTV / gate events from the camera bridge
+    @PostMapping("/cctv")
+    public ResponseEntity<Map<String, Integer>> ingest(@RequestBody List<SecurityLogRecord> records) {
+        logStore.appendAll(records);
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("stored", records.size()));
+    }
+
+    // Logs of one camera / gate (or all) in a time window
+    @GetMapping
+    public List<SecurityLogRecord> query(@RequestParam(required = false) String source,
+                                         @RequestParam(required = false) SecurityLogKind kind,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                         @RequestParam(defaultValue = "500") int limit) {
+        ZoneId zone = ZoneId.systemDefault();
+        String normalizedSource = source == null || source.isBlank() ? null : source.trim();
+        return logStore.query(normalizedSource, kind,
+                from.atZone(zone).toInstant().toEpochMilli(),
+                to.atZone(zone).toInstant().toEpochMilli(),
+                Math.min(limit, 5000));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+    }
+}
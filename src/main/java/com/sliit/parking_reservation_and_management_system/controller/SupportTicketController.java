@@ -0,0 +1,75 @@
+package com.sliit.parking_reservation_and_management_system.controller;
+
+import com.sliit.parking_reservation_and_management_system.service.support.SupportTicket;
+import com.sliit.parking_reservation_and_management_system.service.support.SupportTicketService;
+import com.sliit.parking_reservation_and_management_system.service.support.TicketPriority;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+public class SupportTicketController {
+
+    private final SupportTicketService ticketService;
+
+    public SupportTicketController(SupportTicketService ticketService) {
+        this.ticketService = ticketService;
+    }
+
+    // ---------------------------
+    // Customer side
+    // ---------------------------
+    @PostMapping("/customer/tickets")
+    public ResponseEntity<SupportTicket> createTicket(@RequestParam(required = false) String subject,
+                                                      @RequestParam(required = false) String body,
+                                                      @RequestParam(defaultValue = "NORMAL") TicketPriority priority,
+                                                      Principal principal) {
+        SupportTicket ticket = ticketService.createTicket(principal.getName(), subject, body, priority);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ticket);
+    }
+
+    // ---------------------------
+    // Support officer work queue
+    // ---------------------------
+    @PostMapping("/support/tickets/claim")
+    public ResponseEntity<SupportTicket> claimNext(Principal principal) {
+        return ticketService.claimNext(principal.getName())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/support/tickets/{id}/renew")
+    public SupportTicket renew(@PathVariable("id") int id, Principal principal) {
+        return ticketService.renewLease(id, principal.getName());
+    }
+
+    @PostMapping("/support/tickets/{id}/resolve")
+    public SupportTicket resolve(@PathVariable("id") int id, Principal principal) {
+        return ticketService.resolve(id, principal.getName());
+    }
+
+    @PostMapping("/support/tickets/{id}/release")
+    public SupportTicket release(@PathVariable("id") int id, Principal principal) {
+        return ticketService.release(id, principal.getName());
+    }
+
+    @GetMapping("/support/tickets/search")
+    public List<SupportTicket> search(@RequestParam("q") String query,
+                                      @RequestParam(defaultValue = "20") int limit) {
+        return ticketService.search(query, Math.min(limit, 100));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> conflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+}
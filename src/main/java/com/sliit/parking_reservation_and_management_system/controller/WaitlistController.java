@@ -0,0 +1,60 @@
+package com.sliit.parking_reservation_and_management_system.controller;
+
+import com.sliit.parking_reservation_and_management_system.service.waitlist.VehicleSize;
+import com.sliit.parking_reservation_and_management_system.service.waitlist.WaitlistEntry;
+import com.sliit.parking_reservation_and_management_system.service.waitlist.WaitlistService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+
+@Controller
+@RequestMapping("/customer/waitlist")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    // Join the waitlist of a full lot for a time window
+    @PostMapping("/join")
+    public String join(@RequestParam long lotId,
+                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                       @RequestParam(defaultValue = "false") boolean ev,
+                       @RequestParam(defaultValue = "false") boolean accessible,
+                       @RequestParam(defaultValue = "MEDIUM") VehicleSize vehicleSize,
+                       Principal principal,
+                       RedirectAttributes redirectAttributes) {
+        try {
+            WaitlistEntry entry = waitlistService.join(principal.getName(), lotId, start, end,
+                    ev, accessible, vehicleSize);
+            redirectAttributes.addFlashAttribute("success",
+                    "You are on the waitlist (" + waitlistService.waitingCount(lotId, start, end)
+                            + " waiting for this time). Ref #" + entry.getSequence());
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/customer/dashboard";
+    }
+
+    // Leave the waitlist
+    @PostMapping("/leave")
+    public String leave(@RequestParam long lotId,
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                        Principal principal,
+                        RedirectAttributes redirectAttributes) {
+        if (waitlistService.leave(principal.getName(), lotId, start, end)) {
+            redirectAttributes.addFlashAttribute("success", "You have left the waitlist.");
+        } else {
+            redirectAttributes.addFlashAttribute("error", "You are not on this waitlist.");
+        }
+        return "redirect:/customer/dashboard";
+    }
+}
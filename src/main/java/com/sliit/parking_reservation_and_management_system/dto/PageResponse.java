@@ -0,0 +1,14 @@
+package com.sliit.parking_reservation_and_management_system.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+// Stable JSON shape for paginated API responses (Spring's PageImpl is not meant to be serialized)
+public record PageResponse<T>(List<T> content, int page, int size, long totalElements, int totalPages) {
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -1,4 +1,57 @@
 package com.sliit.parking_reservation_and_management_system.dto;
 
+/**
+ * The columns shown in user listings (admin dashboard table and JSON API).
+ *
+ * Built directly by a JPQL constructor expression, so listings never load the
+ * password hash or timestamps and nothing ends up in the persistence context.
+ */
 public class UserDTO {
+
+    private final Long userID;
+    private final String email;
+    private final String role;
+    private final String firstName;
+    private final String lastName;
+    private final String phoneNumber;
+    private final String status;
+
+    public UserDTO(Long userID, String email, String role, String firstName,
+                   String lastName, String phoneNumber, String status) {
+        this.userID = userID;
+        this.email = email;
+        this.role = role;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.phoneNumber = phoneNumber;
+        this.status = status;
+    }
+
+    public Long getUserID() {
+        return userID;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public String getStatus() {
+        return status;
+    }
 }
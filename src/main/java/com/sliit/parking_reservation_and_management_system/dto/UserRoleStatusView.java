@@ -0,0 +1,11 @@
+package com.sliit.parking_reservation_and_management_system.dto;
+
+// Projection for statistics scans: only the columns the counters need
+public interface UserRoleStatusView {
+
+    Long getUserID();
+
+    String getRole();
+
+    String getStatus();
+}
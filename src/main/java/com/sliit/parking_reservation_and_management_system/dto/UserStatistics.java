@@ -0,0 +1,18 @@
+package com.sliit.parking_reservation_and_management_system.dto;
+
+import java.util.Map;
+
+/**
+ * Immutable snapshot of user counts for the admin dashboard.
+ * Keys are upper-case role / status names.
+ */
+public record UserStatistics(long total, Map<String, Long> byRole, Map<String, Long> byStatus) {
+
+    public long countForRole(String role) {
+        return byRole.getOrDefault(role, 0L);
+    }
+
+    public long countForStatus(String status) {
+        return byStatus.getOrDefault(status, 0L);
+    }
+}
@@ -1,10 +1,14 @@
 package com.sliit.parking_reservation_and_management_system.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "[User]")  // User is reserved keyword in SQL Server
+@Cacheable  // second-level cache region "user"; only active when a cache provider is configured (prod profile)
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 public class User {
 
     @Id
@@ -42,6 +46,12 @@ public class User {
     @Column(name = "Status", nullable = false)
     private String status;
 
+    // Optimistic lock: an update based on a stale copy (e.g. another node's second-level cache)
+    // matches no row and fails instead of overwriting newer data. Column: db/user-version.sql
+    @Version
+    @Column(name = "Version", nullable = false)
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         // default values if not provided
@@ -134,4 +144,8 @@ public class User {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
@@ -1,7 +1,10 @@
 package com.sliit.parking_reservation_and_management_system.repository;
 
+import com.sliit.parking_reservation_and_management_system.dto.UserDTO;
+import com.sliit.parking_reservation_and_management_system.dto.UserRoleStatusView;
 import com.sliit.parking_reservation_and_management_system.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,6 +14,12 @@ import org.springframework.data.repository.query.Param;
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);// <-- fix here
 
+    boolean existsByEmail(String email);
+
+    // Another user (not the given id, which may be null for a new user) already has this email
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.email = :email AND (:userID IS NULL OR u.userID <> :userID)")
+    boolean existsByEmailForOtherUser(@Param("email") String email, @Param("userID") Long userID);
+
     // New method: fetch paginated users
     Page<User> findAll(Pageable pageable);
 
@@ -27,4 +36,32 @@ public interface UserRepository extends JpaRepository<User, Integer> {
             @Param("email") String email,
             Pageable pageable
     );
+
+    // Same filters as search(), but only the listed columns, as unmanaged DTOs
+    @Query(
+            value = "SELECT new com.sliit.parking_reservation_and_management_system.dto.UserDTO(" +
+                    "u.userID, u.email, u.role, u.firstName, u.lastName, u.phoneNumber, u.status) " +
+                    "FROM User u " +
+                    "WHERE (:role IS NULL OR UPPER(u.role) = UPPER(:role)) " +
+                    "AND (:status IS NULL OR UPPER(u.status) = UPPER(:status)) " +
+                    "AND (:email IS NULL OR LOWER(u.email) LIKE LOWER(CONCAT('%', :email, '%')))",
+            countQuery = "SELECT COUNT(u) FROM User u " +
+                    "WHERE (:role IS NULL OR UPPER(u.role) = UPPER(:role)) " +
+                    "AND (:status IS NULL OR UPPER(u.status) = UPPER(:status)) " +
+                    "AND (:email IS NULL OR LOWER(u.email) LIKE LOWER(CONCAT('%', :email, '%')))"
+    )
+    Page<UserDTO> searchRows(
+            @Param("role") String role,
+            @Param("status") String status,
+            @Param("email") String email,
+            Pageable pageable
+    );
+
+    // Role and status of every user (statistics seeding / reconciliation)
+    @Query("SELECT u.userID AS userID, u.role AS role, u.status AS status FROM User u")
+    List<UserRoleStatusView> findAllRoleStatus();
+
+    // Every email (seeding the registration pre-check filter)
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
 }
@@ -1,5 +1,6 @@
 package com.sliit.parking_reservation_and_management_system.service;
 
+import com.sliit.parking_reservation_and_management_system.config.datasource.ReadYourWritesGuard;
 import com.sliit.parking_reservation_and_management_system.entity.User;
 import com.sliit.parking_reservation_and_management_system.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,14 +12,17 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final ReadYourWritesGuard readYourWritesGuard;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, ReadYourWritesGuard readYourWritesGuard) {
         this.userRepository = userRepository;
+        this.readYourWritesGuard = readYourWritesGuard;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        // a just-registered or just-activated account is read from the primary
+        User user = readYourWritesGuard.readFor(email, () -> userRepository.findByEmail(email))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         boolean enabled = "ACTIVE".equalsIgnoreCase(user.getStatus()); // 👈 check status
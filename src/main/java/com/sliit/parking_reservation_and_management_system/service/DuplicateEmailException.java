@@ -0,0 +1,13 @@
+package com.sliit.parking_reservation_and_management_system.service;
+
+/**
+ * Thrown by UserService when the email is already taken by another user. Usually caught by
+ * the pre-check; this covers two registrations racing for the same address, which the
+ * unique constraint on Email settles.
+ */
+public class DuplicateEmailException extends IllegalArgumentException {
+
+    public DuplicateEmailException(String email, Throwable cause) {
+        super("Email already exists: " + email, cause);
+    }
+}
@@ -0,0 +1,163 @@
+package com.sliit.parking_reservation_and_management_system.service;
+
+import com.sliit.parking_reservation_and_management_system.repository.UserRepository;
+import com.sliit.parking_reservation_and_management_system.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory "definitely not registered" check for emails, so duplicate-email pre-checks
+ * skip the database for new addresses.
+ *
+ * A Bloom filter over normalised (trimmed, lower-case) emails, seeded from one scan at
+ * startup and updated by UserService after every save. A Bloom filter cannot forget, so
+ * deletes and email changes leave stale bits behind; those only cost a database lookup,
+ * and the filter is rebuilt once they pile up (and periodically, to pick up rows written
+ * outside the application). Until the first scan has finished every check goes to the database.
+ *
+ * Only registration uses this. Login keeps querying directly: a missed row there would lock
+ * a user out, while at registration the unique constraint still catches it.
+ */
+@Service
+public class EmailMembershipFilter {
+
+    private final UserRepository userRepository;
+    private final long minExpectedEmails;
+    private final double falsePositiveRate;
+    private final double staleRebuildRatio;
+
+    // guarded by this; current is null until seeded, next is set while a rebuild scan runs
+    private BloomFilter current;
+    private BloomFilter next;
+    private long added;
+    private long stale;
+
+    private final LongAdder definiteMisses = new LongAdder();
+    private final LongAdder databaseChecks = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    @Autowired
+    public EmailMembershipFilter(UserRepository userRepository,
+                                 @Value("${app.email-filter.expected-emails:100000}") long minExpectedEmails,
+                                 @Value("${app.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${app.email-filter.stale-rebuild-ratio:0.1}") double staleRebuildRatio) {
+        this.userRepository = userRepository;
+        this.minExpectedEmails = minExpectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.staleRebuildRatio = staleRebuildRatio;
+    }
+
+    /**
+     * false: the email is certainly not registered (as of the last save this node saw).
+     * true: it may be; the caller has to ask the database.
+     */
+    public boolean mightExist(String email) {
+        BloomFilter filter;
+        synchronized (this) {
+            filter = current;
+        }
+        if (filter == null || filter.mightContain(normalize(email))) {
+            databaseChecks.increment();
+            return true;
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    public synchronized void recordSaved(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = normalize(email);
+        if (current != null) {
+            current.add(key);
+        }
+        if (next != null) {
+            next.add(key);
+        }
+        added++;
+    }
+
+    // The deleted (or replaced) email stays a false positive until the next rebuild
+    public void recordRemoved(String email) {
+        boolean rebuild;
+        synchronized (this) {
+            stale++;
+            rebuild = next == null && current != null && stale > Math.max(1, added) * staleRebuildRatio;
+        }
+        if (rebuild) {
+            rebuild();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.email-filter.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.email-filter.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Build a fresh filter from a scan of the table. Saves that happen during the scan are
+     * added to both filters, so the new one misses nothing when it is swapped in.
+     */
+    void rebuild() {
+        BloomFilter fresh;
+        synchronized (this) {
+            if (next != null) {
+                return;     // a rebuild is already running
+            }
+            fresh = new BloomFilter(Math.max(minExpectedEmails, added * 2), falsePositiveRate);
+            next = fresh;
+        }
+        try {
+            List<String> emails = userRepository.findAllEmails();
+            for (String email : emails) {
+                if (email != null) {
+                    fresh.add(normalize(email));
+                }
+            }
+            synchronized (this) {
+                current = fresh;
+                added = emails.size();
+                stale = 0;
+            }
+            rebuilds.increment();
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Email filter rebuild failed, keeping the previous filter: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                next = null;
+            }
+        }
+    }
+
+    public synchronized Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("definiteMisses", definiteMisses.sum());
+        metrics.put("databaseChecks", databaseChecks.sum());
+        metrics.put("rebuilds", rebuilds.sum());
+        metrics.put("entries", added);
+        metrics.put("staleEmails", stale);
+        metrics.put("filterBits", current == null ? 0L : current.bitCount());
+        return metrics;
+    }
+
+    // SQL Server's default collation compares emails case-insensitively; match that
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,270 @@
+package com.sliit.parking_reservation_and_management_system.service;
+
+import com.sliit.parking_reservation_and_management_system.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Sheds abusive login attempts before any BCrypt or database work happens.
+ *
+ * Every attempt takes a token from the client IP's bucket and from the account's bucket.
+ * Failed logins are also kept in a sliding window per IP and per account; too many failures
+ * inside the window lock that key out for a while. State lives in two LRU maps with a hard
+ * size cap, so a flood of random usernames cannot grow memory without bound.
+ */
+@Service
+public class LoginAttemptLimiter {
+
+    public enum Decision {
+        ALLOWED,
+        IP_THROTTLED,
+        ACCOUNT_THROTTLED,
+        IP_LOCKED,
+        ACCOUNT_LOCKED;
+
+        public boolean isAllowed() {
+            return this == ALLOWED;
+        }
+    }
+
+    private final double ipCapacity;
+    private final double ipRefillPerSecond;
+    private final double accountCapacity;
+    private final double accountRefillPerSecond;
+    private final int maxFailures;
+    private final long windowNanos;
+    private final long lockoutNanos;
+    private final int maxTrackedKeys;
+    private final LongSupplier nanoClock;
+
+    private final KeyMap ips;
+    private final KeyMap accounts;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder ipThrottled = new LongAdder();
+    private final LongAdder accountThrottled = new LongAdder();
+    private final LongAdder ipLocked = new LongAdder();
+    private final LongAdder accountLocked = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder lockouts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public LoginAttemptLimiter(@Value("${app.login-limit.ip.capacity:20}") int ipCapacity,
+                               @Value("${app.login-limit.ip.refill-per-minute:20}") double ipRefillPerMinute,
+                               @Value("${app.login-limit.account.capacity:10}") int accountCapacity,
+                               @Value("${app.login-limit.account.refill-per-minute:5}") double accountRefillPerMinute,
+                               @Value("${app.login-limit.lockout.max-failures:10}") int maxFailures,
+                               @Value("${app.login-limit.lockout.window-minutes:15}") long windowMinutes,
+                               @Value("${app.login-limit.lockout.duration-minutes:15}") long lockoutMinutes,
+                               @Value("${app.login-limit.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this(ipCapacity, ipRefillPerMinute, accountCapacity, accountRefillPerMinute, maxFailures,
+                windowMinutes, lockoutMinutes, maxTrackedKeys, System::nanoTime);
+    }
+
+    LoginAttemptLimiter(int ipCapacity, double ipRefillPerMinute, int accountCapacity, double accountRefillPerMinute,
+                        int maxFailures, long windowMinutes, long lockoutMinutes, int maxTrackedKeys,
+                        LongSupplier nanoClock) {
+        if (maxFailures < 1 || maxTrackedKeys < 1) {
+            throw new IllegalArgumentException("Login limiter needs max-failures and max-tracked-keys of at least 1");
+        }
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipRefillPerMinute / 60.0;
+        this.accountCapacity = accountCapacity;
+        this.accountRefillPerSecond = accountRefillPerMinute / 60.0;
+        this.maxFailures = maxFailures;
+        this.windowNanos = TimeUnit.MINUTES.toNanos(windowMinutes);
+        this.lockoutNanos = TimeUnit.MINUTES.toNanos(lockoutMinutes);
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.nanoClock = nanoClock;
+        this.ips = new KeyMap();
+        this.accounts = new KeyMap();
+    }
+
+    // Called before authentication; nothing expensive has happened yet
+    public Decision tryAcquire(String ip, String account) {
+        long now = nanoClock.getAsLong();
+        KeyState ipState = ips.get(normalize(ip), ipCapacity, ipRefillPerSecond, now);
+        KeyState accountState = account == null || account.isBlank()
+                ? null
+                : accounts.get(normalize(account), accountCapacity, accountRefillPerSecond, now);
+
+        if (ipState.isLocked(now)) {
+            ipLocked.increment();
+            return Decision.IP_LOCKED;
+        }
+        if (accountState != null && accountState.isLocked(now)) {
+            accountLocked.increment();
+            return Decision.ACCOUNT_LOCKED;
+        }
+        if (!ipState.bucket.tryConsume(now)) {
+            ipThrottled.increment();
+            return Decision.IP_THROTTLED;
+        }
+        if (accountState != null && !accountState.bucket.tryConsume(now)) {
+            ipState.bucket.refund(now);
+            accountThrottled.increment();
+            return Decision.ACCOUNT_THROTTLED;
+        }
+        allowed.increment();
+        return Decision.ALLOWED;
+    }
+
+    // How long a client rejected with this decision should wait before trying again
+    public long retryAfterNanos(Decision decision, String ip, String account) {
+        long now = nanoClock.getAsLong();
+        KeyState state = switch (decision) {
+            case ALLOWED -> null;
+            case IP_THROTTLED, IP_LOCKED -> ips.peek(normalize(ip));
+            case ACCOUNT_THROTTLED, ACCOUNT_LOCKED -> account == null ? null : accounts.peek(normalize(account));
+        };
+        if (state == null) {
+            return 0;
+        }
+        return decision == Decision.IP_LOCKED || decision == Decision.ACCOUNT_LOCKED
+                ? state.lockRemaining(now)
+                : state.bucket.nanosUntilAvailable(now);
+    }
+
+    // Called by the failure handler after a wrong password
+    public void recordFailure(String ip, String account) {
+        long now = nanoClock.getAsLong();
+        failures.increment();
+        if (ips.get(normalize(ip), ipCapacity, ipRefillPerSecond, now).recordFailure(now)) {
+            lockouts.increment();
+        }
+        if (account != null && !account.isBlank()
+                && accounts.get(normalize(account), accountCapacity, accountRefillPerSecond, now).recordFailure(now)) {
+            lockouts.increment();
+        }
+    }
+
+    // A successful login clears the account's failure history
+    public void recordSuccess(String account) {
+        if (account == null) {
+            return;
+        }
+        KeyState state = accounts.peek(normalize(account));
+        if (state != null) {
+            state.clearFailures();
+        }
+    }
+
+    public Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("allowed", allowed.sum());
+        metrics.put("rejectedIpThrottled", ipThrottled.sum());
+        metrics.put("rejectedAccountThrottled", accountThrottled.sum());
+        metrics.put("rejectedIpLocked", ipLocked.sum());
+        metrics.put("rejectedAccountLocked", accountLocked.sum());
+        metrics.put("failures", failures.sum());
+        metrics.put("lockouts", lockouts.sum());
+        metrics.put("evictions", evictions.sum());
+        metrics.put("trackedIps", (long) ips.size());
+        metrics.put("trackedAccounts", (long) accounts.size());
+        return metrics;
+    }
+
+    // Forget keys that are back to a full bucket with no failures or lock
+    @Scheduled(fixedDelayString = "${app.login-limit.cleanup-interval-ms:60000}")
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        ips.removeIdle(now);
+        accounts.removeIdle(now);
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.trim().toLowerCase();
+    }
+
+    private final class KeyState {
+        private final TokenBucket bucket;
+        // ring of the last maxFailures failure times
+        private final long[] failureTimes = new long[maxFailures];
+        private int head;
+        private int failureCount;
+        private boolean locked;
+        private long lockedUntil;
+
+        KeyState(double capacity, double refillPerSecond, long now) {
+            this.bucket = new TokenBucket(capacity, refillPerSecond, now);
+        }
+
+        synchronized boolean isLocked(long now) {
+            return locked && now - lockedUntil < 0;
+        }
+
+        synchronized long lockRemaining(long now) {
+            return isLocked(now) ? lockedUntil - now : 0;
+        }
+
+        // true if this failure started a lockout
+        synchronized boolean recordFailure(long now) {
+            failureTimes[head] = now;
+            head = (head + 1) % failureTimes.length;
+            failureCount = Math.min(failureCount + 1, failureTimes.length);
+            // when the ring is full, head points at the oldest of the last maxFailures failures
+            if (failureCount == failureTimes.length && now - failureTimes[head] <= windowNanos && !isLocked(now)) {
+                locked = true;
+                lockedUntil = now + lockoutNanos;
+                failureCount = 0;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void clearFailures() {
+            failureCount = 0;
+        }
+
+        synchronized boolean isIdle(long now) {
+            boolean recentFailure = failureCount > 0
+                    && now - failureTimes[(head - 1 + failureTimes.length) % failureTimes.length] <= windowNanos;
+            return !isLocked(now) && !recentFailure && bucket.isFull(now);
+        }
+    }
+
+    // Access-ordered map capped at maxTrackedKeys; least recently used keys are evicted first
+    private final class KeyMap {
+        private final LinkedHashMap<String, KeyState> map = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, KeyState> eldest) {
+                if (size() > maxTrackedKeys) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        synchronized KeyState get(String key, double capacity, double refillPerSecond, long now) {
+            return map.computeIfAbsent(key, k -> new KeyState(capacity, refillPerSecond, now));
+        }
+
+        synchronized KeyState peek(String key) {
+            return map.get(key);
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+
+        synchronized void removeIdle(long now) {
+            Iterator<KeyState> it = map.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().isIdle(now)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.sliit.parking_reservation_and_management_system.service;
 
+import com.sliit.parking_reservation_and_management_system.config.datasource.ReadYourWritesGuard;
+import com.sliit.parking_reservation_and_management_system.dto.UserDTO;
 import com.sliit.parking_reservation_and_management_system.entity.User;
 import com.sliit.parking_reservation_and_management_system.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,11 +21,20 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserStatisticsService userStatisticsService;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final EmailMembershipFilter emailMembershipFilter;
 
     public UserService(UserRepository userRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       UserStatisticsService userStatisticsService,
+                       ReadYourWritesGuard readYourWritesGuard,
+                       EmailMembershipFilter emailMembershipFilter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userStatisticsService = userStatisticsService;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.emailMembershipFilter = emailMembershipFilter;
     }
 
     public List<User> getAllUsers() {
@@ -31,11 +45,21 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    // For read-modify-write: a replica may still hold an older row, which saveUser would write back
+    public Optional<User> getUserForUpdate(int id) {
+        return readYourWritesGuard.onPrimary(() -> userRepository.findById(id));
+    }
+
     /**
      * Centralized save:
      * - Hash password if not already BCrypt
      * - Uppercase role
      * - Default status = ACTIVE when missing
+     * - Keep dashboard statistics in step
+     * - Read this user from the primary for a while (replica lag)
+     * - Keep the email pre-check filter in step
+     *
+     * @throws DuplicateEmailException if another user got the email first
      */
     public User saveUser(User user) {
         // Hash only if not already BCrypt
@@ -53,24 +77,48 @@ public class UserService {
             user.setStatus("ACTIVE");
         }
 
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // The pre-check passed but a concurrent registration won the unique constraint
+            if (user.getEmail() != null && readYourWritesGuard.onPrimary(
+                    () -> userRepository.existsByEmailForOtherUser(user.getEmail(), user.getUserID()))) {
+                emailMembershipFilter.recordSaved(user.getEmail());
+                throw new DuplicateEmailException(user.getEmail(), e);
+            }
+            throw e;
+        }
+        userStatisticsService.recordSaved(saved);
+        emailMembershipFilter.recordSaved(saved.getEmail());
+        readYourWritesGuard.recordWrite(saved.getEmail());
+        return saved;
     }
 
     public void deleteUser(int id) {
+        Optional<User> user = userRepository.findById(id);
         userRepository.deleteById(id);
+        userStatisticsService.recordDeleted(id);
+        user.ifPresent(u -> emailMembershipFilter.recordRemoved(u.getEmail()));
+        readYourWritesGuard.recordWrite();
     }
 
+    // Read-write transaction: the read joins it and goes to the primary, not a lagging replica
+    @Transactional
     public void deactivateUser(int id) {
         userRepository.findById(id).ifPresent(user -> {
             user.setStatus("INACTIVE");
-            userRepository.save(user);
+            userStatisticsService.recordSaved(userRepository.save(user));
+            readYourWritesGuard.recordWrite(user.getEmail());
         });
     }
 
+    @Transactional
     public void activateUser(int id) {
         userRepository.findById(id).ifPresent(user -> {
             user.setStatus("ACTIVE");
-            userRepository.save(user);
+            userStatisticsService.recordSaved(userRepository.save(user));
+            readYourWritesGuard.recordWrite(user.getEmail());
         });
     }
 
@@ -79,11 +127,13 @@ public class UserService {
         return value.startsWith("$2a$") || value.startsWith("$2b$") || value.startsWith("$2y$");
     }
 
+    @Transactional(readOnly = true)
     public Page<User> getPaginatedUsers(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return userRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
     public Page<User> searchUsers(String role, String status, String email, int page, int size) {
         return userRepository.search(
                 normalize(role),
@@ -93,13 +143,34 @@ public class UserService {
         );
     }
 
+    /**
+     * Listing rows for the admin table and JSON API. Read-only transaction: Hibernate
+     * skips flushing and dirty checking, and the DTOs are never managed anyway.
+     */
+    @Transactional(readOnly = true)
+    public Page<UserDTO> searchUserRows(String role, String status, String email, int page, int size) {
+        return userRepository.searchRows(
+                normalize(role),
+                normalize(status),
+                normalize(email),
+                PageRequest.of(page, size, Sort.by("userID"))
+        );
+    }
+
     private String normalize(String s) {
         if (s == null) return null;
         s = s.trim();
         return s.isEmpty() ? null : s;
     }
+    /**
+     * Duplicate-email pre-check for registration. Most new addresses are answered by the
+     * in-memory filter; only possible matches are checked with an exists query.
+     */
     public boolean emailExists(String email) {
-        return userRepository.findByEmail(email).isPresent();
+        if (email == null || !emailMembershipFilter.mightExist(email)) {
+            return false;
+        }
+        return readYourWritesGuard.readFor(email, () -> userRepository.existsByEmail(email));
     }
 
     public String encodePassword(String rawPassword) {
@@ -0,0 +1,152 @@
+package com.sliit.parking_reservation_and_management_system.service;
+
+import com.sliit.parking_reservation_and_management_system.dto.UserRoleStatusView;
+import com.sliit.parking_reservation_and_management_system.dto.UserStatistics;
+import com.sliit.parking_reservation_and_management_system.entity.User;
+import com.sliit.parking_reservation_and_management_system.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * User counts by role and status, kept in memory for the admin dashboard.
+ *
+ * Seeded from one scan at startup and updated by UserService after every save/delete.
+ * Each user's last known role/status is remembered, so an update moves exactly one count
+ * from the old bucket to the new one. A periodic reconcile re-scans the table and fixes
+ * any drift (e.g. rows changed directly in SQL).
+ *
+ * Until the first scan has succeeded, saves and deletes only invalidate a scan in progress:
+ * the scan (or the retry after it) is what counts them.
+ */
+@Service
+public class UserStatisticsService {
+
+    private final UserRepository userRepository;
+
+    // guarded by this
+    private final Map<Long, Bucket> users = new HashMap<>();
+    private final Map<String, Long> byRole = new HashMap<>();
+    private final Map<String, Long> byStatus = new HashMap<>();
+    private long mutations;
+    private boolean seeded;
+
+    private volatile UserStatistics snapshot = new UserStatistics(0, Map.of(), Map.of());
+
+    public UserStatisticsService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // Counts served to the dashboard; no SQL involved
+    public UserStatistics getStatistics() {
+        return snapshot;
+    }
+
+    public synchronized void recordSaved(User user) {
+        if (user.getUserID() == null) {
+            return;
+        }
+        mutations++;
+        if (!seeded) {
+            return;
+        }
+        Bucket previous = users.put(user.getUserID(), new Bucket(user.getRole(), user.getStatus()));
+        if (previous != null) {
+            count(previous, -1);
+        }
+        count(users.get(user.getUserID()), 1);
+        publish();
+    }
+
+    public synchronized void recordDeleted(long userId) {
+        mutations++;
+        if (!seeded) {
+            return;
+        }
+        Bucket previous = users.remove(userId);
+        if (previous != null) {
+            count(previous, -1);
+            publish();
+        }
+    }
+
+    // Initial load; retried right away if users change during the scan
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        for (int attempt = 0; attempt < 5; attempt++) {
+            if (tryReconcile()) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-stats.reconcile-interval-ms:600000}",
+            initialDelayString = "${app.user-stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        tryReconcile();
+    }
+
+    /**
+     * Re-scan the table and replace the counters. If a save or delete happens while the
+     * scan is running the result is discarded (it may miss that change) and false is returned.
+     */
+    boolean tryReconcile() {
+        long seenMutations;
+        synchronized (this) {
+            seenMutations = mutations;
+        }
+
+        List<UserRoleStatusView> rows = userRepository.findAllRoleStatus();
+        Map<Long, Bucket> scanned = new HashMap<>(rows.size() * 2);
+        for (UserRoleStatusView row : rows) {
+            scanned.put(row.getUserID(), new Bucket(row.getRole(), row.getStatus()));
+        }
+
+        synchronized (this) {
+            if (mutations != seenMutations) {
+                return false;
+            }
+            if (seeded && !users.equals(scanned)) {
+                System.err.println("⚠️ User statistics were out of sync with the database and have been corrected.");
+            }
+            users.clear();
+            users.putAll(scanned);
+            byRole.clear();
+            byStatus.clear();
+            for (Bucket bucket : users.values()) {
+                count(bucket, 1);
+            }
+            seeded = true;
+            publish();
+            return true;
+        }
+    }
+
+    private void count(Bucket bucket, long delta) {
+        byRole.merge(bucket.role(), delta, Long::sum);
+        byStatus.merge(bucket.status(), delta, Long::sum);
+        byRole.remove(bucket.role(), 0L);
+        byStatus.remove(bucket.status(), 0L);
+    }
+
+    private void publish() {
+        snapshot = new UserStatistics(users.size(),
+                Collections.unmodifiableMap(new TreeMap<>(byRole)),
+                Collections.unmodifiableMap(new TreeMap<>(byStatus)));
+    }
+
+    // Normalised the same way the dashboard filters compare (upper-case)
+    private record Bucket(String role, String status) {
+        Bucket {
+            role = role == null ? "UNKNOWN" : role.trim().toUpperCase();
+            status = status == null ? "UNKNOWN" : status.trim().toUpperCase();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.sliit.parking_reservation_and_management_system.service.notification;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Stand-in for a real email or SMS gateway: appends each notification as one tab-separated
+ * line (sent at, id, recipient, subject, text) to <channel>.out in its directory.
+ */
+public class FileNotificationSender implements NotificationSender, AutoCloseable {
+
+    private final NotificationChannel channel;
+    private final BufferedWriter out;
+
+    public FileNotificationSender(Path dir, NotificationChannel channel) {
+        this.channel = channel;
+        try {
+            Files.createDirectories(dir);
+            this.out = Files.newBufferedWriter(dir.resolve(channel.name().toLowerCase() + ".out"),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the " + channel + " notification sink in " + dir, e);
+        }
+    }
+
+    @Override
+    public NotificationChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public synchronized void send(List<Notification> batch) {
+        try {
+            String sentAt = Instant.now().toString();
+            for (Notification notification : batch) {
+                out.write(sentAt + '\t' + notification.id() + '\t' + notification.recipient() + '\t'
+                        + notification.subject() + '\t' + notification.text());
+                out.newLine();
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + channel + " notifications", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("⚠️ Failed to close the " + channel + " notification sink: " + e.getMessage());
+        }
+    }
+}
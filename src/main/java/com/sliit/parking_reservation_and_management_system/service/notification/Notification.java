@@ -0,0 +1,52 @@
+package com.sliit.parking_reservation_and_management_system.service.notification;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A message about one reservation, waiting in the notification queue. The text is rendered
+ * when it is sent, so the queue only stores the reservation details.
+ * id is 0 until the queue has stored it.
+ */
+public record Notification(long id, NotificationKind kind, NotificationChannel channel, String recipient,
+                           long reservationId, long lotId, long slotId, long start, long end,
+                           long dueAt, int attempts) {
+
+    private static final DateTimeFormatter TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm 'UTC'").withZone(ZoneOffset.UTC);
+
+    public static Notification of(NotificationKind kind, NotificationChannel channel, String recipient,
+                                  long reservationId, long lotId, long slotId, long start, long end, long dueAt) {
+        return new Notification(0, kind, channel, recipient, reservationId, lotId, slotId, start, end, dueAt, 0);
+    }
+
+    Notification withId(long id) {
+        return new Notification(id, kind, channel, recipient, reservationId, lotId, slotId, start, end, dueAt, attempts);
+    }
+
+    Notification rescheduled(int attempts, long dueAt) {
+        return new Notification(id, kind, channel, recipient, reservationId, lotId, slotId, start, end, dueAt, attempts);
+    }
+
+    public String subject() {
+        return switch (kind) {
+            case CONFIRMATION -> "Reservation #" + reservationId + " confirmed";
+            case REMINDER -> "Reservation #" + reservationId + " starts soon";
+            case CANCELLATION -> "Reservation #" + reservationId + " cancelled";
+            case EXPIRY -> "Reservation #" + reservationId + " expired";
+        };
+    }
+
+    public String text() {
+        String where = "lot " + lotId + ", slot " + slotId + ", "
+                + TIME.format(Instant.ofEpochMilli(start)) + " to " + TIME.format(Instant.ofEpochMilli(end));
+        return switch (kind) {
+            case CONFIRMATION -> "Your parking is booked: " + where + ".";
+            case REMINDER -> "Reminder: your parking starts at " + TIME.format(Instant.ofEpochMilli(start))
+                    + " (lot " + lotId + ", slot " + slotId + ").";
+            case CANCELLATION -> "Your booking for " + where + " was cancelled.";
+            case EXPIRY -> "Your booking for " + where + " expired because nobody checked in.";
+        };
+    }
+}
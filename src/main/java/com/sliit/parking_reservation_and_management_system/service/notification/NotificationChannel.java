@@ -0,0 +1,7 @@
+package com.sliit.parking_reservation_and_management_system.service.notification;
+
+// Stored by ordinal in the notification queue: only append new channels
+public enum NotificationChannel {
+    EMAIL,
+    SMS
+}
@@ -0,0 +1,427 @@
+package com.sliit.parking_reservation_and_management_system.service.notification;
+
+import com.sliit.parking_reservation_and_management_system.entity.User;
+import com.sliit.parking_reservation_and_management_system.repository.UserRepository;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationEvent;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationJournal;
+import com.sliit.parking_reservation_and_management_system.util.TimingWheel;
+import com.sliit.parking_reservation_and_management_system.util.TokenBucket;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Sends reservation confirmations, reminders, cancellation and expiry notices off the booking
+ * path.
+ *
+ * Reads reservation events from the reservation log's outbox and turns them into notifications
+ * in a durable local queue. Due notifications are sent per channel in batches, paced by a token
+ * bucket per channel; a failed batch is retried with exponential backoff until maxAttempts, then
+ * dropped with a warning. Reminders and retries wait in a timing wheel rather than being polled
+ * for, so a million scheduled reminders cost nothing until they come due.
+ *
+ * Everything runs on one dispatcher thread; the queue, wheel and batches are not shared.
+ * Delivery is at-least-once: a crash between a send and its bookkeeping resends that batch.
+ */
+@Service
+public class NotificationDispatcher {
+
+    static final String CONSUMER = "notifications";
+    private static final int WHEEL_SIZE = 4096;
+    private static final int OUTBOX_BATCH = 1000;
+
+    /**
+     * Tuning. Reminders go out reminderBeforeMillis before the booking starts; rates are per
+     * second and per channel.
+     */
+    public record Settings(int batchSize, double emailPerSecond, double smsPerSecond, int maxAttempts,
+                           long retryInitialMillis, long retryMaxMillis, long reminderBeforeMillis,
+                           long tickMillis) {
+    }
+
+    private final ReservationJournal journal;
+    private final NotificationQueue queue;
+    private final Map<NotificationChannel, NotificationSender> senders = new EnumMap<>(NotificationChannel.class);
+    private final List<AutoCloseable> ownedSenders = new ArrayList<>();
+    private final Function<String, Optional<String>> phoneLookup;
+    private final Settings settings;
+    private final Clock clock;
+
+    // dispatcher thread only
+    private final TimingWheel<Long> wheel;
+    private final Map<NotificationChannel, ArrayDeque<Long>> ready = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, TokenBucket> rates = new EnumMap<>(NotificationChannel.class);
+    private final Map<Long, Long> reminderOf = new HashMap<>();    // reservation id -> reminder id
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder gaveUp = new LongAdder();
+    private final LongAdder withdrawn = new LongAdder();
+    private volatile Map<String, Object> lastState = Map.of();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Autowired
+    public NotificationDispatcher(ReservationJournal journal,
+                                  ObjectProvider<NotificationSender> senders,
+                                  UserRepository userRepository,
+                                  @Value("${app.notifications.dir:data/notifications}") String dir,
+                                  @Value("${app.notifications.fsync:true}") boolean fsync,
+                                  @Value("${app.notifications.compact-mb:64}") long compactMb,
+                                  @Value("${app.notifications.batch-size:100}") int batchSize,
+                                  @Value("${app.notifications.email-per-second:50}") double emailPerSecond,
+                                  @Value("${app.notifications.sms-per-second:10}") double smsPerSecond,
+                                  @Value("${app.notifications.max-attempts:6}") int maxAttempts,
+                                  @Value("${app.notifications.retry-initial-ms:2000}") long retryInitialMillis,
+                                  @Value("${app.notifications.retry-max-ms:600000}") long retryMaxMillis,
+                                  @Value("${app.notifications.reminder-before-minutes:30}") long reminderBeforeMinutes,
+                                  @Value("${app.notifications.tick-ms:100}") long tickMillis) {
+        this(journal,
+                new NotificationQueue(Paths.get(dir).resolve("queue.log"), fsync, compactMb * 1024 * 1024),
+                withFileSinks(senders.orderedStream().toList(), Paths.get(dir).resolve("sent")),
+                email -> userRepository.findByEmail(email).map(User::getPhoneNumber).filter(p -> !p.isBlank()),
+                new Settings(batchSize, emailPerSecond, smsPerSecond, maxAttempts, retryInitialMillis,
+                        retryMaxMillis, TimeUnit.MINUTES.toMillis(reminderBeforeMinutes), tickMillis),
+                Clock.systemUTC());
+    }
+
+    public NotificationDispatcher(ReservationJournal journal, NotificationQueue queue, List<NotificationSender> senders,
+                                  Function<String, Optional<String>> phoneLookup, Settings settings, Clock clock) {
+        this.journal = journal;
+        this.queue = queue;
+        this.phoneLookup = phoneLookup;
+        this.settings = settings;
+        this.clock = clock;
+        for (NotificationSender sender : senders) {
+            this.senders.putIfAbsent(sender.channel(), sender);
+            if (sender instanceof FileNotificationSender sink) {
+                ownedSenders.add(sink);
+            }
+        }
+        long now = clock.millis();
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            if (!this.senders.containsKey(channel)) {
+                throw new IllegalArgumentException("No notification sender for " + channel);
+            }
+            ready.put(channel, new ArrayDeque<>());
+            double rate = channel == NotificationChannel.SMS ? settings.smsPerSecond() : settings.emailPerSecond();
+            rates.put(channel, new TokenBucket(Math.max(1, rate), rate, now * 1_000_000));
+        }
+        this.wheel = new TimingWheel<>(settings.tickMillis(), WHEEL_SIZE, now);
+
+        // a new consumer starts at the end of the log; an existing one resumes where it stopped
+        journal.registerConsumer(CONSUMER);
+        for (Notification notification : queue.pending()) {
+            if (notification.kind() == NotificationKind.REMINDER) {
+                reminderOf.put(notification.reservationId(), notification.id());
+            }
+            schedule(notification, now);
+        }
+        publishState();
+    }
+
+    // Channels without a sender bean write to a file sink
+    private static List<NotificationSender> withFileSinks(List<NotificationSender> beans, Path dir) {
+        List<NotificationSender> all = new ArrayList<>(beans);
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            if (beans.stream().noneMatch(s -> s.channel() == channel)) {
+                all.add(new FileNotificationSender(dir, channel));
+            }
+        }
+        return all;
+    }
+
+    // ==========================
+    // Dispatcher thread
+    // ==========================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(() -> {
+            while (running) {
+                try {
+                    runOnce();
+                } catch (RuntimeException e) {
+                    System.err.println("⚠️ Notification dispatch failed: " + e.getMessage());
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(settings.tickMillis()));
+            }
+        }, "notification-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+        queue.close();
+        for (AutoCloseable sender : ownedSenders) {
+            try {
+                sender.close();
+            } catch (Exception e) {
+                System.err.println("⚠️ Failed to close notification sender: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One round: take new reservation events, move what came due out of the wheel, and send
+     * as much as the rate limits allow. Returns the number of notifications sent.
+     */
+    int runOnce() {
+        long now = clock.millis();
+        while (readOutbox(now) == OUTBOX_BATCH) {
+            // keep reading while the outbox returns full batches
+        }
+        wheel.advance(now, id -> {
+            Notification notification = queue.get(id);
+            if (notification != null) {
+                ready.get(notification.channel()).add(id);
+            }
+        });
+        int delivered = 0;
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            delivered += drain(channel, now);
+        }
+        publishState();
+        return delivered;
+    }
+
+    // ==========================
+    // Outbox -> queue
+    // ==========================
+
+    private int readOutbox(long now) {
+        List<ReservationEvent> events = journal.poll(CONSUMER, OUTBOX_BATCH);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Notification> fresh = new ArrayList<>();
+        Set<Long> ended = new HashSet<>();
+        for (ReservationEvent event : events) {
+            // already enqueued before a crash that came ahead of the acknowledgement
+            if (event.sequence() <= queue.getLastSourceSequence()) {
+                continue;
+            }
+            switch (event.type()) {
+                case RESERVED -> {
+                    fresh.add(notification(NotificationKind.CONFIRMATION, NotificationChannel.EMAIL,
+                            event.customerEmail(), event, now));
+                    long remindAt = event.start() - settings.reminderBeforeMillis();
+                    if (event.start() > now) {
+                        fresh.add(reminder(event, Math.max(now, remindAt)));
+                    }
+                }
+                case CANCELLED -> {
+                    ended.add(event.reservationId());
+                    fresh.add(notification(NotificationKind.CANCELLATION, NotificationChannel.EMAIL,
+                            event.customerEmail(), event, now));
+                }
+                case EXPIRED -> {
+                    ended.add(event.reservationId());
+                    fresh.add(notification(NotificationKind.EXPIRY, NotificationChannel.EMAIL,
+                            event.customerEmail(), event, now));
+                }
+                case CHECKED_IN, CHECKED_OUT -> ended.add(event.reservationId());
+                default -> {
+                }
+            }
+        }
+        long last = events.get(events.size() - 1).sequence();
+        // reminders made obsolete by this batch go out in the same frame as its notifications
+        int before = fresh.size();
+        fresh.removeIf(n -> n.kind() == NotificationKind.REMINDER && ended.contains(n.reservationId()));
+        List<Long> withdraw = remindersOf(ended);
+        if (!fresh.isEmpty() || !withdraw.isEmpty()) {
+            for (Notification notification : queue.enqueue(fresh, withdraw, last)) {
+                if (notification.kind() == NotificationKind.REMINDER) {
+                    reminderOf.put(notification.reservationId(), notification.id());
+                }
+                schedule(notification, now);
+            }
+        }
+        withdrawn.add(before - fresh.size() + withdraw.size());
+        journal.acknowledge(CONSUMER, last);
+        return events.size();
+    }
+
+    // SMS when the customer has a phone number on file, otherwise email
+    private Notification reminder(ReservationEvent event, long dueAt) {
+        Optional<String> phone;
+        try {
+            phone = phoneLookup.apply(event.customerEmail());
+        } catch (RuntimeException e) {
+            phone = Optional.empty();
+        }
+        return phone.map(p -> notification(NotificationKind.REMINDER, NotificationChannel.SMS, p, event, dueAt))
+                .orElseGet(() -> notification(NotificationKind.REMINDER, NotificationChannel.EMAIL,
+                        event.customerEmail(), event, dueAt));
+    }
+
+    private static Notification notification(NotificationKind kind, NotificationChannel channel, String recipient,
+                                             ReservationEvent event, long dueAt) {
+        return Notification.of(kind, channel, recipient, event.reservationId(), event.lotId(), event.slotId(),
+                event.start(), event.end(), dueAt);
+    }
+
+    // A reminder is pointless once the booking is cancelled, expired or in use. Withdrawn ones
+    // still sit in the wheel or a ready queue; they are skipped there since the queue no longer has them
+    private List<Long> remindersOf(Set<Long> reservationIds) {
+        List<Long> withdraw = new ArrayList<>();
+        for (Long reservationId : reservationIds) {
+            Long id = reminderOf.remove(reservationId);
+            if (id != null && queue.get(id) != null) {
+                withdraw.add(id);
+            }
+        }
+        return withdraw;
+    }
+
+    private void schedule(Notification notification, long now) {
+        if (notification.dueAt() <= now) {
+            ready.get(notification.channel()).add(notification.id());
+        } else {
+            wheel.schedule(notification.id(), notification.dueAt());
+        }
+    }
+
+    // ==========================
+    // Sending
+    // ==========================
+
+    private int drain(NotificationChannel channel, long now) {
+        ArrayDeque<Long> due = ready.get(channel);
+        TokenBucket rate = rates.get(channel);
+        NotificationSender sender = senders.get(channel);
+        int delivered = 0;
+        while (!due.isEmpty()) {
+            List<Notification> batch = new ArrayList<>(Math.min(settings.batchSize(), due.size()));
+            while (batch.size() < settings.batchSize() && !due.isEmpty()) {
+                Notification notification = queue.get(due.peekFirst());
+                if (notification == null) {
+                    due.pollFirst();    // withdrawn
+                    continue;
+                }
+                if (!rate.tryConsume(now * 1_000_000)) {
+                    break;
+                }
+                due.pollFirst();
+                batch.add(notification);
+            }
+            if (batch.isEmpty()) {
+                break;      // out of tokens until a later round
+            }
+            try {
+                sender.send(batch);
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                retry(channel, batch, now, e);
+                continue;
+            }
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (Notification notification : batch) {
+                ids.add(notification.id());
+                if (notification.kind() == NotificationKind.REMINDER) {
+                    reminderOf.remove(notification.reservationId());
+                }
+            }
+            queue.finish(ids);
+            sent.add(batch.size());
+            delivered += batch.size();
+        }
+        return delivered;
+    }
+
+    private void retry(NotificationChannel channel, List<Notification> batch, long now, RuntimeException error) {
+        List<Notification> again = new ArrayList<>();
+        List<Long> abandoned = new ArrayList<>();
+        for (Notification notification : batch) {
+            if (notification.attempts() + 1 >= settings.maxAttempts()) {
+                abandoned.add(notification.id());
+            } else {
+                again.add(notification);
+            }
+        }
+        if (!abandoned.isEmpty()) {
+            System.err.println("⚠️ Giving up on " + abandoned.size() + " " + channel + " notifications after "
+                    + settings.maxAttempts() + " attempts: " + error.getMessage());
+            queue.finish(abandoned);
+            gaveUp.add(abandoned.size());
+        }
+        // all of a batch share their attempt count except after a restart; back off by the first
+        if (!again.isEmpty()) {
+            int attempts = again.get(0).attempts();
+            long delay = Math.min(settings.retryMaxMillis(), settings.retryInitialMillis() << Math.min(attempts, 30));
+            for (Notification notification : queue.reschedule(again, now + delay)) {
+                wheel.schedule(notification.id(), notification.dueAt());
+            }
+            retried.add(again.size());
+        }
+    }
+
+    // ==========================
+    // Metrics
+    // ==========================
+
+    private void publishState() {
+        Map<String, Object> state = new LinkedHashMap<>(queue.metrics());
+        state.put("scheduled", wheel.size());
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            state.put("ready" + capitalise(channel), ready.get(channel).size());
+        }
+        lastState = state;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(lastState);
+        metrics.put("sent", sent.sum());
+        metrics.put("failedBatches", failedBatches.sum());
+        metrics.put("retried", retried.sum());
+        metrics.put("gaveUp", gaveUp.sum());
+        metrics.put("remindersWithdrawn", withdrawn.sum());
+        metrics.put("outboxLag", journal.getLastSequence() - journal.getConsumerOffset(CONSUMER));
+        return metrics;
+    }
+
+    private static String capitalise(NotificationChannel channel) {
+        String name = channel.name().toLowerCase();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
@@ -0,0 +1,9 @@
+package com.sliit.parking_reservation_and_management_system.service.notification;
+
+// Stored by ordinal in the notification queue: only append new kinds
+public enum NotificationKind {
+    CONFIRMATION,
+    REMINDER,
+    CANCELLATION,
+    EXPIRY
+}
@@ -0,0 +1,419 @@
+package com.sliit.parking_reservation_and_management_system.service.notification;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable local queue of notifications that still have to be sent.
+ *
+ * An append-only file of frames, [int payload length][int CRC32C][payload], each holding the
+ * records of one call: enqueued, rescheduled (after a failed send) or finished. Startup replays
+ * the file to rebuild the pending set; a torn or corrupt frame at the end (crash mid-write)
+ * is cut off, and since a frame is all-or-nothing so is each call. A bad frame with valid
+ * frames after it is not a crash mid-write, and opening the queue fails instead. Once the file is past
+ * compactBytes and most of it is finished work, the pending notifications are rewritten into
+ * a fresh file that atomically replaces it.
+ *
+ * Every enqueue also stores the reservation-log sequence it was made from, in the same frame
+ * as the notifications and whatever they make obsolete, so after a crash the dispatcher knows
+ * exactly which events were already handled.
+ *
+ * Not thread-safe: the dispatcher thread owns it.
+ */
+public class NotificationQueue implements AutoCloseable {
+
+    private static final byte ENQUEUED = 1;
+    private static final byte RESCHEDULED = 2;
+    private static final byte FINISHED = 3;
+    private static final byte SOURCE = 4;
+    private static final int HEADER = 8;
+    private static final int MIN_PAYLOAD = 1 + 8;     // every frame holds at least one record
+    private static final int COMPACT_FRAME_RECORDS = 8192;
+
+    private final Path file;
+    private final boolean fsync;
+    private final long compactBytes;
+
+    private FileChannel channel;
+    private long size;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    private final Map<Long, Notification> pending = new HashMap<>();
+    private long lastId;
+    private long lastSourceSequence;
+    private long enqueuedInFile;    // enqueued records in the file, pending or not
+    private long compactions;
+
+    public NotificationQueue(Path file, boolean fsync, long compactBytes) {
+        this.file = file;
+        this.fsync = fsync;
+        this.compactBytes = compactBytes;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.deleteIfExists(temporaryFile());
+            replay();
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (channel.size() > size) {
+                System.err.println("⚠️ Dropping incomplete notification queue tail in " + file.getFileName()
+                        + " at byte " + size);
+                channel.truncate(size);
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open notification queue " + file, e);
+        }
+    }
+
+    // ==========================
+    // Changes
+    // ==========================
+
+    // Store new notifications (their id is ignored) and return them with the ids they got
+    public List<Notification> enqueue(List<Notification> notifications, long sourceSequence) {
+        return enqueue(notifications, List.of(), sourceSequence);
+    }
+
+    /**
+     * Store new notifications and finish the given pending ones in one frame, so a crash keeps
+     * both or neither (e.g. a reminder withdrawn by the cancellation that was just enqueued).
+     */
+    public List<Notification> enqueue(List<Notification> notifications, Collection<Long> finished,
+                                      long sourceSequence) {
+        List<Notification> stored = new ArrayList<>(notifications.size());
+        long id = lastId;
+        begin();
+        for (Notification notification : notifications) {
+            Notification withId = notification.withId(++id);
+            putEnqueued(withId);
+            stored.add(withId);
+        }
+        for (Long finishedId : finished) {
+            putFinished(finishedId);
+        }
+        putSource(sourceSequence);
+        commit();
+        lastId = id;
+        lastSourceSequence = Math.max(lastSourceSequence, sourceSequence);
+        for (Notification notification : stored) {
+            pending.put(notification.id(), notification);
+        }
+        enqueuedInFile += stored.size();
+        if (!finished.isEmpty()) {
+            finished.forEach(pending::remove);
+            compactIfDue();
+        }
+        return stored;
+    }
+
+    // Record a failed attempt and the time of the next one
+    public List<Notification> reschedule(List<Notification> failed, long dueAt) {
+        if (failed.isEmpty()) {
+            return List.of();
+        }
+        List<Notification> updated = new ArrayList<>(failed.size());
+        begin();
+        for (Notification notification : failed) {
+            Notification next = notification.rescheduled(notification.attempts() + 1, dueAt);
+            buffer = ensure(buffer, 1 + 8 + 4 + 8);
+            buffer.put(RESCHEDULED).putLong(next.id()).putInt(next.attempts()).putLong(next.dueAt());
+            updated.add(next);
+        }
+        commit();
+        for (Notification notification : updated) {
+            pending.put(notification.id(), notification);
+        }
+        return updated;
+    }
+
+    // Sent, given up on, or no longer wanted
+    public void finish(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        begin();
+        for (Long id : ids) {
+            putFinished(id);
+        }
+        commit();
+        ids.forEach(pending::remove);
+        compactIfDue();
+    }
+
+    // ==========================
+    // Queries
+    // ==========================
+
+    public Notification get(long id) {
+        return pending.get(id);
+    }
+
+    public Collection<Notification> pending() {
+        return pending.values();
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public long getLastSourceSequence() {
+        return lastSourceSequence;
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pending", pending.size());
+        metrics.put("fileBytes", size);
+        metrics.put("compactions", compactions);
+        metrics.put("lastSourceSequence", lastSourceSequence);
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("⚠️ Failed to close notification queue: " + e.getMessage());
+        }
+    }
+
+    // ==========================
+    // File format
+    // ==========================
+
+    private void begin() {
+        buffer.clear();
+        buffer.position(HEADER);
+    }
+
+    private void putEnqueued(Notification n) {
+        byte[] recipient = n.recipient() == null ? new byte[0] : n.recipient().getBytes(StandardCharsets.UTF_8);
+        if (recipient.length > 0xffff) {
+            throw new IllegalArgumentException("Notification recipient is too long");
+        }
+        buffer = ensure(buffer, 1 + 8 + 1 + 1 + 4 + 8 * 6 + 2 + recipient.length);
+        buffer.put(ENQUEUED)
+                .putLong(n.id())
+                .put((byte) n.kind().ordinal())
+                .put((byte) n.channel().ordinal())
+                .putInt(n.attempts())
+                .putLong(n.dueAt())
+                .putLong(n.reservationId())
+                .putLong(n.lotId())
+                .putLong(n.slotId())
+                .putLong(n.start())
+                .putLong(n.end())
+                .putShort((short) recipient.length)
+                .put(recipient);
+    }
+
+    private void putFinished(long id) {
+        buffer = ensure(buffer, 1 + 8);
+        buffer.put(FINISHED).putLong(id);
+    }
+
+    private void putSource(long sequence) {
+        buffer = ensure(buffer, 1 + 8);
+        buffer.put(SOURCE).putLong(sequence);
+    }
+
+    // Seal the frame built since begin() and write it (one fsync per call)
+    private void commit() {
+        try {
+            size = writeFrame(channel, size);
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write notification queue " + file, e);
+        }
+    }
+
+    private long writeFrame(FileChannel target, long at) throws IOException {
+        int payload = buffer.position() - HEADER;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), HEADER, payload);
+        buffer.putInt(0, payload);
+        buffer.putInt(4, (int) crc.getValue());
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            at += target.write(buffer, at);
+        }
+        return at;
+    }
+
+    private void replay() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        long fileSize = Files.size(file);
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 20))) {
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length < MIN_PAYLOAD || length > fileSize - size - HEADER) {
+                        checkTail("bad frame length " + length);
+                        return;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    return;
+                }
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    checkTail("checksum mismatch");
+                    return;
+                }
+                apply(ByteBuffer.wrap(payload));
+                size += HEADER + length;
+            }
+        }
+    }
+
+    /**
+     * Replay stopped at a bad frame at byte size. A crash mid-write leaves it as the last thing
+     * in the file; if a valid frame starts anywhere after it, the file is damaged and cutting it
+     * there would silently drop acknowledged work.
+     */
+    private void checkTail(String problem) throws IOException {
+        ByteBuffer rest;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            rest = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE - 8, in.size() - size));
+            while (rest.hasRemaining() && in.read(rest, size + rest.position()) >= 0) {
+                // read the rest of the file
+            }
+        }
+        byte[] bytes = rest.array();
+        for (int at = 1; at + HEADER + MIN_PAYLOAD <= bytes.length; at++) {
+            ByteBuffer frame = ByteBuffer.wrap(bytes, at, bytes.length - at);
+            int length = frame.getInt();
+            int checksum = frame.getInt();
+            if (length < MIN_PAYLOAD || length > frame.remaining()) {
+                continue;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(bytes, at + HEADER, length);
+            if ((int) crc.getValue() == checksum) {
+                throw new IllegalStateException("Notification queue is corrupt in " + file.getFileName()
+                        + " at byte " + size + " (" + problem + ", valid frame at byte " + (size + at) + ")");
+            }
+        }
+    }
+
+    private void apply(ByteBuffer records) {
+        while (records.hasRemaining()) {
+            byte type = records.get();
+            switch (type) {
+                case ENQUEUED -> {
+                    long id = records.getLong();
+                    NotificationKind kind = NotificationKind.values()[records.get()];
+                    NotificationChannel channel = NotificationChannel.values()[records.get()];
+                    int attempts = records.getInt();
+                    long dueAt = records.getLong();
+                    long reservationId = records.getLong();
+                    long lotId = records.getLong();
+                    long slotId = records.getLong();
+                    long start = records.getLong();
+                    long end = records.getLong();
+                    byte[] recipient = new byte[records.getShort() & 0xffff];
+                    records.get(recipient);
+                    pending.put(id, new Notification(id, kind, channel, new String(recipient, StandardCharsets.UTF_8),
+                            reservationId, lotId, slotId, start, end, dueAt, attempts));
+                    lastId = Math.max(lastId, id);
+                    enqueuedInFile++;
+                }
+                case RESCHEDULED -> {
+                    long id = records.getLong();
+                    int attempts = records.getInt();
+                    long dueAt = records.getLong();
+                    Notification notification = pending.get(id);
+                    if (notification != null) {
+                        pending.put(id, notification.rescheduled(attempts, dueAt));
+                    }
+                }
+                case FINISHED -> pending.remove(records.getLong());
+                case SOURCE -> lastSourceSequence = Math.max(lastSourceSequence, records.getLong());
+                default -> throw new IllegalStateException("Unknown notification queue record type " + type
+                        + " in " + file.getFileName());
+            }
+        }
+    }
+
+    // Rewrite only the pending notifications once finished ones make up most of the file
+    private void compactIfDue() {
+        if (size < compactBytes || pending.size() * 2L > enqueuedInFile) {
+            return;
+        }
+        Path temporary = temporaryFile();
+        try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long at = 0;
+            int inFrame = 0;
+            begin();
+            for (Notification notification : pending.values()) {
+                putEnqueued(notification);
+                if (++inFrame == COMPACT_FRAME_RECORDS) {
+                    at = writeFrame(target, at);
+                    begin();
+                    inFrame = 0;
+                }
+            }
+            putSource(lastSourceSequence);
+            at = writeFrame(target, at);
+            target.force(true);
+            channel.close();
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            size = at;
+            enqueuedInFile = pending.size();
+            compactions++;
+        } catch (IOException e) {
+            // the old file is still complete; keep appending to it
+            System.err.println("⚠️ Notification queue compaction failed: " + e.getMessage());
+        }
+        try {
+            if (!channel.isOpen()) {
+                channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to reopen notification queue " + file, e);
+        }
+    }
+
+    private Path temporaryFile() {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int needed) {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        bigger.put(buffer);
+        return bigger;
+    }
+}
@@ -0,0 +1,15 @@
+package com.sliit.parking_reservation_and_management_system.service.notification;
+
+import java.util.List;
+
+/**
+ * Delivers notifications of one channel. Any bean implementing this takes over its channel
+ * from the file sink the dispatcher falls back to.
+ */
+public interface NotificationSender {
+
+    NotificationChannel channel();
+
+    // Deliver a batch; throwing fails the whole batch, which is retried with backoff
+    void send(List<Notification> batch);
+}
@@ -0,0 +1,352 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One file of the reservation event log, holding consecutive sequence numbers from
+ * baseSequence on. The file is named after baseSequence, so an empty segment still says
+ * where the log continues.
+ *
+ * Record layout: [int payload length][int CRC32C of payload][payload], payload =
+ * [long sequence][long timestamp][byte type][long lot][long slot][long reservation]
+ * [long start][long end][short email length][email UTF-8].
+ *
+ * Only the journal's writer appends. Readers may read concurrently: they only look at
+ * bytes below the published size. A sparse in-memory index (every INDEX_INTERVAL records)
+ * lets a consumer start reading near its offset instead of at the top of the file.
+ */
+class JournalSegment {
+
+    static final int HEADER = 8;
+    private static final int FIXED_PAYLOAD = 8 * 7 + 1 + 2;
+    static final int MAX_EMAIL_BYTES = 0xffff;
+    private static final int MAX_PAYLOAD = FIXED_PAYLOAD + MAX_EMAIL_BYTES;
+    private static final int INDEX_INTERVAL = 1024;
+    private static final int READ_BUFFER = 1 << 20;
+
+    private final long baseSequence;
+    private final Path file;
+    private final FileChannel channel;
+
+    private volatile long size;
+    private volatile long lastSequence;
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(64 * 1024);
+
+    // guarded by this
+    private long[] indexSequences = new long[16];
+    private long[] indexPositions = new long[16];
+    private int indexCount;
+
+    private JournalSegment(long baseSequence, Path file, FileChannel channel) {
+        this.baseSequence = baseSequence;
+        this.file = file;
+        this.channel = channel;
+        this.lastSequence = baseSequence - 1;
+    }
+
+    static String fileName(long baseSequence) {
+        return String.format("%020d.log", baseSequence);
+    }
+
+    static long baseSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - ".log".length()));
+    }
+
+    static JournalSegment create(Path dir, long baseSequence) throws IOException {
+        Path file = dir.resolve(fileName(baseSequence));
+        return new JournalSegment(baseSequence, file, FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Open an existing segment, verify every record and rebuild the index.
+     * In the tail segment a torn or corrupt record (crash during append) and everything after
+     * it is cut off. Anywhere else that would lose acknowledged events, so it is an error.
+     */
+    static JournalSegment open(Path file, boolean tail) throws IOException {
+        JournalSegment segment = new JournalSegment(baseSequenceOf(file), file, FileChannel.open(file,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        long fileSize = segment.channel.size();
+        Reader reader = segment.new Reader(0, fileSize);
+        long expected = segment.baseSequence;
+        long validEnd = 0;
+        ReservationEvent event;
+        while ((event = reader.next()) != null) {
+            if (event.sequence() != expected) {
+                reader.problem = "sequence " + event.sequence() + " where " + expected + " was expected";
+                break;
+            }
+            segment.index(event.sequence(), reader.recordStart);
+            segment.lastSequence = expected++;
+            validEnd = reader.position;
+        }
+        if (validEnd < fileSize) {
+            String where = segment.file.getFileName() + " at byte " + validEnd + " (" + reader.problem + ")";
+            if (!tail) {
+                segment.channel.close();
+                throw new IllegalStateException("Reservation log is corrupt in " + where);
+            }
+            System.err.println("⚠️ Dropping incomplete reservation log tail in " + where);
+            segment.channel.truncate(validEnd);
+            segment.channel.force(true);
+        }
+        segment.size = validEnd;
+        return segment;
+    }
+
+    // Events must carry the next sequence numbers of this segment
+    synchronized void append(List<ReservationEvent> events) throws IOException {
+        ByteBuffer buffer = writeBuffer;
+        buffer.clear();
+        long position = size;
+        long[] starts = new long[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            ReservationEvent event = events.get(i);
+            byte[] email = event.customerEmail() == null
+                    ? new byte[0] : event.customerEmail().getBytes(StandardCharsets.UTF_8);
+            if (email.length > MAX_EMAIL_BYTES) {
+                throw new IllegalArgumentException("Customer email is too long");
+            }
+            int payload = FIXED_PAYLOAD + email.length;
+            if (buffer.remaining() < HEADER + payload) {
+                buffer = grow(buffer, HEADER + payload);
+            }
+            starts[i] = position + buffer.position();
+            int headerAt = buffer.position();
+            buffer.position(headerAt + HEADER);
+            buffer.putLong(event.sequence())
+                    .putLong(event.timestamp())
+                    .put((byte) event.type().ordinal())
+                    .putLong(event.lotId())
+                    .putLong(event.slotId())
+                    .putLong(event.reservationId())
+                    .putLong(event.start())
+                    .putLong(event.end())
+                    .putShort((short) email.length)
+                    .put(email);
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.array(), headerAt + HEADER, payload);
+            buffer.putInt(headerAt, payload);
+            buffer.putInt(headerAt + 4, (int) crc.getValue());
+        }
+        writeBuffer = buffer;
+        buffer.flip();
+        long at = position;
+        while (buffer.hasRemaining()) {
+            at += channel.write(buffer, at);
+        }
+        for (int i = 0; i < events.size(); i++) {
+            index(events.get(i).sequence(), starts[i]);
+        }
+        // publish to readers only after the bytes are in the file
+        size = at;
+        if (!events.isEmpty()) {
+            lastSequence = events.get(events.size() - 1).sequence();
+        }
+    }
+
+    /**
+     * The record format has a two-byte length for the UTF-8 email, and LotState snapshots store
+     * it with DataOutput.writeUTF, also limited to 65535 bytes but in modified UTF-8 (NUL takes
+     * two bytes, a supplementary character six). Modified UTF-8 is never the shorter of the two,
+     * so an email that fits it fits both.
+     */
+    static boolean fitsEmail(String email) {
+        if (email == null || email.length() <= MAX_EMAIL_BYTES / 3) {
+            return true;
+        }
+        long bytes = 0;
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            bytes += c >= 0x0001 && c <= 0x007f ? 1 : c <= 0x07ff ? 2 : 3;
+        }
+        return bytes <= MAX_EMAIL_BYTES;
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Events with sequence in [from, to], oldest first, until the consumer has seen max events.
+     * Returns how many were delivered.
+     */
+    int read(long from, long to, int max, Consumer<ReservationEvent> consumer) throws IOException {
+        long limit = size;
+        Reader reader = new Reader(positionFor(from), limit);
+        int delivered = 0;
+        ReservationEvent event;
+        while (delivered < max && (event = reader.next()) != null) {
+            if (event.sequence() > to) {
+                break;
+            }
+            if (event.sequence() >= from) {
+                consumer.accept(event);
+                delivered++;
+            }
+        }
+        if (reader.problem != null) {
+            throw new IllegalStateException("Reservation log is corrupt in " + file.getFileName()
+                    + " at byte " + reader.position + " (" + reader.problem + ")");
+        }
+        return delivered;
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    long getBaseSequence() {
+        return baseSequence;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return lastSequence < baseSequence;
+    }
+
+    private synchronized void index(long sequence, long position) {
+        if ((sequence - baseSequence) % INDEX_INTERVAL != 0) {
+            return;
+        }
+        if (indexCount == indexSequences.length) {
+            indexSequences = Arrays.copyOf(indexSequences, indexCount * 2);
+            indexPositions = Arrays.copyOf(indexPositions, indexCount * 2);
+        }
+        indexSequences[indexCount] = sequence;
+        indexPositions[indexCount] = position;
+        indexCount++;
+    }
+
+    // Byte position of the last indexed record at or before sequence
+    private synchronized long positionFor(long sequence) {
+        int i = Arrays.binarySearch(indexSequences, 0, indexCount, sequence);
+        if (i >= 0) {
+            return indexPositions[i];
+        }
+        int before = -i - 2;
+        return before < 0 ? 0 : indexPositions[before];
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        bigger.put(buffer);
+        return bigger;
+    }
+
+    private static ReservationEvent decode(ByteBuffer payload) {
+        long sequence = payload.getLong();
+        long timestamp = payload.getLong();
+        ReservationEventType type = ReservationEventType.values()[payload.get()];
+        long lotId = payload.getLong();
+        long slotId = payload.getLong();
+        long reservationId = payload.getLong();
+        long start = payload.getLong();
+        long end = payload.getLong();
+        int emailLength = payload.getShort() & 0xffff;
+        String email = null;
+        if (emailLength > 0) {
+            byte[] bytes = new byte[emailLength];
+            payload.get(bytes);
+            email = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new ReservationEvent(sequence, timestamp, type, lotId, slotId, reservationId, email, start, end);
+    }
+
+    // Sequential, buffered reader of verified records between two byte positions
+    private final class Reader {
+        private final ByteBuffer buffer;
+        private final long limit;
+        private long bufferEnd;     // file position just after the buffered bytes
+        private long position;      // file position of the next record
+        private long recordStart;   // file position of the record last returned
+        private String problem;     // why reading stopped early; null at a clean end
+
+        Reader(long position, long limit) {
+            this.position = position;
+            this.bufferEnd = position;
+            this.limit = limit;
+            // small reads (a consumer poll) don't need the full buffer; it must still fit one record
+            int capacity = (int) Math.min(READ_BUFFER, Math.max(HEADER + MAX_PAYLOAD, limit - position));
+            this.buffer = ByteBuffer.allocate(capacity).flip();
+        }
+
+        ReservationEvent next() throws IOException {
+            if (!fill(HEADER)) {
+                if (buffer.hasRemaining()) {
+                    problem = "torn record header";
+                }
+                return null;
+            }
+            int at = buffer.position();
+            int length = buffer.getInt(at);
+            int checksum = buffer.getInt(at + 4);
+            if (length < FIXED_PAYLOAD || length > MAX_PAYLOAD) {
+                problem = "bad record length " + length;
+                return null;
+            }
+            if (!fill(HEADER + length)) {
+                problem = "torn record";
+                return null;
+            }
+            at = buffer.position();
+            ByteBuffer payload = buffer.slice(at + HEADER, length);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                problem = "checksum mismatch";
+                return null;
+            }
+            ReservationEvent event = decode(payload);
+            buffer.position(at + HEADER + length);
+            recordStart = position;
+            position += HEADER + length;
+            return event;
+        }
+
+        // Make n bytes available from buffer.position(); false at the end of the readable range
+        private boolean fill(int n) throws IOException {
+            while (buffer.remaining() < n) {
+                if (bufferEnd >= limit) {
+                    return false;
+                }
+                buffer.compact();
+                int room = (int) Math.min(buffer.remaining(), limit - bufferEnd);
+                int oldLimit = buffer.limit();
+                buffer.limit(buffer.position() + room);
+                int read = channel.read(buffer, bufferEnd);
+                buffer.limit(oldLimit);
+                buffer.flip();
+                if (read <= 0) {
+                    return false;
+                }
+                bufferEnd += read;
+            }
+            return true;
+        }
+    }
+}
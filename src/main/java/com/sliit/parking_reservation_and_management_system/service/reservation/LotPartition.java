@@ -0,0 +1,489 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * A share of the lots of ReservationStore, owned by one worker thread.
+ *
+ * Everything that reads or changes one of these lots runs on the worker, taken in order from
+ * a lock-free queue, so LotState needs no locking. The worker drains what is queued and applies
+ * each change right away (later tasks see earlier ones), then appends the events of the batch
+ * to the log in one write and one fsync. Callers' futures complete only after that append, so
+ * nobody sees a change that is not durable.
+ *
+ * If an append fails the lots hold changes the log does not, so the partition refuses all
+ * further work; a restart rebuilds the state from the log. record() checks that an event can
+ * be written before applying it, so a bad request fails on its own and never gets that far.
+ */
+final class LotPartition {
+
+    // Work on one lot; lot is null if this partition does not hold it (yet)
+    interface Action<T> {
+        T run(LotPartition partition, LotState lot);
+    }
+
+    private final int index;
+    private final ReservationJournal journal;
+    private final ConcurrentMap<Long, LotPartition> routes;
+    private final ConcurrentMap<Long, Long> lotOfReservation;
+    private final LongAdder logged;
+    private final int maxBatch;
+    private final Thread worker;
+    private final ConcurrentLinkedQueue<Task> queue = new ConcurrentLinkedQueue<>();
+
+    // worker only
+    private final TreeMap<Long, LotState> lots = new TreeMap<>();
+    private final Map<Long, ArrayDeque<Task>> incoming = new HashMap<>();
+    private final List<ReservationEvent> batch = new ArrayList<>();
+    private final List<Done> done = new ArrayList<>();
+
+    // written by the worker, read by anyone
+    private volatile boolean running = true;
+    private volatile boolean sleeping;
+    private volatile RuntimeException failure;
+    private volatile int slotCount;
+    private volatile int lotCount;
+    private volatile long processed;
+    private volatile long batches;
+    private volatile long forwarded;
+
+    // lots routed here, including those whose first change is still queued
+    final AtomicInteger assigned = new AtomicInteger();
+
+    LotPartition(int index, ReservationJournal journal, ConcurrentMap<Long, LotPartition> routes,
+                 ConcurrentMap<Long, Long> lotOfReservation, LongAdder logged, int maxBatch) {
+        this.index = index;
+        this.journal = journal;
+        this.routes = routes;
+        this.lotOfReservation = lotOfReservation;
+        this.logged = logged;
+        this.maxBatch = maxBatch;
+        this.worker = new Thread(this::run, "reservation-partition-" + index);
+        this.worker.setDaemon(true);
+    }
+
+    // Before start() only: hand over a recovered lot
+    void adopt(LotState lot) {
+        lots.put(lot.getLotId(), lot);
+        slotCount += lot.getSlotCount();
+        lotCount = lots.size();
+        assigned.incrementAndGet();
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==========================
+    // Submitting work (any thread)
+    // ==========================
+
+    <T> CompletableFuture<T> submit(long lotId, Action<T> action) {
+        Command<T> command = new Command<>(lotId, action);
+        submit(command);
+        return command.future;
+    }
+
+    // Runs on the worker against the whole partition, e.g. one leg of a fan-out query
+    <T> CompletableFuture<T> query(Function<LotPartition, T> query) {
+        Query<T> task = new Query<>(query);
+        submit(task);
+        return task.future;
+    }
+
+    void submit(Task task) {
+        queue.offer(task);
+        if (sleeping) {
+            LockSupport.unpark(worker);
+        }
+        if (!running) {
+            // the worker may already be gone; fail whatever it left behind
+            Task left;
+            while ((left = queue.poll()) != null) {
+                left.fail(new IllegalStateException("Reservation store is shut down"));
+            }
+        }
+    }
+
+    // ==========================
+    // Worker
+    // ==========================
+
+    private void run() {
+        while (running) {
+            Task task = queue.poll();
+            if (task == null) {
+                flush();
+                idle();
+                continue;
+            }
+            task.run(this);
+            processed++;
+            if (batch.size() >= maxBatch || done.size() >= maxBatch) {
+                flush();
+            }
+        }
+        flush();
+        Task left;
+        while ((left = queue.poll()) != null) {
+            left.fail(new IllegalStateException("Reservation store is shut down"));
+        }
+    }
+
+    private void idle() {
+        sleeping = true;
+        // re-check after announcing: a producer either sees sleeping or we see its task
+        if (running && queue.isEmpty()) {
+            LockSupport.park(this);
+        }
+        sleeping = false;
+    }
+
+    private <T> void execute(Command<T> command) {
+        if (failure != null) {
+            command.future.completeExceptionally(failure);
+            return;
+        }
+        LotState lot = lots.get(command.lotId);
+        if (lot == null) {
+            ArrayDeque<Task> waiting = incoming.get(command.lotId);
+            if (waiting != null) {
+                waiting.add(command);    // the lot is on its way here
+                return;
+            }
+            LotPartition owner = routes.get(command.lotId);
+            if (owner != null && owner != this) {
+                forwarded++;            // routed here before the lot moved away
+                owner.submit(command);
+                return;
+            }
+        }
+        try {
+            done.add(new Done(command.future, command.action.run(this, lot), null));
+        } catch (RuntimeException e) {
+            done.add(new Done(command.future, null, e));
+        }
+    }
+
+    /**
+     * Apply a change to its lot and queue its event for the log. Called by actions on the
+     * worker, after they have validated the change.
+     */
+    void record(ReservationEvent event) {
+        if (!JournalSegment.fitsEmail(event.customerEmail())) {
+            throw new IllegalArgumentException("Customer email is too long");
+        }
+        LotState lot = event.type() == ReservationEventType.SLOT_ADDED
+                ? lots.computeIfAbsent(event.lotId(), LotState::new)
+                : lots.get(event.lotId());
+        if (lot == null) {
+            throw new IllegalStateException("Lot " + event.lotId() + " is not in partition " + index);
+        }
+        int slotsBefore = lot.getSlotCount();
+        if (event.type() == ReservationEventType.SLOT_REMOVED) {
+            lot.reservationIds(event.slotId()).forEach(lotOfReservation::remove);
+        }
+        lot.apply(event);
+        switch (event.type()) {
+            case RESERVED -> lotOfReservation.put(event.reservationId(), event.lotId());
+            case CANCELLED, EXPIRED, CHECKED_OUT -> lotOfReservation.remove(event.reservationId());
+            default -> {
+            }
+        }
+        slotCount += lot.getSlotCount() - slotsBefore;
+        lotCount = lots.size();
+        batch.add(event);
+    }
+
+    // Group commit: one append (one fsync) for the batch, then complete its callers
+    private void flush() {
+        if (!batch.isEmpty()) {
+            try {
+                journal.append(batch);
+                logged.add(batch.size());
+                batches++;
+            } catch (RuntimeException e) {
+                failure = new IllegalStateException("Reservation partition " + index
+                        + " stopped after a failed log append; restart to recover from the log", e);
+                System.err.println("⚠️ " + failure.getMessage() + ": " + e.getMessage());
+                for (Done d : done) {
+                    d.future.completeExceptionally(failure);
+                }
+                done.clear();
+                batch.clear();
+                return;
+            }
+            batch.clear();
+        }
+        for (Done d : done) {
+            d.complete();
+        }
+        done.clear();
+    }
+
+    // ==========================
+    // Worker-side views
+    // ==========================
+
+    Map<Long, LotState> lots() {
+        return lots;
+    }
+
+    // Up to limit free slots over this partition's lots, lowest (lot, slot) first
+    List<ReservationStore.FreeSlot> freeSlots(long start, long end, int limit) {
+        List<ReservationStore.FreeSlot> free = new ArrayList<>();
+        for (LotState lot : lots.values()) {
+            if (free.size() >= limit) {
+                break;
+            }
+            for (Long slotId : lot.freeSlots(start, end, limit - free.size())) {
+                free.add(new ReservationStore.FreeSlot(lot.getLotId(), slotId));
+            }
+        }
+        return free;
+    }
+
+    Map<Long, Integer> lotSizes() {
+        Map<Long, Integer> sizes = new HashMap<>();
+        lots.forEach((id, lot) -> sizes.put(id, lot.getSlotCount()));
+        return sizes;
+    }
+
+    // ==========================
+    // State for routing and metrics
+    // ==========================
+
+    int getIndex() {
+        return index;
+    }
+
+    int getSlotCount() {
+        return slotCount;
+    }
+
+    boolean isFailed() {
+        return failure != null;
+    }
+
+    Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("partition", index);
+        metrics.put("lots", lotCount);
+        metrics.put("slots", slotCount);
+        metrics.put("queued", queue.size());
+        metrics.put("processed", processed);
+        metrics.put("batches", batches);
+        metrics.put("forwarded", forwarded);
+        metrics.put("failed", failure != null);
+        return metrics;
+    }
+
+    // ==========================
+    // Tasks
+    // ==========================
+
+    abstract static class Task {
+        abstract void run(LotPartition partition);
+
+        abstract void fail(RuntimeException error);
+    }
+
+    private static final class Command<T> extends Task {
+        private final long lotId;
+        private final Action<T> action;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Command(long lotId, Action<T> action) {
+            this.lotId = lotId;
+            this.action = action;
+        }
+
+        @Override
+        void run(LotPartition partition) {
+            partition.execute(this);
+        }
+
+        @Override
+        void fail(RuntimeException error) {
+            future.completeExceptionally(error);
+        }
+    }
+
+    private static final class Query<T> extends Task {
+        private final Function<LotPartition, T> query;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Query(Function<LotPartition, T> query) {
+            this.query = query;
+        }
+
+        @Override
+        void run(LotPartition partition) {
+            try {
+                partition.done.add(new Done(future, query.apply(partition), null));
+            } catch (RuntimeException e) {
+                partition.done.add(new Done(future, null, e));
+            }
+        }
+
+        @Override
+        void fail(RuntimeException error) {
+            future.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Moving a lot from one partition to another. The target is told to expect it first and
+     * parks anything that arrives for the lot; then the route is switched, and the source,
+     * after finishing what was already queued for the lot, hands the state over. Tasks still
+     * reaching the source afterwards are forwarded along the new route.
+     */
+    static final class Expect extends Task {
+        private final long lotId;
+
+        Expect(long lotId) {
+            this.lotId = lotId;
+        }
+
+        @Override
+        void run(LotPartition partition) {
+            partition.incoming.put(lotId, new ArrayDeque<>());
+        }
+
+        @Override
+        void fail(RuntimeException error) {
+        }
+    }
+
+    static final class Release extends Task {
+        private final long lotId;
+        private final LotPartition target;
+        private final CompletableFuture<Void> moved;
+
+        Release(long lotId, LotPartition target, CompletableFuture<Void> moved) {
+            this.lotId = lotId;
+            this.target = target;
+            this.moved = moved;
+        }
+
+        @Override
+        void run(LotPartition partition) {
+            partition.flush();      // the lot leaves with nothing pending
+            LotState lot = partition.lots.remove(lotId);
+            if (lot != null) {
+                partition.slotCount -= lot.getSlotCount();
+                partition.lotCount = partition.lots.size();
+            }
+            partition.assigned.decrementAndGet();
+            target.submit(new Adopt(lotId, lot, moved));
+        }
+
+        @Override
+        void fail(RuntimeException error) {
+            moved.completeExceptionally(error);
+        }
+    }
+
+    private static final class Adopt extends Task {
+        private final long lotId;
+        private final LotState lot;
+        private final CompletableFuture<Void> moved;
+
+        Adopt(long lotId, LotState lot, CompletableFuture<Void> moved) {
+            this.lotId = lotId;
+            this.lot = lot;
+            this.moved = moved;
+        }
+
+        @Override
+        void run(LotPartition partition) {
+            if (lot != null) {
+                partition.lots.put(lotId, lot);
+                partition.slotCount += lot.getSlotCount();
+                partition.lotCount = partition.lots.size();
+            }
+            ArrayDeque<Task> waiting = partition.incoming.remove(lotId);
+            if (waiting != null) {
+                waiting.forEach(task -> task.run(partition));
+            }
+            moved.complete(null);
+        }
+
+        @Override
+        void fail(RuntimeException error) {
+            moved.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Holds the worker once everything before it is logged, until resume opens. With every
+     * partition held, the lots and the log's last sequence form a consistent snapshot.
+     */
+    static final class Barrier extends Task {
+        private final CountDownLatch arrived;
+        private final CountDownLatch resume;
+
+        Barrier(CountDownLatch arrived, CountDownLatch resume) {
+            this.arrived = arrived;
+            this.resume = resume;
+        }
+
+        @Override
+        void run(LotPartition partition) {
+            partition.flush();
+            arrived.countDown();
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    resume.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        void fail(RuntimeException error) {
+            arrived.countDown();
+        }
+    }
+
+    private record Done(CompletableFuture<?> future, Object result, RuntimeException error) {
+        @SuppressWarnings("unchecked")
+        void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                ((CompletableFuture<Object>) future).complete(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Slots, active reservations and occupancy of one parking lot.
+ *
+ * Changed only by apply(), so replaying the event log rebuilds exactly the state that was
+ * live. Each slot keeps its reservations by start time; they never overlap, which makes
+ * the availability check a single lowerEntry() lookup. Not thread-safe: the owner
+ * serialises access.
+ */
+public class LotState {
+
+    private final long lotId;
+    private final TreeMap<Long, SlotState> slots = new TreeMap<>();
+    private final Map<Long, Reservation> reservations = new HashMap<>();
+    private int occupied;
+
+    public LotState(long lotId) {
+        this.lotId = lotId;
+    }
+
+    void apply(ReservationEvent event) {
+        switch (event.type()) {
+            case SLOT_ADDED -> slots.putIfAbsent(event.slotId(), new SlotState());
+            case SLOT_REMOVED -> {
+                SlotState slot = slots.remove(event.slotId());
+                if (slot != null) {
+                    for (Reservation reservation : slot.byStart.values()) {
+                        reservations.remove(reservation.getId());
+                    }
+                    if (slot.occupiedBy != 0) {
+                        occupied--;
+                    }
+                }
+            }
+            case RESERVED -> {
+                SlotState slot = slots.get(event.slotId());
+                if (slot != null) {
+                    Reservation reservation = new Reservation(event.reservationId(), lotId, event.slotId(),
+                            event.customerEmail(), event.start(), event.end());
+                    slot.byStart.put(reservation.getStart(), reservation);
+                    reservations.put(reservation.getId(), reservation);
+                }
+            }
+            case CHECKED_IN -> {
+                Reservation reservation = reservations.get(event.reservationId());
+                SlotState slot = reservation == null ? null : slots.get(reservation.getSlotId());
+                if (slot != null && slot.occupiedBy == 0) {
+                    reservation.setStatus(Reservation.Status.CHECKED_IN);
+                    slot.occupiedBy = reservation.getId();
+                    occupied++;
+                }
+            }
+            case CANCELLED, EXPIRED, CHECKED_OUT -> remove(event.reservationId());
+        }
+    }
+
+    private void remove(long reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            return;
+        }
+        SlotState slot = slots.get(reservation.getSlotId());
+        if (slot == null) {
+            return;
+        }
+        slot.byStart.remove(reservation.getStart(), reservation);
+        if (slot.occupiedBy == reservationId) {
+            slot.occupiedBy = 0;
+            occupied--;
+        }
+    }
+
+    public long getLotId() {
+        return lotId;
+    }
+
+    public boolean hasSlot(long slotId) {
+        return slots.containsKey(slotId);
+    }
+
+    public boolean isSlotEmpty(long slotId) {
+        SlotState slot = slots.get(slotId);
+        return slot != null && slot.byStart.isEmpty() && slot.occupiedBy == 0;
+    }
+
+    // A vehicle is parked in the slot
+    public boolean isOccupied(long slotId) {
+        SlotState slot = slots.get(slotId);
+        return slot != null && slot.occupiedBy != 0;
+    }
+
+    // No reservation of the slot overlaps [start, end)
+    public boolean isFree(long slotId, long start, long end) {
+        SlotState slot = slots.get(slotId);
+        if (slot == null) {
+            return false;
+        }
+        // reservations don't overlap, so the last one starting before end also ends last
+        Map.Entry<Long, Reservation> before = slot.byStart.lowerEntry(end);
+        return before == null || before.getValue().getEnd() <= start;
+    }
+
+    // Up to limit slots free for [start, end), lowest slot id first
+    public List<Long> freeSlots(long start, long end, int limit) {
+        List<Long> free = new ArrayList<>();
+        for (Long slotId : slots.keySet()) {
+            if (free.size() >= limit) {
+                break;
+            }
+            if (isFree(slotId, start, end)) {
+                free.add(slotId);
+            }
+        }
+        return free;
+    }
+
+    public List<Long> reservationIds(long slotId) {
+        SlotState slot = slots.get(slotId);
+        return slot == null ? List.of() : slot.byStart.values().stream().map(Reservation::getId).toList();
+    }
+
+    public Reservation getReservation(long reservationId) {
+        return reservations.get(reservationId);
+    }
+
+    public int getSlotCount() {
+        return slots.size();
+    }
+
+    public int getReservationCount() {
+        return reservations.size();
+    }
+
+    public int getOccupiedCount() {
+        return occupied;
+    }
+
+    void forEachReservation(Consumer<Reservation> action) {
+        reservations.values().forEach(action);
+    }
+
+    // Snapshot layout: [slotCount] then per slot [slotId][occupiedBy][count] and its reservations
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(slots.size());
+        for (Map.Entry<Long, SlotState> e : slots.entrySet()) {
+            SlotState slot = e.getValue();
+            out.writeLong(e.getKey());
+            out.writeLong(slot.occupiedBy);
+            out.writeInt(slot.byStart.size());
+            for (Reservation reservation : slot.byStart.values()) {
+                out.writeLong(reservation.getId());
+                out.writeUTF(reservation.getCustomerEmail() == null ? "" : reservation.getCustomerEmail());
+                out.writeLong(reservation.getStart());
+                out.writeLong(reservation.getEnd());
+                out.writeByte(reservation.getStatus().ordinal());
+            }
+        }
+    }
+
+    static LotState readFrom(long lotId, DataInputStream in) throws IOException {
+        LotState lot = new LotState(lotId);
+        int slotCount = in.readInt();
+        for (int i = 0; i < slotCount; i++) {
+            long slotId = in.readLong();
+            SlotState slot = new SlotState();
+            slot.occupiedBy = in.readLong();
+            if (slot.occupiedBy != 0) {
+                lot.occupied++;
+            }
+            int count = in.readInt();
+            for (int r = 0; r < count; r++) {
+                Reservation reservation = new Reservation(in.readLong(), lotId, slotId, in.readUTF(),
+                        in.readLong(), in.readLong());
+                reservation.setStatus(Reservation.Status.values()[in.readByte()]);
+                slot.byStart.put(reservation.getStart(), reservation);
+                lot.reservations.put(reservation.getId(), reservation);
+            }
+            lot.slots.put(slotId, slot);
+        }
+        return lot;
+    }
+
+    private static final class SlotState {
+        private final TreeMap<Long, Reservation> byStart = new TreeMap<>();
+        private long occupiedBy;    // reservation id of the parked vehicle, 0 when empty
+    }
+}
@@ -0,0 +1,69 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+/**
+ * An active reservation held in memory. Cancelled, expired and completed reservations
+ * leave the in-memory state; their history stays in the event log.
+ */
+public class Reservation {
+
+    public enum Status {
+        BOOKED,
+        CHECKED_IN
+    }
+
+    private final long id;
+    private final long lotId;
+    private final long slotId;
+    private final String customerEmail;
+    private final long start;
+    private final long end;
+    private volatile Status status = Status.BOOKED;     // changed by the owning partition, read by callers
+
+    public Reservation(long id, long lotId, long slotId, String customerEmail, long start, long end) {
+        this.id = id;
+        this.lotId = lotId;
+        this.slotId = slotId;
+        this.customerEmail = customerEmail;
+        this.start = start;
+        this.end = end;
+    }
+
+    public boolean overlaps(long otherStart, long otherEnd) {
+        return start < otherEnd && otherStart < end;
+    }
+
+    // ==========================
+    // Getters
+    // ==========================
+    public long getId() {
+        return id;
+    }
+
+    public long getLotId() {
+        return lotId;
+    }
+
+    public long getSlotId() {
+        return slotId;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    void setStatus(Status status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,32 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+/**
+ * One reservation or occupancy change, as written to the reservation event log.
+ *
+ * sequence is assigned by the log (0 until appended) and is the position consumers
+ * acknowledge. Fields a type does not use are 0 / null (e.g. SLOT_ADDED has no reservation).
+ * Times are epoch millis.
+ */
+public record ReservationEvent(long sequence,
+                               long timestamp,
+                               ReservationEventType type,
+                               long lotId,
+                               long slotId,
+                               long reservationId,
+                               String customerEmail,
+                               long start,
+                               long end) {
+
+    public static ReservationEvent slot(ReservationEventType type, long timestamp, long lotId, long slotId) {
+        return new ReservationEvent(0, timestamp, type, lotId, slotId, 0, null, 0, 0);
+    }
+
+    public static ReservationEvent reservation(ReservationEventType type, long timestamp, Reservation reservation) {
+        return new ReservationEvent(0, timestamp, type, reservation.getLotId(), reservation.getSlotId(),
+                reservation.getId(), reservation.getCustomerEmail(), reservation.getStart(), reservation.getEnd());
+    }
+
+    ReservationEvent withSequence(long sequence) {
+        return new ReservationEvent(sequence, timestamp, type, lotId, slotId, reservationId, customerEmail, start, end);
+    }
+}
@@ -0,0 +1,12 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+// Stored by ordinal in the event log and snapshots: only ever append new constants
+public enum ReservationEventType {
+    SLOT_ADDED,
+    SLOT_REMOVED,
+    RESERVED,
+    CANCELLED,
+    EXPIRED,
+    CHECKED_IN,     // vehicle arrived, slot occupied
+    CHECKED_OUT     // vehicle left, slot free again
+}
@@ -0,0 +1,520 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Local, append-only log of reservation events, split into segment files, plus snapshots
+ * of the state those events build and the read positions of outbox consumers.
+ *
+ * - append() gives events consecutive sequence numbers and writes them with a CRC32C each;
+ *   with fsync on (the default) they are on disk before append() returns.
+ * - A snapshot is the serialised state up to some sequence. Recovery loads the newest
+ *   snapshot whose checksum is valid and replays only the events after it.
+ * - The log doubles as an outbox: a consumer polls events after its acknowledged sequence
+ *   and acknowledges what it has processed (at-least-once delivery). Offsets are persisted.
+ * - Segments are deleted once the oldest kept snapshot and every consumer are past them.
+ *
+ * One writer at a time (append is synchronized); reads and polls run concurrently with it.
+ */
+@Component
+public class ReservationJournal {
+
+    private static final int SNAPSHOT_MAGIC = 0x52535631;   // "RSV1"
+    private static final String OFFSETS_FILE = "consumers.properties";
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final int snapshotsToKeep;
+
+    // first sequence -> segment; the last entry is the one being appended to
+    private final ConcurrentSkipListMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    private volatile long lastSequence;
+    private volatile long snapshotSequence;
+
+    // guarded by itself
+    private final Map<String, Long> consumerOffsets = new TreeMap<>();
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+
+    @Autowired
+    public ReservationJournal(@Value("${app.reservation-log.dir:data/reservation-log}") String dir,
+                              @Value("${app.reservation-log.segment-mb:64}") long segmentMb,
+                              @Value("${app.reservation-log.fsync:true}") boolean fsync,
+                              @Value("${app.reservation-log.snapshots-to-keep:2}") int snapshotsToKeep) {
+        this(Paths.get(dir), segmentMb * 1024 * 1024, fsync, snapshotsToKeep);
+    }
+
+    public ReservationJournal(Path dir, long segmentBytes, boolean fsync, int snapshotsToKeep) {
+        if (segmentBytes < 1024 || snapshotsToKeep < 1) {
+            throw new IllegalArgumentException("Reservation log needs segments of at least 1 KB and one snapshot");
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.snapshotsToKeep = snapshotsToKeep;
+        open();
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(dir);
+            deleteLeftoverTempFiles();
+            loadOffsets();
+            snapshotSequence = snapshotFiles().stream().findFirst().map(ReservationJournal::sequenceOf).orElse(0L);
+            // a snapshot or a consumer has seen every sequence up to here; none of them may be handed out again
+            long seen = Math.max(snapshotSequence, consumerOffsets.values().stream()
+                    .mapToLong(Long::longValue).max().orElse(0));
+            List<Path> files = list(".log");
+            JournalSegment previous = null;
+            for (int i = 0; i < files.size(); i++) {
+                JournalSegment segment = JournalSegment.open(files.get(i), i == files.size() - 1);
+                // a gap below "seen" is one the code below left after a crash lost unsynced events
+                if (previous != null && segment.getBaseSequence() != previous.getLastSequence() + 1
+                        && segment.getBaseSequence() - 1 > seen) {
+                    throw new IllegalStateException("Reservation log is missing events "
+                            + (previous.getLastSequence() + 1) + " to " + (segment.getBaseSequence() - 1));
+                }
+                segments.put(segment.getBaseSequence(), segment);
+                previous = segment;
+            }
+            if (previous != null && previous.getLastSequence() < seen) {
+                // fsync off: the tail was lost in a crash after a snapshot or consumer had seen it
+                System.err.println("⚠️ Reservation log ends at " + previous.getLastSequence() + " but " + seen
+                        + " was already seen; events " + (previous.getLastSequence() + 1) + " to " + seen + " are lost");
+                if (previous.isEmpty()) {
+                    segments.remove(previous.getBaseSequence());
+                    previous.delete();
+                }
+            }
+            if (segments.isEmpty() || segments.lastEntry().getValue().getLastSequence() < seen) {
+                // fresh log, every segment was cleaned up after a snapshot, or the tail was lost
+                JournalSegment next = JournalSegment.create(dir, seen + 1);
+                segments.put(next.getBaseSequence(), next);
+            }
+            lastSequence = segments.lastEntry().getValue().getLastSequence();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open reservation log at " + dir, e);
+        }
+    }
+
+    /**
+     * Append events (their sequence field is ignored) and return them with the sequence
+     * numbers they were stored under. The whole batch is synced once and goes into one
+     * segment; a new segment is started before a batch once the current one is full.
+     */
+    public synchronized List<ReservationEvent> append(List<ReservationEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        List<ReservationEvent> stored = new ArrayList<>(events.size());
+        long sequence = lastSequence;
+        for (ReservationEvent event : events) {
+            if (event.type() == null) {
+                throw new IllegalArgumentException("Reservation event needs a type");
+            }
+            stored.add(event.withSequence(++sequence));
+        }
+        try {
+            JournalSegment segment = segments.lastEntry().getValue();
+            if (segment.getSize() >= segmentBytes) {
+                segment.force();
+                segment = JournalSegment.create(dir, lastSequence + 1);
+                segments.put(segment.getBaseSequence(), segment);
+            }
+            segment.append(stored);
+            if (fsync) {
+                segment.force();
+                syncs.increment();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to the reservation log", e);
+        }
+        lastSequence = sequence;
+        appended.add(stored.size());
+        return stored;
+    }
+
+    public ReservationEvent append(ReservationEvent event) {
+        return append(List.of(event)).get(0);
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getFirstSequence() {
+        return segments.firstKey();
+    }
+
+    /**
+     * Stream every event after the given sequence to the consumer, oldest first
+     * (recovery replay). Returns the number of events delivered.
+     */
+    public long replay(long afterSequence, Consumer<ReservationEvent> consumer) {
+        // [last sequence delivered, events delivered]
+        long[] progress = {afterSequence, 0};
+        Consumer<ReservationEvent> tracking = event -> {
+            consumer.accept(event);
+            progress[0] = event.sequence();
+            progress[1]++;
+        };
+        while (readInto(progress[0] + 1, Integer.MAX_VALUE, tracking) > 0) {
+            // next segment
+        }
+        return progress[1];
+    }
+
+    // Up to max events after the given sequence
+    public List<ReservationEvent> read(long afterSequence, int max) {
+        List<ReservationEvent> events = new ArrayList<>(Math.min(max, 1024));
+        while (events.size() < max) {
+            long next = events.isEmpty() ? afterSequence + 1 : events.get(events.size() - 1).sequence() + 1;
+            if (readInto(next, max - events.size(), events::add) == 0) {
+                break;
+            }
+        }
+        return events;
+    }
+
+    // Reads from the one segment holding "from" (or the next one, past a gap); returns how many events were delivered
+    private int readInto(long from, int max, Consumer<ReservationEvent> consumer) {
+        long last = lastSequence;
+        if (from > last) {
+            return 0;
+        }
+        Map.Entry<Long, JournalSegment> entry = segments.floorEntry(from);
+        if (entry == null) {
+            throw new IllegalStateException("Reservation log no longer holds event " + from
+                    + "; the oldest kept is " + segments.firstKey());
+        }
+        if (entry.getValue().getLastSequence() < from) {
+            // events lost in a crash (see open()): go on with the next segment
+            entry = segments.higherEntry(from);
+            if (entry == null) {
+                return 0;
+            }
+            from = entry.getKey();
+        }
+        try {
+            return entry.getValue().read(from, last, max, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the reservation log", e);
+        }
+    }
+
+    // ==========================
+    // Snapshots
+    // ==========================
+
+    /**
+     * Store a snapshot of the state as of the given sequence. Written to a temp file, synced
+     * and renamed, so a crash leaves either the old or the new snapshot, never half of one.
+     * The events it covers are synced first (with fsync off they might not be yet).
+     * Older snapshots beyond snapshotsToKeep and segments nobody needs any more are removed.
+     */
+    public void writeSnapshot(long sequence, byte[] state) {
+        if (sequence > lastSequence) {
+            throw new IllegalArgumentException("Cannot snapshot " + sequence + " beyond the end of the log");
+        }
+        syncActiveSegment();
+        CRC32C crc = new CRC32C();
+        crc.update(state);
+        ByteBuffer header = ByteBuffer.allocate(4 + 8 + 4 + 4)
+                .putInt(SNAPSHOT_MAGIC).putLong(sequence).putInt(state.length).putInt((int) crc.getValue());
+        header.flip();
+        Path target = dir.resolve(snapshotName(sequence));
+        Path temp = dir.resolve(snapshotName(sequence) + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer body = ByteBuffer.wrap(state);
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, body});
+                }
+                channel.force(true);
+            }
+            move(temp, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write reservation snapshot", e);
+        }
+        snapshotSequence = Math.max(snapshotSequence, sequence);
+        List<Path> snapshots = snapshotFiles();
+        for (int i = snapshotsToKeep; i < snapshots.size(); i++) {
+            try {
+                Files.deleteIfExists(snapshots.get(i));
+            } catch (IOException e) {
+                System.err.println("⚠️ Failed to delete old reservation snapshot " + snapshots.get(i) + ": " + e.getMessage());
+            }
+        }
+        deleteObsoleteSegments();
+    }
+
+    // Sealed segments were synced when they were rolled
+    private synchronized void syncActiveSegment() {
+        try {
+            segments.lastEntry().getValue().force();
+            syncs.increment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync the reservation log", e);
+        }
+    }
+
+    /**
+     * The newest snapshot that passes its checksum. A damaged one is reported and skipped,
+     * in which case recovery starts from an older snapshot and replays more of the log.
+     */
+    public Optional<Snapshot> latestSnapshot() {
+        for (Path file : snapshotFiles()) {
+            try {
+                byte[] bytes = Files.readAllBytes(file);
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                if (bytes.length < 20 || buffer.getInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("not a reservation snapshot");
+                }
+                long sequence = buffer.getLong();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length != buffer.remaining()) {
+                    throw new IOException("expected " + length + " bytes of state, found " + buffer.remaining());
+                }
+                CRC32C crc = new CRC32C();
+                crc.update(buffer.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    throw new IOException("checksum mismatch");
+                }
+                byte[] state = new byte[length];
+                buffer.get(state);
+                return Optional.of(new Snapshot(sequence, state));
+            } catch (IOException e) {
+                System.err.println("⚠️ Skipping unreadable reservation snapshot " + file.getFileName() + ": " + e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    public long getSnapshotSequence() {
+        return snapshotSequence;
+    }
+
+    // ==========================
+    // Outbox consumers
+    // ==========================
+
+    /**
+     * Register a consumer. A new one starts after the current end of the log; an existing
+     * one keeps its acknowledged position (also across restarts).
+     */
+    public long registerConsumer(String name) {
+        synchronized (consumerOffsets) {
+            Long offset = consumerOffsets.get(name);
+            if (offset == null) {
+                offset = lastSequence;
+                consumerOffsets.put(name, offset);
+                saveOffsets();
+            }
+            return offset;
+        }
+    }
+
+    // Next events for the consumer after its acknowledged position; the position does not move
+    public List<ReservationEvent> poll(String consumer, int max) {
+        long offset;
+        synchronized (consumerOffsets) {
+            Long current = consumerOffsets.get(consumer);
+            if (current == null) {
+                throw new IllegalArgumentException("Unknown reservation log consumer: " + consumer);
+            }
+            offset = current;
+        }
+        return read(offset, max);
+    }
+
+    // Mark everything up to and including sequence as processed by the consumer
+    public void acknowledge(String consumer, long sequence) {
+        synchronized (consumerOffsets) {
+            Long current = consumerOffsets.get(consumer);
+            if (current == null) {
+                throw new IllegalArgumentException("Unknown reservation log consumer: " + consumer);
+            }
+            if (sequence > lastSequence) {
+                throw new IllegalArgumentException("Cannot acknowledge " + sequence + " beyond the end of the log");
+            }
+            if (sequence > current) {
+                consumerOffsets.put(consumer, sequence);
+                saveOffsets();
+            }
+        }
+    }
+
+    public long getConsumerOffset(String consumer) {
+        synchronized (consumerOffsets) {
+            return consumerOffsets.getOrDefault(consumer, -1L);
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("lastSequence", lastSequence);
+        metrics.put("snapshotSequence", snapshotSequence);
+        metrics.put("segments", segments.size());
+        metrics.put("bytes", segments.values().stream().mapToLong(JournalSegment::getSize).sum());
+        metrics.put("appended", appended.sum());
+        metrics.put("syncs", syncs.sum());
+        Map<String, Long> lag = new LinkedHashMap<>();
+        synchronized (consumerOffsets) {
+            consumerOffsets.forEach((name, offset) -> lag.put(name, lastSequence - offset));
+        }
+        metrics.put("consumerLag", lag);
+        return metrics;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        for (JournalSegment segment : segments.values()) {
+            try {
+                segment.force();
+                segment.close();
+            } catch (IOException e) {
+                System.err.println("⚠️ Failed to close reservation log segment: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Delete sealed segments whose events are all covered by the oldest kept snapshot (so a
+     * damaged newest snapshot can still fall back to it) and acknowledged by every consumer.
+     * Nothing is deleted until snapshotsToKeep snapshots exist.
+     */
+    private synchronized void deleteObsoleteSegments() {
+        List<Path> snapshots = snapshotFiles();
+        if (snapshots.isEmpty() || snapshots.size() < snapshotsToKeep) {
+            return;
+        }
+        long keepAfter = sequenceOf(snapshots.get(snapshots.size() - 1));
+        synchronized (consumerOffsets) {
+            for (long offset : consumerOffsets.values()) {
+                keepAfter = Math.min(keepAfter, offset);
+            }
+        }
+        JournalSegment active = segments.lastEntry().getValue();
+        for (JournalSegment segment : List.copyOf(segments.values())) {
+            if (segment == active || segment.getLastSequence() > keepAfter) {
+                break;
+            }
+            try {
+                segments.remove(segment.getBaseSequence());
+                segment.delete();
+            } catch (IOException e) {
+                System.err.println("⚠️ Failed to delete reservation log segment: " + e.getMessage());
+            }
+        }
+    }
+
+    private void loadOffsets() throws IOException {
+        Path file = dir.resolve(OFFSETS_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        synchronized (consumerOffsets) {
+            for (String name : properties.stringPropertyNames()) {
+                consumerOffsets.put(name, Long.parseLong(properties.getProperty(name)));
+            }
+        }
+    }
+
+    // Caller holds consumerOffsets
+    private void saveOffsets() {
+        Properties properties = new Properties();
+        consumerOffsets.forEach((name, offset) -> properties.setProperty(name, Long.toString(offset)));
+        Path temp = dir.resolve(OFFSETS_FILE + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Reservation log consumer offsets (last acknowledged sequence)");
+            }
+            move(temp, dir.resolve(OFFSETS_FILE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save reservation log consumer offsets", e);
+        }
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteLeftoverTempFiles() throws IOException {
+        for (Path temp : list(".tmp")) {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Newest first
+    private List<Path> snapshotFiles() {
+        try {
+            List<Path> files = new ArrayList<>(list(".snap"));
+            files.sort(Comparator.comparingLong(ReservationJournal::sequenceOf).reversed());
+            return files;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list reservation snapshots", e);
+        }
+    }
+
+    private List<Path> list(String suffix) throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream.filter(p -> p.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    private static String snapshotName(long sequence) {
+        return String.format("snapshot-%020d.snap", sequence);
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring("snapshot-".length(), name.length() - ".snap".length()));
+    }
+
+    /**
+     * Serialised state as of sequence (every event up to and including it applied).
+     */
+    public record Snapshot(long sequence, byte[] state) {
+    }
+}
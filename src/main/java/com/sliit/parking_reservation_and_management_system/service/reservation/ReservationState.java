@@ -0,0 +1,124 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * All lots, plus the sequence of the last event applied. This is what a snapshot holds;
+ * restoring a snapshot and applying the log after lastSequence gives the live state.
+ * Not thread-safe.
+ */
+public class ReservationState {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final TreeMap<Long, LotState> lots = new TreeMap<>();
+    private final Map<Long, Long> lotOfReservation = new HashMap<>();
+    private long lastSequence;
+    private long lastReservationId;
+
+    public void apply(ReservationEvent event) {
+        LotState lot = event.type() == ReservationEventType.SLOT_ADDED
+                ? lots.computeIfAbsent(event.lotId(), LotState::new)
+                : lots.get(event.lotId());
+        if (lot != null) {
+            if (event.type() == ReservationEventType.SLOT_REMOVED) {
+                lot.reservationIds(event.slotId()).forEach(lotOfReservation::remove);
+            }
+            lot.apply(event);
+        }
+        switch (event.type()) {
+            case RESERVED -> {
+                if (lot != null && lot.getReservation(event.reservationId()) != null) {
+                    lotOfReservation.put(event.reservationId(), event.lotId());
+                }
+            }
+            case CANCELLED, EXPIRED, CHECKED_OUT -> lotOfReservation.remove(event.reservationId());
+            default -> {
+            }
+        }
+        lastReservationId = Math.max(lastReservationId, event.reservationId());
+        lastSequence = Math.max(lastSequence, event.sequence());
+    }
+
+    public LotState getLot(long lotId) {
+        return lots.get(lotId);
+    }
+
+    public Collection<LotState> getLots() {
+        return lots.values();
+    }
+
+    public Reservation getReservation(long reservationId) {
+        Long lotId = lotOfReservation.get(reservationId);
+        return lotId == null ? null : lots.get(lotId).getReservation(reservationId);
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getLastReservationId() {
+        return lastReservationId;
+    }
+
+    public int getReservationCount() {
+        return lotOfReservation.size();
+    }
+
+    // Compact binary form: [version][lastSequence][lastReservationId][lotCount] then each lot
+    public byte[] toSnapshot() {
+        return toSnapshot(lastSequence, lastReservationId, lots.values());
+    }
+
+    // Same layout for lots held elsewhere (the partitions of ReservationStore), in lot id order
+    static byte[] toSnapshot(long lastSequence, long lastReservationId, Collection<LotState> lots) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(lastSequence);
+            out.writeLong(lastReservationId);
+            out.writeInt(lots.size());
+            for (LotState lot : lots) {
+                out.writeLong(lot.getLotId());
+                lot.writeTo(out);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialise reservation state", e);
+        }
+    }
+
+    public static ReservationState fromSnapshot(byte[] snapshot) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot));
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported reservation snapshot version " + version);
+            }
+            ReservationState state = new ReservationState();
+            state.lastSequence = in.readLong();
+            state.lastReservationId = in.readLong();
+            int lotCount = in.readInt();
+            for (int i = 0; i < lotCount; i++) {
+                long lotId = in.readLong();
+                LotState lot = LotState.readFrom(lotId, in);
+                state.lots.put(lotId, lot);
+                lot.forEachReservation(r -> state.lotOfReservation.put(r.getId(), lotId));
+            }
+            return state;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read reservation snapshot", e);
+        }
+    }
+}
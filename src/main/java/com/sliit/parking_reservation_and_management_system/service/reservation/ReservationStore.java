@@ -0,0 +1,499 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory slot, reservation and occupancy state, kept durable by the reservation event log.
+ *
+ * Lots are spread over partitions, each owned by a single worker thread (see LotPartition),
+ * so changes to different lots run in parallel and none of them takes a lock. A change is
+ * validated and applied on its lot's worker and the caller returns once its event is in the
+ * log. Queries over all lots fan out to every partition and merge the answers.
+ *
+ * A new lot goes to the partition with the fewest slots; rebalance() later moves whole lots
+ * from the busiest partition to the idlest when lots have grown unevenly.
+ *
+ * On startup the newest snapshot is loaded and the events after it are replayed, so a restart
+ * does not reload anything from SQL. A snapshot is taken once snapshot-every-events changes
+ * have piled up, which bounds how much log a restart has to replay.
+ */
+@Service
+public class ReservationStore {
+
+    static final int DEFAULT_MAX_BATCH = 256;
+
+    private final ReservationJournal journal;
+    private final long snapshotEveryEvents;
+    private final Clock clock;
+
+    private final LotPartition[] partitions;
+    private final ConcurrentHashMap<Long, LotPartition> routes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> lotOfReservation = new ConcurrentHashMap<>();
+    private final AtomicLong lastReservationId;
+    private final LongAdder eventsSinceSnapshot = new LongAdder();
+    private final LongAdder lotsMoved = new LongAdder();
+
+    // one snapshot or rebalance at a time
+    private final Object maintenance = new Object();
+
+    private final long recoveredSnapshotSequence;
+    private final long recoveredEvents;
+    private final long recoveryMillis;
+
+    @Autowired
+    public ReservationStore(ReservationJournal journal,
+                            @Value("${app.reservation-log.snapshot-every-events:100000}") long snapshotEveryEvents,
+                            @Value("${app.reservation.partitions:0}") int partitions,
+                            @Value("${app.reservation.max-batch:256}") int maxBatch) {
+        this(journal, snapshotEveryEvents, partitions, maxBatch, Clock.systemUTC());
+    }
+
+    public ReservationStore(ReservationJournal journal, long snapshotEveryEvents, Clock clock) {
+        this(journal, snapshotEveryEvents, 0, DEFAULT_MAX_BATCH, clock);
+    }
+
+    // partitions <= 0: one per available processor
+    public ReservationStore(ReservationJournal journal, long snapshotEveryEvents, int partitions, int maxBatch,
+                            Clock clock) {
+        this.journal = journal;
+        this.snapshotEveryEvents = snapshotEveryEvents;
+        this.clock = clock;
+
+        long began = System.nanoTime();
+        Optional<ReservationJournal.Snapshot> snapshot = journal.latestSnapshot();
+        long from = snapshot.map(ReservationJournal.Snapshot::sequence).orElse(0L);
+        if (from + 1 < journal.getFirstSequence()) {
+            throw new IllegalStateException("Cannot recover reservations: the log starts at event "
+                    + journal.getFirstSequence() + " but the newest usable snapshot only covers up to " + from);
+        }
+        ReservationState restored = snapshot
+                .map(s -> ReservationState.fromSnapshot(s.state()))
+                .orElseGet(ReservationState::new);
+        this.recoveredEvents = journal.replay(from, restored::apply);
+        this.eventsSinceSnapshot.add(recoveredEvents);
+        this.recoveredSnapshotSequence = from;
+        this.lastReservationId = new AtomicLong(restored.getLastReservationId());
+
+        int count = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        this.partitions = new LotPartition[count];
+        for (int i = 0; i < count; i++) {
+            this.partitions[i] = new LotPartition(i, journal, routes, lotOfReservation, eventsSinceSnapshot,
+                    Math.max(1, maxBatch));
+        }
+        // biggest lots first, each to the emptiest partition so far
+        List<LotState> lots = new ArrayList<>(restored.getLots());
+        lots.sort(Comparator.comparingInt(LotState::getSlotCount).reversed());
+        for (LotState lot : lots) {
+            LotPartition target = leastLoaded();
+            target.adopt(lot);
+            routes.put(lot.getLotId(), target);
+            lot.forEachReservation(r -> lotOfReservation.put(r.getId(), lot.getLotId()));
+        }
+        for (LotPartition partition : this.partitions) {
+            partition.start();
+        }
+        this.recoveryMillis = (System.nanoTime() - began) / 1_000_000;
+    }
+
+    // ==========================
+    // Changes
+    // ==========================
+
+    // false if the slot already exists
+    public boolean addSlot(long lotId, long slotId) {
+        return await(addSlotAsync(lotId, slotId));
+    }
+
+    public CompletableFuture<Boolean> addSlotAsync(long lotId, long slotId) {
+        LotPartition partition = routes.computeIfAbsent(lotId, id -> {
+            LotPartition target = leastLoaded();
+            target.assigned.incrementAndGet();
+            return target;
+        });
+        return partition.submit(lotId, (p, lot) -> {
+            if (lot != null && lot.hasSlot(slotId)) {
+                return false;
+            }
+            p.record(ReservationEvent.slot(ReservationEventType.SLOT_ADDED, clock.millis(), lotId, slotId));
+            return true;
+        });
+    }
+
+    public void removeSlot(long lotId, long slotId) {
+        await(onLot(lotId, (p, lot) -> {
+            requireSlot(lot, lotId, slotId);
+            if (!lot.isSlotEmpty(slotId)) {
+                throw new IllegalStateException("Slot " + slotId + " still has reservations");
+            }
+            p.record(ReservationEvent.slot(ReservationEventType.SLOT_REMOVED, clock.millis(), lotId, slotId));
+            return null;
+        }));
+    }
+
+    public Reservation reserve(long lotId, long slotId, String customerEmail, long start, long end) {
+        return await(reserveAsync(lotId, slotId, customerEmail, start, end));
+    }
+
+    public CompletableFuture<Reservation> reserveAsync(long lotId, long slotId, String customerEmail,
+                                                       long start, long end) {
+        if (customerEmail == null || customerEmail.isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Customer email is required"));
+        }
+        if (end <= start) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Reservation must end after it starts"));
+        }
+        String email = customerEmail.trim().toLowerCase();
+        if (!JournalSegment.fitsEmail(email)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Customer email is too long"));
+        }
+        return onLot(lotId, (p, lot) -> {
+            requireSlot(lot, lotId, slotId);
+            if (!lot.isFree(slotId, start, end)) {
+                throw new IllegalStateException("Slot " + slotId + " is already reserved for that time");
+            }
+            Reservation reservation = new Reservation(lastReservationId.incrementAndGet(), lotId, slotId,
+                    email, start, end);
+            p.record(ReservationEvent.reservation(ReservationEventType.RESERVED, clock.millis(), reservation));
+            return lot.getReservation(reservation.getId());
+        });
+    }
+
+    public void cancel(long reservationId) {
+        await(transition(reservationId, Reservation.Status.BOOKED, ReservationEventType.CANCELLED));
+    }
+
+    // No-show: the booking lapsed without a check-in
+    public void expire(long reservationId) {
+        await(transition(reservationId, Reservation.Status.BOOKED, ReservationEventType.EXPIRED));
+    }
+
+    public void checkIn(long reservationId) {
+        await(checkInAsync(reservationId));
+    }
+
+    public CompletableFuture<Void> checkInAsync(long reservationId) {
+        return transition(reservationId, Reservation.Status.BOOKED, ReservationEventType.CHECKED_IN);
+    }
+
+    public void checkOut(long reservationId) {
+        await(checkOutAsync(reservationId));
+    }
+
+    public CompletableFuture<Void> checkOutAsync(long reservationId) {
+        return transition(reservationId, Reservation.Status.CHECKED_IN, ReservationEventType.CHECKED_OUT);
+    }
+
+    private CompletableFuture<Void> transition(long reservationId, Reservation.Status required,
+                                               ReservationEventType type) {
+        Long lotId = lotOfReservation.get(reservationId);
+        if (lotId == null) {
+            return CompletableFuture.failedFuture(unknownReservation(reservationId));
+        }
+        return onLot(lotId, (p, lot) -> {
+            Reservation reservation = lot == null ? null : lot.getReservation(reservationId);
+            if (reservation == null) {
+                throw unknownReservation(reservationId);
+            }
+            if (reservation.getStatus() != required) {
+                throw new IllegalStateException("Reservation " + reservationId + " is " + reservation.getStatus());
+            }
+            // LotState would ignore it; only events that change something go into the log
+            if (type == ReservationEventType.CHECKED_IN && lot.isOccupied(reservation.getSlotId())) {
+                throw new IllegalStateException("Slot " + reservation.getSlotId() + " is still occupied");
+            }
+            p.record(ReservationEvent.reservation(type, clock.millis(), reservation));
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> onLot(long lotId, LotPartition.Action<T> action) {
+        LotPartition partition = routes.get(lotId);
+        if (partition == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown lot " + lotId));
+        }
+        return partition.submit(lotId, action);
+    }
+
+    private static void requireSlot(LotState lot, long lotId, long slotId) {
+        if (lot == null || !lot.hasSlot(slotId)) {
+            throw new IllegalArgumentException("Unknown slot " + slotId + " in lot " + lotId);
+        }
+    }
+
+    private static IllegalArgumentException unknownReservation(long reservationId) {
+        return new IllegalArgumentException("Unknown or finished reservation " + reservationId);
+    }
+
+    // Wait for a change and rethrow its validation error as it was thrown on the worker
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // ==========================
+    // Queries
+    // ==========================
+
+    public List<Long> freeSlots(long lotId, long start, long end, int limit) {
+        LotPartition partition = routes.get(lotId);
+        if (partition == null) {
+            return List.of();
+        }
+        return await(partition.submit(lotId, (p, lot) -> lot == null ? List.<Long>of() : lot.freeSlots(start, end, limit)));
+    }
+
+    /**
+     * Up to limit free slots for [start, end) in any lot, lowest (lot, slot) first. Every
+     * partition answers for its own lots in parallel; the answers are merged here.
+     */
+    public List<FreeSlot> findFreeSlots(long start, long end, int limit) {
+        List<CompletableFuture<List<FreeSlot>>> answers = new ArrayList<>(partitions.length);
+        for (LotPartition partition : partitions) {
+            answers.add(partition.query(p -> p.freeSlots(start, end, limit)));
+        }
+        List<FreeSlot> merged = new ArrayList<>();
+        for (CompletableFuture<List<FreeSlot>> answer : answers) {
+            merged.addAll(await(answer));
+        }
+        merged.sort(Comparator.comparingLong(FreeSlot::lotId).thenComparingLong(FreeSlot::slotId));
+        return merged.size() > limit ? List.copyOf(merged.subList(0, limit)) : merged;
+    }
+
+    public Optional<Reservation> getReservation(long reservationId) {
+        Long lotId = lotOfReservation.get(reservationId);
+        if (lotId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(await(onLot(lotId, (p, lot) -> lot == null ? null : lot.getReservation(reservationId))));
+    }
+
+    public int getOccupiedCount(long lotId) {
+        LotPartition partition = routes.get(lotId);
+        if (partition == null) {
+            return 0;
+        }
+        return await(partition.submit(lotId, (p, lot) -> lot == null ? 0 : lot.getOccupiedCount()));
+    }
+
+    public long getLastSequence() {
+        return journal.getLastSequence();
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    // Index of the partition that owns the lot, -1 if the lot is unknown
+    public int partitionOf(long lotId) {
+        LotPartition partition = routes.get(lotId);
+        return partition == null ? -1 : partition.getIndex();
+    }
+
+    // Serialised state, as a snapshot would store it (tests compare recovered state with it)
+    public byte[] toSnapshot() {
+        synchronized (maintenance) {
+            Paused paused = pauseAll();
+            try {
+                return serialise();
+            } finally {
+                paused.resume();
+            }
+        }
+    }
+
+    // ==========================
+    // Rebalancing
+    // ==========================
+
+    /**
+     * Move lots from the partition with the most slots to the one with the fewest while that
+     * narrows the gap. A lot keeps taking changes while it moves: they wait on the new owner
+     * until the state arrives. Returns the number of lots moved.
+     */
+    @Scheduled(fixedDelayString = "${app.reservation.rebalance-interval-ms:300000}",
+            initialDelayString = "${app.reservation.rebalance-interval-ms:300000}")
+    public int rebalance() {
+        synchronized (maintenance) {
+            int moved = 0;
+            while (true) {
+                LotPartition busiest = partitions[0];
+                LotPartition idlest = partitions[0];
+                for (LotPartition partition : partitions) {
+                    if (partition.getSlotCount() > busiest.getSlotCount()) {
+                        busiest = partition;
+                    }
+                    if (partition.getSlotCount() < idlest.getSlotCount()) {
+                        idlest = partition;
+                    }
+                }
+                int gap = busiest.getSlotCount() - idlest.getSlotCount();
+                if (gap <= 1 || busiest.isFailed() || idlest.isFailed()) {
+                    return moved;
+                }
+                // moving a lot of size s turns the gap into |gap - 2s|, smaller only for 0 < s < gap
+                Map.Entry<Long, Integer> best = null;
+                for (Map.Entry<Long, Integer> lot : await(busiest.query(LotPartition::lotSizes)).entrySet()) {
+                    if (lot.getValue() > 0 && lot.getValue() < gap && (best == null || lot.getValue() > best.getValue())) {
+                        best = lot;
+                    }
+                }
+                if (best == null) {
+                    return moved;
+                }
+                move(best.getKey(), busiest, idlest);
+                moved++;
+            }
+        }
+    }
+
+    private void move(long lotId, LotPartition from, LotPartition to) {
+        CompletableFuture<Void> moved = new CompletableFuture<>();
+        to.submit(new LotPartition.Expect(lotId));
+        to.assigned.incrementAndGet();
+        routes.put(lotId, to);
+        from.submit(new LotPartition.Release(lotId, to, moved));
+        await(moved);
+        lotsMoved.increment();
+    }
+
+    private LotPartition leastLoaded() {
+        LotPartition best = partitions[0];
+        for (LotPartition partition : partitions) {
+            if (partition.getSlotCount() < best.getSlotCount()
+                    || (partition.getSlotCount() == best.getSlotCount()
+                    && partition.assigned.get() < best.assigned.get())) {
+                best = partition;
+            }
+        }
+        return best;
+    }
+
+    // ==========================
+    // Snapshots
+    // ==========================
+
+    @Scheduled(fixedDelayString = "${app.reservation-log.snapshot-check-ms:60000}",
+            initialDelayString = "${app.reservation-log.snapshot-check-ms:60000}")
+    public void snapshotIfDue() {
+        if (eventsSinceSnapshot.sum() >= snapshotEveryEvents) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Serialise the state with every partition held at a barrier (changes wait for that part
+     * only) and write the file after they have resumed.
+     */
+    public void snapshot() {
+        byte[] bytes;
+        long sequence;
+        synchronized (maintenance) {
+            Paused paused = pauseAll();
+            try {
+                if (eventsSinceSnapshot.sum() == 0) {
+                    return;
+                }
+                for (LotPartition partition : partitions) {
+                    if (partition.isFailed()) {
+                        System.err.println("⚠️ Reservation snapshot skipped: partition " + partition.getIndex()
+                                + " holds changes the log does not");
+                        return;
+                    }
+                }
+                bytes = serialise();
+                sequence = journal.getLastSequence();
+                eventsSinceSnapshot.reset();
+            } finally {
+                paused.resume();
+            }
+        }
+        try {
+            journal.writeSnapshot(sequence, bytes);
+        } catch (RuntimeException e) {
+            eventsSinceSnapshot.add(snapshotEveryEvents);
+            System.err.println("⚠️ Reservation snapshot failed: " + e.getMessage());
+        }
+    }
+
+    // Partitions must be paused
+    private byte[] serialise() {
+        TreeMap<Long, LotState> all = new TreeMap<>();
+        for (LotPartition partition : partitions) {
+            all.putAll(partition.lots());
+        }
+        return ReservationState.toSnapshot(journal.getLastSequence(), lastReservationId.get(), all.values());
+    }
+
+    private Paused pauseAll() {
+        CountDownLatch arrived = new CountDownLatch(partitions.length);
+        CountDownLatch resume = new CountDownLatch(1);
+        for (LotPartition partition : partitions) {
+            partition.submit(new LotPartition.Barrier(arrived, resume));
+        }
+        try {
+            arrived.await();
+        } catch (InterruptedException e) {
+            resume.countDown();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while pausing the reservation partitions", e);
+        }
+        return resume::countDown;
+    }
+
+    private interface Paused {
+        void resume();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+        for (LotPartition partition : partitions) {
+            partition.stop();
+        }
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(journal.metrics());
+        metrics.put("lots", routes.size());
+        metrics.put("activeReservations", lotOfReservation.size());
+        metrics.put("eventsSinceSnapshot", eventsSinceSnapshot.sum());
+        metrics.put("recoveredFromSnapshot", recoveredSnapshotSequence);
+        metrics.put("recoveryReplayedEvents", recoveredEvents);
+        metrics.put("recoveryMillis", recoveryMillis);
+        metrics.put("lotsMoved", lotsMoved.sum());
+        List<Map<String, Object>> perPartition = new ArrayList<>();
+        for (LotPartition partition : partitions) {
+            perPartition.add(partition.metrics());
+        }
+        metrics.put("partitions", perPartition);
+        return metrics;
+    }
+
+    public record FreeSlot(long lotId, long slotId) {
+    }
+}
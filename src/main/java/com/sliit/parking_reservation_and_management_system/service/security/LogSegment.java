@@ -0,0 +1,509 @@
+package com.sliit.parking_reservation_and_management_system.service.security;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * One append-only segment file of the security log store.
+ *
+ * File layout: repeated [int payload length][int CRC32C of payload][payload], payload =
+ * [byte kind][long timestamp][UTF source][UTF message].
+ * Only a summary stays in memory: min/max time, kinds, sources and a sparse index holding the
+ * offset of every SPARSE_INTERVAL-th record. Queries read the records themselves from the file,
+ * verifying their checksums. Access is guarded by the segment's monitor.
+ *
+ * Appended segments are named bucket-sequence.seg. Compaction output is written to a temporary
+ * file, forced to disk and renamed to bucket-sequence.cseg; the rename is the commit point, and a
+ * compacted segment replaces every segment of its bucket with a lower sequence.
+ *
+ * A sealed segment gets a sidecar (segment name + .idx) holding its summary, so startup reads
+ * that instead of scanning the segment. Segments without a valid sidecar (the active ones after
+ * a crash) are scanned and verified record by record as before.
+ */
+class LogSegment {
+
+    static final String SUFFIX = ".seg";
+    static final String COMPACTED_SUFFIX = ".cseg";
+    static final String TEMPORARY_SUFFIX = ".tmp";
+    static final String SUMMARY_SUFFIX = ".idx";
+    private static final int HEADER = 8;
+    private static final int SUMMARY_MAGIC = 0x534c4731;   // "SLG1"
+    private static final int SPARSE_INTERVAL = 256;
+    private static final SecurityLogKind[] KINDS = SecurityLogKind.values();
+
+    private final long bucketStart;
+    private final long sequence;
+    private final boolean compacted;
+    private Path file;
+
+    private OutputStream writer;      // null once sealed
+    private long size;
+    private int count;
+    private final Set<String> sources = new HashSet<>();
+    private long minTime = Long.MAX_VALUE;
+    private long maxTime = Long.MIN_VALUE;
+    private long lastTime = Long.MIN_VALUE;
+    private long[] sparseTimes = new long[16];
+    private long[] sparseOffsets = new long[16];
+    private int sparseCount;
+    private int kindMask;             // bit per SecurityLogKind present in the segment
+    private boolean sorted = true;    // records in timestamp order (always true after compaction)
+
+    // A record encoded and checksummed before anything is written
+    record Encoded(SecurityLogRecord record, byte[] payload, int checksum) {
+    }
+
+    private LogSegment(long bucketStart, long sequence, boolean compacted, Path file) {
+        this.bucketStart = bucketStart;
+        this.sequence = sequence;
+        this.compacted = compacted;
+        this.file = file;
+    }
+
+    static String fileName(long bucketStart, long sequence, boolean compacted) {
+        return bucketStart + "-" + sequence + (compacted ? COMPACTED_SUFFIX : SUFFIX);
+    }
+
+    static LogSegment create(Path dir, long bucketStart, long sequence) throws IOException {
+        return create(dir.resolve(fileName(bucketStart, sequence, false)), bucketStart, sequence, false);
+    }
+
+    private static LogSegment create(Path file, long bucketStart, long sequence, boolean compacted) throws IOException {
+        LogSegment segment = new LogSegment(bucketStart, sequence, compacted, file);
+        segment.writer = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), 64 * 1024);
+        return segment;
+    }
+
+    /**
+     * Open an existing segment read-only. With a valid sidecar the summary is taken from it;
+     * otherwise every record is verified and the summary rebuilt (and saved for next time).
+     * In an appended segment a torn or corrupt record (crash during append) and everything
+     * after it is cut off. A compacted segment was complete on disk before it got its name,
+     * so damage there is an error rather than something to drop silently.
+     */
+    static LogSegment open(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        int dash = name.indexOf('-');
+        int dot = name.lastIndexOf('.');
+        LogSegment segment = new LogSegment(Long.parseLong(name.substring(0, dash)),
+                Long.parseLong(name.substring(dash + 1, dot)), name.endsWith(COMPACTED_SUFFIX), file);
+
+        long fileSize = Files.size(file);
+        if (segment.readSummary(fileSize)) {
+            return segment;
+        }
+        long offset = 0;
+        String problem = null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            while (offset < fileSize) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length <= 0 || offset + HEADER + length > fileSize) {
+                        problem = "bad record length " + length;
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    problem = "incomplete record header";
+                    break;
+                }
+                if (checksum(payload) != checksum) {
+                    problem = "checksum mismatch";
+                    break;
+                }
+                SecurityLogRecord record;
+                try {
+                    record = decode(payload);
+                } catch (IOException e) {
+                    problem = e.getMessage();
+                    break;
+                }
+                segment.index(record, offset);
+                offset += HEADER + length;
+            }
+        }
+        if (offset < fileSize) {
+            String where = name + " at byte " + offset + " (" + problem + ")";
+            if (segment.compacted) {
+                throw new IllegalStateException("Security log is corrupt in " + where);
+            }
+            System.err.println("⚠️ Dropping incomplete security log tail in " + where);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(offset);
+                channel.force(true);
+            }
+        }
+        segment.size = offset;
+        segment.writeSummary();
+        return segment;
+    }
+
+    /**
+     * Write a sorted, sealed copy of the given records (used by compaction). The file only
+     * gets its final name once it is complete on disk.
+     */
+    static LogSegment write(Path dir, long bucketStart, long sequence, List<SecurityLogRecord> records) throws IOException {
+        Path target = dir.resolve(fileName(bucketStart, sequence, true));
+        Path temporary = target.resolveSibling(target.getFileName() + TEMPORARY_SUFFIX);
+        Files.deleteIfExists(temporary);
+        LogSegment segment = create(temporary, bucketStart, sequence, true);
+        synchronized (segment) {
+            for (SecurityLogRecord record : records) {
+                segment.append(encode(record));
+            }
+            segment.closeWriter();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            segment.file = target;
+            segment.writeSummary();
+        }
+        return segment;
+    }
+
+    synchronized void append(Encoded encoded) throws IOException {
+        if (writer == null) {
+            throw new IllegalStateException("Segment " + file.getFileName() + " is sealed");
+        }
+        DataOutputStream out = new DataOutputStream(writer);
+        out.writeInt(encoded.payload().length);
+        out.writeInt(encoded.checksum());
+        out.write(encoded.payload());
+        index(encoded.record(), size);
+        size += HEADER + encoded.payload().length;
+    }
+
+    synchronized void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    synchronized void seal() throws IOException {
+        if (writer != null) {
+            closeWriter();
+            writeSummary();
+        }
+    }
+
+    synchronized boolean isSealed() {
+        return writer == null;
+    }
+
+    // The sidecar goes first: a segment without one is just scanned on the next startup
+    synchronized void delete() throws IOException {
+        closeWriter();
+        Files.deleteIfExists(summaryFile(file));
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Records of this segment in [from, to), optionally restricted to one source and kind.
+     * Callers check overlaps() first so irrelevant segments are never read.
+     */
+    synchronized List<SecurityLogRecord> query(String source, SecurityLogKind kind, long from, long to) {
+        if (!overlaps(source, kind, from, to)) {
+            return List.of();
+        }
+        try {
+            flush();
+            List<SecurityLogRecord> result = new ArrayList<>();
+            scan(sorted ? sparseFloor(from) : 0, record -> {
+                long ts = record.timestamp();
+                if (ts >= to && sorted) {
+                    return false;
+                }
+                if (ts >= from && ts < to && (source == null || source.equals(record.source()))
+                        && (kind == null || record.kind() == kind)) {
+                    result.add(record);
+                }
+                return true;
+            });
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read segment " + file.getFileName(), e);
+        }
+    }
+
+    // Min/max time, kind and source index check; no file access
+    synchronized boolean overlaps(String source, SecurityLogKind kind, long from, long to) {
+        return count > 0 && minTime < to && maxTime >= from
+                && (kind == null || (kindMask & (1 << kind.ordinal())) != 0)
+                && (source == null || sources.contains(source));
+    }
+
+    // Every record, in file order (compaction input)
+    synchronized List<SecurityLogRecord> readAll() throws IOException {
+        flush();
+        List<SecurityLogRecord> records = new ArrayList<>(count);
+        scan(0, records::add);
+        return records;
+    }
+
+    long getBucketStart() {
+        return bucketStart;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    boolean isCompacted() {
+        return compacted;
+    }
+
+    synchronized Path getFile() {
+        return file;
+    }
+
+    synchronized int getCount() {
+        return count;
+    }
+
+    synchronized long getMaxTime() {
+        return maxTime;
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    private void index(SecurityLogRecord record, long offset) {
+        long ts = record.timestamp();
+        if (count % SPARSE_INTERVAL == 0) {
+            if (sparseCount == sparseTimes.length) {
+                sparseTimes = Arrays.copyOf(sparseTimes, sparseCount * 2);
+                sparseOffsets = Arrays.copyOf(sparseOffsets, sparseCount * 2);
+            }
+            sparseTimes[sparseCount] = ts;
+            sparseOffsets[sparseCount] = offset;
+            sparseCount++;
+        }
+        if (ts < lastTime) {
+            sorted = false;
+        }
+        lastTime = ts;
+        sources.add(record.source());
+        kindMask |= 1 << record.kind().ordinal();
+        minTime = Math.min(minTime, ts);
+        maxTime = Math.max(maxTime, ts);
+        count++;
+    }
+
+    // Offset of the last sparse entry before "from"; nothing ahead of it can match (sorted only)
+    private long sparseFloor(long from) {
+        int lo = 0;
+        int hi = sparseCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sparseTimes[mid] < from) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo == 0 ? 0 : sparseOffsets[lo - 1];
+    }
+
+    /**
+     * Feed the records from offset "start" on to the visitor, in file order, until it returns
+     * false. Checksums are verified here: a sealed segment opened from its sidecar was not
+     * scanned at startup, so damage shows up when the records are read.
+     */
+    private void scan(long start, Predicate<SecurityLogRecord> visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(
+                     Channels.newInputStream(channel.position(start)), 64 * 1024))) {
+            long offset = start;
+            while (offset < size) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || offset + HEADER + length > size) {
+                    throw corrupt(offset, "bad record length " + length);
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (checksum(payload) != checksum) {
+                    throw corrupt(offset, "checksum mismatch");
+                }
+                offset += HEADER + length;
+                if (!visitor.test(decode(payload))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private IllegalStateException corrupt(long offset, String problem) {
+        return new IllegalStateException("Security log is corrupt in " + file.getFileName()
+                + " at byte " + offset + " (" + problem + ")");
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private static Path summaryFile(Path segmentFile) {
+        return segmentFile.resolveSibling(segmentFile.getFileName() + SUMMARY_SUFFIX);
+    }
+
+    /**
+     * Save the summary next to the sealed segment: [magic][segment size][count][min][max][last]
+     * [kind mask][sorted][sources][sparse index][CRC32C of everything before]. It is only a
+     * shortcut for startup, so failing to write it is a warning, not an error.
+     */
+    private void writeSummary() {
+        Path target = summaryFile(file);
+        Path temporary = target.resolveSibling(target.getFileName() + TEMPORARY_SUFFIX);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(SUMMARY_MAGIC);
+            out.writeLong(size);
+            out.writeInt(count);
+            out.writeLong(minTime);
+            out.writeLong(maxTime);
+            out.writeLong(lastTime);
+            out.writeInt(kindMask);
+            out.writeBoolean(sorted);
+            out.writeInt(sources.size());
+            for (String source : sources) {
+                out.writeUTF(source);
+            }
+            out.writeInt(sparseCount);
+            for (int i = 0; i < sparseCount; i++) {
+                out.writeLong(sparseTimes[i]);
+                out.writeLong(sparseOffsets[i]);
+            }
+            out.writeInt(checksum(bytes.toByteArray()));
+            Files.write(temporary, bytes.toByteArray());
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("⚠️ Failed to write security log summary " + target.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    // Load the summary from the sidecar if there is one that matches the segment as it is on disk
+    private boolean readSummary(long fileSize) {
+        Path summary = summaryFile(file);
+        if (!Files.exists(summary)) {
+            return false;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(summary);
+            if (bytes.length < 4 || checksum(Arrays.copyOf(bytes, bytes.length - 4))
+                    != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+                throw new IOException("checksum mismatch");
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != SUMMARY_MAGIC || in.readLong() != fileSize) {
+                throw new IOException("does not match the segment");
+            }
+            count = in.readInt();
+            minTime = in.readLong();
+            maxTime = in.readLong();
+            lastTime = in.readLong();
+            kindMask = in.readInt();
+            sorted = in.readBoolean();
+            int sourceCount = in.readInt();
+            for (int i = 0; i < sourceCount; i++) {
+                sources.add(in.readUTF());
+            }
+            sparseCount = in.readInt();
+            sparseTimes = new long[Math.max(sparseCount, 16)];
+            sparseOffsets = new long[Math.max(sparseCount, 16)];
+            for (int i = 0; i < sparseCount; i++) {
+                sparseTimes[i] = in.readLong();
+                sparseOffsets[i] = in.readLong();
+            }
+            size = fileSize;
+            return true;
+        } catch (IOException e) {
+            System.err.println("⚠️ Ignoring security log summary " + summary.getFileName() + " (" + e.getMessage()
+                    + "), scanning the segment");
+            count = 0;
+            minTime = Long.MAX_VALUE;
+            maxTime = Long.MIN_VALUE;
+            lastTime = Long.MIN_VALUE;
+            kindMask = 0;
+            sorted = true;
+            sources.clear();
+            sparseTimes = new long[16];
+            sparseOffsets = new long[16];
+            sparseCount = 0;
+            return false;
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Encode a record for append. Source and message are written as modified UTF-8 with a
+     * two-byte length, so either one over 65535 encoded bytes is rejected here, before the
+     * record can reach a segment.
+     */
+    static Encoded encode(SecurityLogRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(record.kind().ordinal());
+            out.writeLong(record.timestamp());
+            out.writeUTF(record.source());
+            out.writeUTF(record.message() == null ? "" : record.message());
+        } catch (UTFDataFormatException e) {
+            throw new IllegalArgumentException("Log source or message is too long");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] payload = bytes.toByteArray();
+        return new Encoded(record, payload, checksum(payload));
+    }
+
+    private static SecurityLogRecord decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= KINDS.length) {
+            throw new IOException("Unknown security log kind " + ordinal);
+        }
+        SecurityLogKind kind = KINDS[ordinal];
+        long timestamp = in.readLong();
+        return new SecurityLogRecord(timestamp, kind, in.readUTF(), in.readUTF());
+    }
+}
@@ -0,0 +1,6 @@
+package com.sliit.parking_reservation_and_management_system.service.security;
+
+public enum SecurityLogKind {
+    INCIDENT,   // report filed by a security officer
+    CCTV        // camera / gate event
+}
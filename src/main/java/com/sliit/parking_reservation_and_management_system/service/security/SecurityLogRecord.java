@@ -0,0 +1,8 @@
+package com.sliit.parking_reservation_and_management_system.service.security;
+
+/**
+ * One incident report or CCTV log line.
+ * source is the camera or gate id (e.g. CAM-12, GATE-3); timestamp is epoch millis.
+ */
+public record SecurityLogRecord(long timestamp, SecurityLogKind kind, String source, String message) {
+}
@@ -0,0 +1,397 @@
+package com.sliit.parking_reservation_and_management_system.service.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Time-partitioned store for incident reports and CCTV logs.
+ *
+ * Records go into segment files bucketed by time (one hour by default). Each segment keeps
+ * its min/max timestamp and the kinds and sources it contains, so a query for one camera and
+ * time window only opens the segments that can match. Closed buckets are compacted into a
+ * single time-sorted segment, and segments older than the retention period are deleted.
+ */
+@Service
+public class SecurityLogStore {
+
+    private final Path dir;
+    private final long bucketMillis;
+    private final long retentionMillis;
+    private final int maxRecordsPerSegment;
+    private final Clock clock;
+
+    // bucket start -> segments of that bucket, oldest first; the last one may be active
+    private final TreeMap<Long, List<LogSegment>> buckets = new TreeMap<>();
+    // structure lock: read for append/query, write for adding/removing segments
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    private final LongAdder segmentsRead = new LongAdder();
+    private final LongAdder segmentsSkipped = new LongAdder();
+
+    @Autowired
+    public SecurityLogStore(@Value("${app.security-log.dir:data/security-logs}") String dir,
+                            @Value("${app.security-log.bucket-minutes:60}") long bucketMinutes,
+                            @Value("${app.security-log.retention-days:180}") long retentionDays,
+                            @Value("${app.security-log.max-records-per-segment:200000}") int maxRecordsPerSegment) {
+        this(Paths.get(dir), Duration.ofMinutes(bucketMinutes), Duration.ofDays(retentionDays),
+                maxRecordsPerSegment, Clock.systemUTC());
+    }
+
+    public SecurityLogStore(Path dir, Duration bucket, Duration retention, int maxRecordsPerSegment, Clock clock) {
+        this.dir = dir;
+        this.bucketMillis = bucket.toMillis();
+        this.retentionMillis = retention.toMillis();
+        this.maxRecordsPerSegment = maxRecordsPerSegment;
+        this.clock = clock;
+        load();
+    }
+
+    /**
+     * Load segment summaries from the files on disk (from their sidecars where sealed segments
+     * have one); everything found is sealed. A compaction
+     * that crashed before deleting its inputs is finished here: segments older than their
+     * bucket's newest compacted segment are already contained in it.
+     */
+    private void load() {
+        try {
+            Files.createDirectories(dir);
+            List<Path> files;
+            try (Stream<Path> stream = Files.list(dir)) {
+                files = stream.sorted().toList();
+            }
+            long maxSequence = 0;
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(LogSegment.TEMPORARY_SUFFIX)) {
+                    // unfinished compaction output or sidecar; its inputs are still there
+                    Files.delete(file);
+                    continue;
+                }
+                if (name.endsWith(LogSegment.SUMMARY_SUFFIX)) {
+                    Path segmentFile = file.resolveSibling(
+                            name.substring(0, name.length() - LogSegment.SUMMARY_SUFFIX.length()));
+                    if (!Files.exists(segmentFile)) {
+                        Files.delete(file);
+                    }
+                    continue;
+                }
+                if (!name.endsWith(LogSegment.SUFFIX) && !name.endsWith(LogSegment.COMPACTED_SUFFIX)) {
+                    continue;
+                }
+                LogSegment segment = LogSegment.open(file);
+                segment.seal();
+                buckets.computeIfAbsent(segment.getBucketStart(), k -> new ArrayList<>()).add(segment);
+                maxSequence = Math.max(maxSequence, segment.getSequence());
+            }
+            for (List<LogSegment> segments : buckets.values()) {
+                segments.sort(Comparator.comparingLong(LogSegment::getSequence));
+                long compactedUpTo = segments.stream().filter(LogSegment::isCompacted)
+                        .mapToLong(LogSegment::getSequence).max().orElse(Long.MIN_VALUE);
+                var it = segments.iterator();
+                while (it.hasNext()) {
+                    LogSegment segment = it.next();
+                    if (segment.getSequence() < compactedUpTo) {
+                        segment.delete();
+                        it.remove();
+                    }
+                }
+            }
+            nextSequence.set(maxSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open security log store at " + dir, e);
+        }
+    }
+
+    public void append(SecurityLogRecord record) {
+        appendAll(List.of(record));
+    }
+
+    /**
+     * Append a batch; the segment files are flushed once per batch. Every record is validated
+     * and encoded before the first one is written, so a bad record rejects the whole batch
+     * instead of leaving its head stored for the client's retry to duplicate.
+     */
+    public void appendAll(List<SecurityLogRecord> records) {
+        List<LogSegment.Encoded> encoded = new ArrayList<>(records.size());
+        for (SecurityLogRecord record : records) {
+            validate(record);
+            encoded.add(LogSegment.encode(record));
+        }
+        List<LogSegment> touched = new ArrayList<>();
+        try {
+            for (LogSegment.Encoded record : encoded) {
+                LogSegment segment = appendToBucket(bucketOf(record.record().timestamp()), record);
+                if (touched.isEmpty() || touched.get(touched.size() - 1) != segment) {
+                    touched.add(segment);
+                }
+            }
+            for (LogSegment segment : touched) {
+                segment.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append security log", e);
+        }
+    }
+
+    /**
+     * Records in [from, to), oldest first. source and kind are optional filters.
+     */
+    public List<SecurityLogRecord> query(String source, SecurityLogKind kind, long from, long to, int limit) {
+        List<SecurityLogRecord> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            // buckets fully before "from" can be skipped by key alone
+            Long first = buckets.floorKey(bucketOf(from));
+            Map<Long, List<LogSegment>> candidates = first == null
+                    ? buckets.headMap(to, false)
+                    : buckets.subMap(first, true, to, false);
+            for (List<LogSegment> segments : candidates.values()) {
+                List<SecurityLogRecord> bucketRecords = new ArrayList<>();
+                for (LogSegment segment : segments) {
+                    if (!segment.overlaps(source, kind, from, to)) {
+                        segmentsSkipped.increment();
+                        continue;
+                    }
+                    segmentsRead.increment();
+                    bucketRecords.addAll(segment.query(source, kind, from, to));
+                }
+                // buckets do not overlap in time, so sorting per bucket gives global order
+                bucketRecords.sort(Comparator.comparingLong(SecurityLogRecord::timestamp));
+                for (SecurityLogRecord record : bucketRecords) {
+                    if (result.size() >= limit) {
+                        return result;
+                    }
+                    result.add(record);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Compact closed buckets and drop expired ones
+    @Scheduled(fixedDelayString = "${app.security-log.maintenance-interval-ms:600000}",
+            initialDelayString = "${app.security-log.maintenance-interval-ms:600000}")
+    public void maintain() {
+        expire();
+        compact();
+    }
+
+    // Delete segments whose newest record is past the retention period (and leftover empty ones)
+    public int expire() {
+        long cutoff = clock.millis() - retentionMillis;
+        int deleted = 0;
+        lock.writeLock().lock();
+        try {
+            var it = buckets.entrySet().iterator();
+            while (it.hasNext()) {
+                List<LogSegment> segments = it.next().getValue();
+                var segmentIt = segments.iterator();
+                while (segmentIt.hasNext()) {
+                    LogSegment segment = segmentIt.next();
+                    boolean emptyAndSealed = segment.getCount() == 0 && segment.isSealed();
+                    if (emptyAndSealed || (segment.getCount() > 0 && segment.getMaxTime() < cutoff)) {
+                        segment.delete();
+                        segmentIt.remove();
+                        deleted++;
+                    }
+                }
+                if (segments.isEmpty()) {
+                    it.remove();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to expire security logs", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return deleted;
+    }
+
+    /**
+     * Merge every closed bucket that has several segments (or an unsealed one) into one
+     * sorted segment. The merged file is written without holding the lock; only the swap
+     * is exclusive, so queries and appends to current buckets keep running.
+     */
+    public int compact() {
+        long currentBucket = bucketOf(clock.millis());
+        List<Long> todo = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, List<LogSegment>> e : buckets.headMap(currentBucket, false).entrySet()) {
+                List<LogSegment> segments = e.getValue();
+                if (segments.size() > 1 || !segments.get(0).isSealed()) {
+                    todo.add(e.getKey());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int compacted = 0;
+        for (long bucket : todo) {
+            try {
+                if (compactBucket(bucket)) {
+                    compacted++;
+                }
+            } catch (IOException e) {
+                System.err.println("⚠️ Failed to compact security log bucket " + bucket + ": " + e.getMessage());
+            }
+        }
+        return compacted;
+    }
+
+    /**
+     * The merged segment gets its sequence while the inputs are chosen, so it is above every
+     * input and below any segment the bucket gets later; that is what lets load() tell
+     * superseded inputs from late records if we crash before deleting the inputs.
+     */
+    private boolean compactBucket(long bucket) throws IOException {
+        List<LogSegment> inputs;
+        long sequence;
+        lock.writeLock().lock();
+        try {
+            List<LogSegment> segments = buckets.get(bucket);
+            if (segments == null) {
+                return false;
+            }
+            // late records for a closed bucket go to a fresh segment from now on
+            for (LogSegment segment : segments) {
+                segment.seal();
+            }
+            inputs = List.copyOf(segments);
+            sequence = nextSequence.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<SecurityLogRecord> records = new ArrayList<>();
+        for (LogSegment segment : inputs) {
+            records.addAll(segment.readAll());
+        }
+        records.sort(Comparator.comparingLong(SecurityLogRecord::timestamp));
+        LogSegment merged = LogSegment.write(dir, bucket, sequence, records);
+
+        lock.writeLock().lock();
+        try {
+            List<LogSegment> segments = buckets.get(bucket);
+            if (segments == null) {
+                merged.delete();
+                return false;
+            }
+            // keep anything appended to the bucket while we were merging
+            segments.removeAll(inputs);
+            segments.add(0, merged);
+            for (LogSegment segment : inputs) {
+                segment.delete();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return buckets.values().stream().mapToInt(List::size).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Segments opened vs skipped by queries so far
+    public long getSegmentsRead() {
+        return segmentsRead.sum();
+    }
+
+    public long getSegmentsSkipped() {
+        return segmentsSkipped.sum();
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (List<LogSegment> segments : buckets.values()) {
+                for (LogSegment segment : segments) {
+                    segment.seal();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Failed to close security log store: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Segments are only sealed under the write lock, so appending under the read lock is safe
+    private LogSegment appendToBucket(long bucket, LogSegment.Encoded record) throws IOException {
+        while (true) {
+            lock.readLock().lock();
+            try {
+                LogSegment segment = lastWritable(bucket);
+                if (segment != null) {
+                    segment.append(record);
+                    return segment;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (lastWritable(bucket) == null) {
+                    List<LogSegment> segments = buckets.computeIfAbsent(bucket, k -> new ArrayList<>());
+                    if (!segments.isEmpty()) {
+                        segments.get(segments.size() - 1).seal();
+                    }
+                    segments.add(LogSegment.create(dir, bucket, nextSequence.incrementAndGet()));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private LogSegment lastWritable(long bucket) {
+        List<LogSegment> segments = buckets.get(bucket);
+        if (segments == null || segments.isEmpty()) {
+            return null;
+        }
+        LogSegment last = segments.get(segments.size() - 1);
+        return !last.isSealed() && last.getCount() < maxRecordsPerSegment ? last : null;
+    }
+
+    private long bucketOf(long timestamp) {
+        return Math.floorDiv(timestamp, bucketMillis) * bucketMillis;
+    }
+
+    private static void validate(SecurityLogRecord record) {
+        if (record.kind() == null || record.source() == null || record.source().isBlank()) {
+            throw new IllegalArgumentException("Log record needs a kind and a source");
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.sliit.parking_reservation_and_management_system.service.support;
+
+import java.time.Instant;
+
+/**
+ * Customer inquiry handled by the support officers.
+ * Claim state (status, owner, lease) is only changed by TicketQueue while holding the ticket's monitor.
+ */
+public class SupportTicket {
+
+    private final int id;
+    private final String customerEmail;
+    private final String subject;
+    private final String body;
+    private final TicketPriority priority;
+    private final Instant createdAt;
+    private final Instant slaDeadline;
+
+    private volatile TicketStatus status = TicketStatus.OPEN;
+    private volatile String claimedBy;
+    private volatile Instant leaseExpiresAt;
+    // bumped on every claim/renew so stale lease timers can be recognised
+    private long leaseVersion;
+
+    public SupportTicket(int id, String customerEmail, String subject, String body,
+                         TicketPriority priority, Instant createdAt) {
+        this.id = id;
+        this.customerEmail = customerEmail;
+        this.subject = subject;
+        this.body = body;
+        this.priority = priority;
+        this.createdAt = createdAt;
+        this.slaDeadline = createdAt.plus(priority.getSla());
+    }
+
+    // ==========================
+    // Getters
+    // ==========================
+    public int getId() {
+        return id;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public TicketPriority getPriority() {
+        return priority;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getSlaDeadline() {
+        return slaDeadline;
+    }
+
+    public TicketStatus getStatus() {
+        return status;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public Instant getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    // ==========================
+    // Claim state (TicketQueue only)
+    // ==========================
+    long lease(String officer, Instant expiresAt) {
+        this.status = TicketStatus.CLAIMED;
+        this.claimedBy = officer;
+        this.leaseExpiresAt = expiresAt;
+        return ++leaseVersion;
+    }
+
+    long getLeaseVersion() {
+        return leaseVersion;
+    }
+
+    void reopen() {
+        this.status = TicketStatus.OPEN;
+        this.claimedBy = null;
+        this.leaseExpiresAt = null;
+        leaseVersion++;
+    }
+
+    void resolve() {
+        this.status = TicketStatus.RESOLVED;
+        this.leaseExpiresAt = null;
+        leaseVersion++;
+    }
+}
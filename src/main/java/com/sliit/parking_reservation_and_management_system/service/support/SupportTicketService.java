@@ -0,0 +1,100 @@
+package com.sliit.parking_reservation_and_management_system.service.support;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Backend of the support dashboard: customer tickets, the officers' work queue
+ * and full-text search. Everything is held in memory.
+ */
+@Service
+public class SupportTicketService {
+
+    private final Map<Integer, SupportTicket> tickets = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final TicketQueue queue;
+    private final TicketSearchIndex index = new TicketSearchIndex();
+    private final Clock clock;
+
+    @Autowired
+    public SupportTicketService(@Value("${app.support.lease-minutes:15}") long leaseMinutes) {
+        this(Duration.ofMinutes(leaseMinutes), Clock.systemUTC());
+    }
+
+    public SupportTicketService(Duration leaseDuration, Clock clock) {
+        this.clock = clock;
+        this.queue = new TicketQueue(leaseDuration, clock);
+    }
+
+    public SupportTicket createTicket(String customerEmail, String subject, String body, TicketPriority priority) {
+        if (customerEmail == null || customerEmail.isBlank()) {
+            throw new IllegalArgumentException("Customer email is required");
+        }
+        if ((subject == null || subject.isBlank()) && (body == null || body.isBlank())) {
+            throw new IllegalArgumentException("Ticket must have a subject or a message");
+        }
+        SupportTicket ticket = new SupportTicket(nextId.incrementAndGet(), customerEmail.trim(), subject, body,
+                priority == null ? TicketPriority.NORMAL : priority, clock.instant());
+        tickets.put(ticket.getId(), ticket);
+        index.add(ticket);
+        queue.offer(ticket);
+        return ticket;
+    }
+
+    public Optional<SupportTicket> getTicket(int id) {
+        return Optional.ofNullable(tickets.get(id));
+    }
+
+    // Next ticket by SLA for this officer
+    public Optional<SupportTicket> claimNext(String officer) {
+        return queue.claim(officer);
+    }
+
+    public SupportTicket renewLease(int id, String officer) {
+        SupportTicket ticket = requireTicket(id);
+        queue.renew(ticket, officer);
+        return ticket;
+    }
+
+    public SupportTicket resolve(int id, String officer) {
+        SupportTicket ticket = requireTicket(id);
+        queue.resolve(ticket, officer);
+        return ticket;
+    }
+
+    public SupportTicket release(int id, String officer) {
+        SupportTicket ticket = requireTicket(id);
+        queue.release(ticket, officer);
+        return ticket;
+    }
+
+    public List<SupportTicket> search(String query, int limit) {
+        List<SupportTicket> result = new ArrayList<>();
+        for (int id : index.search(query, limit)) {
+            result.add(tickets.get(id));
+        }
+        return result;
+    }
+
+    public int openCount() {
+        return queue.openCount();
+    }
+
+    private SupportTicket requireTicket(int id) {
+        SupportTicket ticket = tickets.get(id);
+        if (ticket == null) {
+            throw new IllegalArgumentException("Invalid ticket Id:" + id);
+        }
+        return ticket;
+    }
+}
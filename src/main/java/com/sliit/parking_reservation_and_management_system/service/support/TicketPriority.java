@@ -0,0 +1,21 @@
+package com.sliit.parking_reservation_and_management_system.service.support;
+
+import java.time.Duration;
+
+// SLA = how long after creation a ticket must be picked up
+public enum TicketPriority {
+    URGENT(Duration.ofHours(1)),
+    HIGH(Duration.ofHours(4)),
+    NORMAL(Duration.ofHours(24)),
+    LOW(Duration.ofHours(72));
+
+    private final Duration sla;
+
+    TicketPriority(Duration sla) {
+        this.sla = sla;
+    }
+
+    public Duration getSla() {
+        return sla;
+    }
+}
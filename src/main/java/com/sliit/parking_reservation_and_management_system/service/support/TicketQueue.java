@@ -0,0 +1,123 @@
+package com.sliit.parking_reservation_and_management_system.service.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * Work queue for support officers, ordered by SLA deadline (then ticket id).
+ *
+ * Claiming removes the head atomically and leases the ticket to one officer, so two
+ * officers can never get the same ticket. A lease that is not renewed or resolved before
+ * it runs out puts the ticket back in the queue on the next claim.
+ */
+public class TicketQueue {
+
+    private static final Comparator<SupportTicket> SLA_ORDER =
+            Comparator.comparing(SupportTicket::getSlaDeadline).thenComparingInt(SupportTicket::getId);
+
+    private final PriorityBlockingQueue<SupportTicket> open = new PriorityBlockingQueue<>(1024, SLA_ORDER);
+    // lease timers, soonest expiry first; guarded by its own monitor
+    private final PriorityQueue<Lease> leases = new PriorityQueue<>(Comparator.comparing(Lease::expiresAt));
+    private final Duration leaseDuration;
+    private final Clock clock;
+
+    public TicketQueue(Duration leaseDuration, Clock clock) {
+        this.leaseDuration = leaseDuration;
+        this.clock = clock;
+    }
+
+    public void offer(SupportTicket ticket) {
+        open.offer(ticket);
+    }
+
+    // Lease the most urgent open ticket to the officer
+    public Optional<SupportTicket> claim(String officer) {
+        reapExpiredLeases();
+        SupportTicket ticket;
+        while ((ticket = open.poll()) != null) {
+            synchronized (ticket) {
+                // only OPEN tickets are handed out
+                if (ticket.getStatus() != TicketStatus.OPEN) {
+                    continue;
+                }
+                startLease(ticket, officer);
+                return Optional.of(ticket);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void renew(SupportTicket ticket, String officer) {
+        synchronized (ticket) {
+            requireOwner(ticket, officer);
+            startLease(ticket, officer);
+        }
+    }
+
+    public void resolve(SupportTicket ticket, String officer) {
+        synchronized (ticket) {
+            requireOwner(ticket, officer);
+            ticket.resolve();
+        }
+    }
+
+    // Give the ticket back without resolving it
+    public void release(SupportTicket ticket, String officer) {
+        synchronized (ticket) {
+            requireOwner(ticket, officer);
+            ticket.reopen();
+            open.offer(ticket);
+        }
+    }
+
+    public int openCount() {
+        return open.size();
+    }
+
+    // Return tickets whose lease ran out to the queue
+    public int reapExpiredLeases() {
+        Instant now = clock.instant();
+        int reaped = 0;
+        while (true) {
+            Lease lease;
+            synchronized (leases) {
+                lease = leases.peek();
+                if (lease == null || lease.expiresAt().isAfter(now)) {
+                    return reaped;
+                }
+                leases.poll();
+            }
+            SupportTicket ticket = lease.ticket();
+            synchronized (ticket) {
+                // still on this lease, i.e. not renewed, resolved or released since
+                if (ticket.getStatus() == TicketStatus.CLAIMED && ticket.getLeaseVersion() == lease.version()) {
+                    ticket.reopen();
+                    open.offer(ticket);
+                    reaped++;
+                }
+            }
+        }
+    }
+
+    private void startLease(SupportTicket ticket, String officer) {
+        Instant expiresAt = clock.instant().plus(leaseDuration);
+        long version = ticket.lease(officer, expiresAt);
+        synchronized (leases) {
+            leases.add(new Lease(ticket, version, expiresAt));
+        }
+    }
+
+    private void requireOwner(SupportTicket ticket, String officer) {
+        if (ticket.getStatus() != TicketStatus.CLAIMED || !officer.equals(ticket.getClaimedBy())) {
+            throw new IllegalStateException("Ticket #" + ticket.getId() + " is not claimed by " + officer);
+        }
+    }
+
+    private record Lease(SupportTicket ticket, long version, Instant expiresAt) {
+    }
+}
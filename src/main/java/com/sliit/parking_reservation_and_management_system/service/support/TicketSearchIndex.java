@@ -0,0 +1,159 @@
+package com.sliit.parking_reservation_and_management_system.service.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over ticket subject/body words and customer emails.
+ *
+ * Every term maps to a sorted int[] of ticket ids. A query ANDs its terms by walking the
+ * shortest posting list from the newest id down and binary-searching the others, so the
+ * cost depends on the rarest term and the result limit, not on the number of tickets.
+ */
+public class TicketSearchIndex {
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<String, Postings> emails = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(SupportTicket ticket) {
+        Set<String> words = new HashSet<>();
+        tokenize(ticket.getSubject(), words);
+        tokenize(ticket.getBody(), words);
+        String email = normalizeEmail(ticket.getCustomerEmail());
+
+        lock.writeLock().lock();
+        try {
+            for (String word : words) {
+                terms.computeIfAbsent(word, k -> new Postings()).add(ticket.getId());
+            }
+            if (email != null) {
+                emails.computeIfAbsent(email, k -> new Postings()).add(ticket.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ticket ids matching every word in the query, newest first.
+     * Words containing '@' are matched against the customer email instead of the text.
+     */
+    public List<Integer> search(String query, int limit) {
+        List<String> wordTerms = new ArrayList<>();
+        List<String> emailTerms = new ArrayList<>();
+        if (query != null) {
+            for (String part : query.trim().split("\\s+")) {
+                if (part.indexOf('@') >= 0) {
+                    emailTerms.add(normalizeEmail(part));
+                } else {
+                    Set<String> words = new HashSet<>();
+                    tokenize(part, words);
+                    wordTerms.addAll(words);
+                }
+            }
+        }
+        if ((wordTerms.isEmpty() && emailTerms.isEmpty()) || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            for (String term : wordTerms) {
+                Postings postings = terms.get(term);
+                if (postings == null) {
+                    return List.of();
+                }
+                lists.add(postings);
+            }
+            for (String email : emailTerms) {
+                Postings postings = emails.get(email);
+                if (postings == null) {
+                    return List.of();
+                }
+                lists.add(postings);
+            }
+            lists.sort(Comparator.comparingInt(p -> p.size));
+
+            Postings rarest = lists.get(0);
+            List<Integer> result = new ArrayList<>(Math.min(limit, rarest.size));
+            for (int i = rarest.size - 1; i >= 0 && result.size() < limit; i--) {
+                int id = rarest.ids[i];
+                boolean inAll = true;
+                for (int j = 1; j < lists.size() && inAll; j++) {
+                    inAll = lists.get(j).contains(id);
+                }
+                if (inAll) {
+                    result.add(id);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static void tokenize(String text, Set<String> out) {
+        if (text == null) {
+            return;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= MIN_TERM_LENGTH) {
+                out.add(word);
+            }
+        }
+    }
+
+    private static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Growable sorted id list
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            if (size == 0 || ids[size - 1] < id) {
+                ids[size++] = id;
+                return;
+            }
+            // ids are handed out in order, so this only happens for racing creates
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.sliit.parking_reservation_and_management_system.service.support;
+
+public enum TicketStatus {
+    OPEN,       // waiting in the work queue
+    CLAIMED,    // leased by a support officer
+    RESOLVED
+}
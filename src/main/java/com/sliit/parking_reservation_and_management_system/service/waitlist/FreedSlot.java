@@ -0,0 +1,21 @@
+package com.sliit.parking_reservation_and_management_system.service.waitlist;
+
+import java.time.LocalDateTime;
+
+/**
+ * A slot that became available for a time window (cancellation or no-show).
+ * maxVehicleSize is the largest vehicle the slot can take.
+ */
+public record FreedSlot(long lotId,
+                        long slotId,
+                        LocalDateTime windowStart,
+                        LocalDateTime windowEnd,
+                        boolean ev,
+                        boolean accessible,
+                        VehicleSize maxVehicleSize) {
+
+    // The same slot, free for part of its range
+    public FreedSlot part(LocalDateTime start, LocalDateTime end) {
+        return new FreedSlot(lotId, slotId, start, end, ev, accessible, maxVehicleSize);
+    }
+}
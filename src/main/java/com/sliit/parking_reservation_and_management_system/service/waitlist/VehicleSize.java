@@ -0,0 +1,8 @@
+package com.sliit.parking_reservation_and_management_system.service.waitlist;
+
+// Ordered from smallest to largest: a slot fits every size up to its own
+public enum VehicleSize {
+    SMALL,
+    MEDIUM,
+    LARGE
+}
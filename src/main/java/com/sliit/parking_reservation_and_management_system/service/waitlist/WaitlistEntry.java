@@ -0,0 +1,97 @@
+package com.sliit.parking_reservation_and_management_system.service.waitlist;
+
+import java.time.LocalDateTime;
+
+/**
+ * One customer waiting for a slot in a lot for a given time window.
+ * The sequence number is the global arrival order used for fairness.
+ */
+public class WaitlistEntry {
+
+    private final long sequence;
+    private final String customerEmail;
+    private final long lotId;
+    private final LocalDateTime windowStart;
+    private final LocalDateTime windowEnd;
+    private final boolean needsEv;
+    private final boolean needsAccessible;
+    private final VehicleSize vehicleSize;
+
+    // cleared when the customer leaves the list; the queue drops it lazily
+    private volatile boolean active = true;
+
+    public WaitlistEntry(long sequence, String customerEmail, long lotId,
+                         LocalDateTime windowStart, LocalDateTime windowEnd,
+                         boolean needsEv, boolean needsAccessible, VehicleSize vehicleSize) {
+        this.sequence = sequence;
+        this.customerEmail = customerEmail;
+        this.lotId = lotId;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.needsEv = needsEv;
+        this.needsAccessible = needsAccessible;
+        this.vehicleSize = vehicleSize;
+    }
+
+    // Index of the queue this entry waits in (see WaitlistService)
+    int signature() {
+        return signature(needsEv, needsAccessible, vehicleSize);
+    }
+
+    static int signature(boolean ev, boolean accessible, VehicleSize size) {
+        return (ev ? 1 : 0) | (accessible ? 2 : 0) | (size.ordinal() << 2);
+    }
+
+    // The slot has the features this customer needs and is free for their whole window
+    public boolean fits(FreedSlot slot) {
+        return slot.lotId() == lotId
+                && !windowStart.isBefore(slot.windowStart())
+                && !windowEnd.isAfter(slot.windowEnd())
+                && (!needsEv || slot.ev())
+                && (!needsAccessible || slot.accessible())
+                && vehicleSize.compareTo(slot.maxVehicleSize()) <= 0;
+    }
+
+    // ==========================
+    // Getters
+    // ==========================
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public long getLotId() {
+        return lotId;
+    }
+
+    public LocalDateTime getWindowStart() {
+        return windowStart;
+    }
+
+    public LocalDateTime getWindowEnd() {
+        return windowEnd;
+    }
+
+    public boolean isNeedsEv() {
+        return needsEv;
+    }
+
+    public boolean isNeedsAccessible() {
+        return needsAccessible;
+    }
+
+    public VehicleSize getVehicleSize() {
+        return vehicleSize;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    void deactivate() {
+        this.active = false;
+    }
+}
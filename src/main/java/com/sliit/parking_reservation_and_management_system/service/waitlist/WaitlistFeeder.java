@@ -0,0 +1,112 @@
+package com.sliit.parking_reservation_and_management_system.service.waitlist;
+
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationEvent;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationJournal;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds slots released in the reservation engine to the waitlist and books each matched
+ * customer into the slot they were given.
+ *
+ * Reads the reservation log's outbox as consumer "waitlist". A cancelled or expired booking
+ * frees its slot for the rest of its window, an early check-out for the time left until the
+ * booking would have ended. If the booking for a matched customer fails (someone took the
+ * slot in the meantime), they go back on the waitlist in their original place.
+ */
+@Service
+public class WaitlistFeeder {
+
+    static final String CONSUMER = "waitlist";
+    private static final int BATCH = 1000;
+
+    private final ReservationJournal journal;
+    private final ReservationStore reservationStore;
+    private final WaitlistService waitlistService;
+    private final ZoneId zone;
+
+    @Autowired
+    public WaitlistFeeder(ReservationJournal journal, ReservationStore reservationStore,
+                          WaitlistService waitlistService) {
+        this(journal, reservationStore, waitlistService, ZoneId.systemDefault());
+    }
+
+    // zone: the one waitlist windows are expressed in
+    public WaitlistFeeder(ReservationJournal journal, ReservationStore reservationStore,
+                          WaitlistService waitlistService, ZoneId zone) {
+        this.journal = journal;
+        this.reservationStore = reservationStore;
+        this.waitlistService = waitlistService;
+        this.zone = zone;
+        journal.registerConsumer(CONSUMER);
+    }
+
+    @Scheduled(fixedDelayString = "${app.waitlist.feed-interval-ms:1000}")
+    public void feed() {
+        try {
+            while (feedOnce() == BATCH) {
+                // keep reading while the outbox returns full batches
+            }
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Waitlist feed failed: " + e.getMessage());
+        }
+    }
+
+    // One outbox batch; returns the number of events read
+    int feedOnce() {
+        List<ReservationEvent> events = journal.poll(CONSUMER, BATCH);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<FreedSlot> freed = new ArrayList<>();
+        for (ReservationEvent event : events) {
+            switch (event.type()) {
+                case CANCELLED, EXPIRED, CHECKED_OUT -> {
+                    long from = Math.max(event.start(), event.timestamp());
+                    if (from < event.end()) {
+                        // the reservation engine has no slot features yet: a plain slot that takes any vehicle
+                        freed.add(new FreedSlot(event.lotId(), event.slotId(), toLocal(from), toLocal(event.end()),
+                                false, false, VehicleSize.LARGE));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        if (!freed.isEmpty()) {
+            for (WaitlistMatch match : waitlistService.onSlotsFreed(freed)) {
+                book(match);
+            }
+        }
+        journal.acknowledge(CONSUMER, events.get(events.size() - 1).sequence());
+        return events.size();
+    }
+
+    private void book(WaitlistMatch match) {
+        WaitlistEntry entry = match.entry();
+        try {
+            reservationStore.reserve(entry.getLotId(), match.slot().slotId(), entry.getCustomerEmail(),
+                    toMillis(entry.getWindowStart()), toMillis(entry.getWindowEnd()));
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Could not book waitlisted customer into slot " + match.slot().slotId()
+                    + " of lot " + entry.getLotId() + ": " + e.getMessage());
+            waitlistService.requeue(entry);
+        }
+    }
+
+    private LocalDateTime toLocal(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,5 @@
+package com.sliit.parking_reservation_and_management_system.service.waitlist;
+
+// A waiting customer paired with the freed slot they were given
+public record WaitlistMatch(WaitlistEntry entry, FreedSlot slot) {
+}
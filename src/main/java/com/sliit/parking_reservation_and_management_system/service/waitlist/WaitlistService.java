@@ -0,0 +1,385 @@
+package com.sliit.parking_reservation_and_management_system.service.waitlist;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Waitlist for full lots.
+ *
+ * Customers queue per lot and time window. Inside a window every combination of
+ * constraints (EV, accessible, vehicle size) has its own FIFO queue, so a freed
+ * slot only looks at the heads of the queues it can serve (at most 12 per window)
+ * instead of scanning everyone who is waiting. A slot freed for a time range is
+ * offered to every window that lies inside that range (windows are kept sorted by
+ * start, so only those starting within the range are looked at); the earliest
+ * arrival among the eligible heads wins, and what is left of the range before and
+ * after the winner's window is offered on to the next customers.
+ *
+ * Each lot has its own monitor; different lots never contend.
+ */
+@Service
+public class WaitlistService {
+
+    private static final int SIGNATURES = 4 * VehicleSize.values().length;
+
+    // For each slot signature: the entry signatures that slot can serve
+    private static final int[][] ELIGIBLE = buildEligibility();
+
+    private final Map<Long, LotWaitlist> lots = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Add a customer to the waitlist. A customer waits at most once per lot and window;
+     * joining again returns the existing entry and keeps the original place in line.
+     */
+    public WaitlistEntry join(String customerEmail, long lotId,
+                              LocalDateTime windowStart, LocalDateTime windowEnd,
+                              boolean needsEv, boolean needsAccessible, VehicleSize vehicleSize) {
+        if (customerEmail == null || customerEmail.isBlank()) {
+            throw new IllegalArgumentException("Customer email is required");
+        }
+        if (windowStart == null || windowEnd == null || !windowEnd.isAfter(windowStart)) {
+            throw new IllegalArgumentException("Invalid time window: " + windowStart + " - " + windowEnd);
+        }
+        if (vehicleSize == null) {
+            vehicleSize = VehicleSize.MEDIUM;
+        }
+
+        Window window = new Window(windowStart, windowEnd);
+        String customer = customerEmail.trim().toLowerCase();
+        while (true) {
+            LotWaitlist lot = lots.computeIfAbsent(lotId, k -> new LotWaitlist());
+            synchronized (lot) {
+                // lot was emptied and unlinked while we waited for the lock
+                if (lot.retired) {
+                    continue;
+                }
+                WindowQueue queue = lot.windows.computeIfAbsent(window, k -> new WindowQueue());
+                WaitlistEntry existing = queue.byCustomer.get(customer);
+                if (existing != null) {
+                    return existing;
+                }
+                WaitlistEntry entry = new WaitlistEntry(sequence.incrementAndGet(), customer, lotId,
+                        windowStart, windowEnd, needsEv, needsAccessible, vehicleSize);
+                queue.add(entry);
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Put a matched customer back in line after their booking fell through, with the
+     * original sequence so they keep their place. If they joined the window again in the
+     * meantime, the earlier of the two places counts.
+     */
+    public WaitlistEntry requeue(WaitlistEntry entry) {
+        Window window = new Window(entry.getWindowStart(), entry.getWindowEnd());
+        while (true) {
+            LotWaitlist lot = lots.computeIfAbsent(entry.getLotId(), k -> new LotWaitlist());
+            synchronized (lot) {
+                if (lot.retired) {
+                    continue;
+                }
+                WindowQueue queue = lot.windows.computeIfAbsent(window, k -> new WindowQueue());
+                WaitlistEntry existing = queue.byCustomer.get(entry.getCustomerEmail());
+                if (existing != null) {
+                    if (existing.getSequence() < entry.getSequence()) {
+                        return existing;
+                    }
+                    existing.deactivate();
+                    queue.byCustomer.remove(existing.getCustomerEmail());
+                    queue.waiting--;
+                }
+                WaitlistEntry restored = new WaitlistEntry(entry.getSequence(), entry.getCustomerEmail(),
+                        entry.getLotId(), entry.getWindowStart(), entry.getWindowEnd(), entry.isNeedsEv(),
+                        entry.isNeedsAccessible(), entry.getVehicleSize());
+                queue.insert(restored);
+                return restored;
+            }
+        }
+    }
+
+    // Remove a customer from a window's waitlist; returns false if they were not waiting
+    public boolean leave(String customerEmail, long lotId, LocalDateTime windowStart, LocalDateTime windowEnd) {
+        LotWaitlist lot = lots.get(lotId);
+        if (lot == null || customerEmail == null) {
+            return false;
+        }
+        synchronized (lot) {
+            Window window = new Window(windowStart, windowEnd);
+            WindowQueue queue = lot.windows.get(window);
+            WaitlistEntry entry = queue == null ? null : queue.byCustomer.remove(customerEmail.trim().toLowerCase());
+            if (entry == null) {
+                return false;
+            }
+            entry.deactivate();
+            queue.waiting--;
+            if (queue.waiting == 0) {
+                lot.windows.remove(window);
+            }
+            retireIfEmpty(lotId, lot);
+            return true;
+        }
+    }
+
+    // Single freed slot (e.g. one cancellation)
+    public List<WaitlistMatch> onSlotFreed(FreedSlot slot) {
+        return onSlotsFreed(List.of(slot));
+    }
+
+    /**
+     * Match a batch of freed slots against the waitlist. Each part of a slot's range goes
+     * to at most one customer: after a match, the time left before and after the winner's
+     * window is offered again, so one long cancellation can serve several shorter windows.
+     * Slots are grouped by lot so each lot is locked once per batch. Within a lot
+     * the least capable slots are handed out first, which keeps EV / accessible / large slots
+     * for the customers that actually need them. Ranges with nobody eligible waiting are
+     * simply not matched.
+     */
+    public List<WaitlistMatch> onSlotsFreed(List<FreedSlot> slots) {
+        Map<Long, List<FreedSlot>> byLot = new LinkedHashMap<>();
+        for (FreedSlot slot : slots) {
+            byLot.computeIfAbsent(slot.lotId(), k -> new ArrayList<>()).add(slot);
+        }
+
+        List<WaitlistMatch> matches = new ArrayList<>();
+        for (Map.Entry<Long, List<FreedSlot>> group : byLot.entrySet()) {
+            LotWaitlist lot = lots.get(group.getKey());
+            if (lot == null) {
+                continue;
+            }
+            List<FreedSlot> lotSlots = group.getValue();
+            lotSlots.sort(Comparator.comparingInt(WaitlistService::capability));
+            synchronized (lot) {
+                ArrayDeque<FreedSlot> ranges = new ArrayDeque<>();
+                for (FreedSlot slot : lotSlots) {
+                    ranges.push(slot);
+                    while (!ranges.isEmpty() && !lot.windows.isEmpty()) {
+                        FreedSlot range = ranges.pop();
+                        WaitlistEntry winner = lot.pollFor(range);
+                        if (winner == null) {
+                            continue;
+                        }
+                        matches.add(new WaitlistMatch(winner, range));
+                        if (winner.getWindowEnd().isBefore(range.windowEnd())) {
+                            ranges.push(range.part(winner.getWindowEnd(), range.windowEnd()));
+                        }
+                        if (range.windowStart().isBefore(winner.getWindowStart())) {
+                            ranges.push(range.part(range.windowStart(), winner.getWindowStart()));
+                        }
+                    }
+                    ranges.clear();
+                }
+                retireIfEmpty(group.getKey(), lot);
+            }
+        }
+        return matches;
+    }
+
+    public int waitingCount(long lotId, LocalDateTime windowStart, LocalDateTime windowEnd) {
+        LotWaitlist lot = lots.get(lotId);
+        if (lot == null) {
+            return 0;
+        }
+        synchronized (lot) {
+            WindowQueue queue = lot.windows.get(new Window(windowStart, windowEnd));
+            return queue == null ? 0 : queue.waiting;
+        }
+    }
+
+    // Active entries for a customer across all lots, oldest first
+    public List<WaitlistEntry> entriesFor(String customerEmail) {
+        String customer = customerEmail.trim().toLowerCase();
+        List<WaitlistEntry> result = new ArrayList<>();
+        for (LotWaitlist lot : lots.values()) {
+            synchronized (lot) {
+                for (WindowQueue queue : lot.windows.values()) {
+                    WaitlistEntry entry = queue.byCustomer.get(customer);
+                    if (entry != null) {
+                        result.add(entry);
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingLong(WaitlistEntry::getSequence));
+        return result;
+    }
+
+    // Drop windows that have already ended
+    @Scheduled(fixedDelayString = "${app.waitlist.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        purgeEndedBefore(LocalDateTime.now());
+    }
+
+    int purgeEndedBefore(LocalDateTime now) {
+        int purged = 0;
+        for (Map.Entry<Long, LotWaitlist> e : lots.entrySet()) {
+            LotWaitlist lot = e.getValue();
+            synchronized (lot) {
+                Iterator<Map.Entry<Window, WindowQueue>> windows = lot.windows.entrySet().iterator();
+                while (windows.hasNext()) {
+                    Map.Entry<Window, WindowQueue> window = windows.next();
+                    if (!window.getKey().end().isAfter(now)) {
+                        purged += window.getValue().waiting;
+                        windows.remove();
+                    }
+                }
+                retireIfEmpty(e.getKey(), lot);
+            }
+        }
+        return purged;
+    }
+
+    // Caller holds the lot's monitor
+    private void retireIfEmpty(long lotId, LotWaitlist lot) {
+        if (lot.windows.isEmpty()) {
+            lot.retired = true;
+            lots.remove(lotId, lot);
+        }
+    }
+
+    private static int capability(FreedSlot slot) {
+        return (slot.ev() ? 1 : 0) + (slot.accessible() ? 1 : 0) + slot.maxVehicleSize().ordinal();
+    }
+
+    private static int[][] buildEligibility() {
+        int[][] eligible = new int[SIGNATURES][];
+        for (VehicleSize slotSize : VehicleSize.values()) {
+            for (int features = 0; features < 4; features++) {
+                boolean slotEv = (features & 1) != 0;
+                boolean slotAccessible = (features & 2) != 0;
+                List<Integer> fits = new ArrayList<>();
+                for (VehicleSize size : VehicleSize.values()) {
+                    if (size.compareTo(slotSize) > 0) {
+                        continue;
+                    }
+                    for (int needs = 0; needs < 4; needs++) {
+                        boolean ev = (needs & 1) != 0;
+                        boolean accessible = (needs & 2) != 0;
+                        if ((!ev || slotEv) && (!accessible || slotAccessible)) {
+                            fits.add(WaitlistEntry.signature(ev, accessible, size));
+                        }
+                    }
+                }
+                eligible[WaitlistEntry.signature(slotEv, slotAccessible, slotSize)] =
+                        fits.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+        return eligible;
+    }
+
+    private record Window(LocalDateTime start, LocalDateTime end) implements Comparable<Window> {
+        @Override
+        public int compareTo(Window other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : end.compareTo(other.end);
+        }
+    }
+
+    // All windows of one lot, ordered by start; guarded by its own monitor
+    private static final class LotWaitlist {
+
+        private final TreeMap<Window, WindowQueue> windows = new TreeMap<>();
+        private boolean retired;
+
+        // Earliest active arrival, over every window inside the slot's range, that fits the slot
+        WaitlistEntry pollFor(FreedSlot slot) {
+            Window bestWindow = null;
+            ArrayDeque<WaitlistEntry> best = null;
+            for (Map.Entry<Window, WindowQueue> e : windows.subMap(new Window(slot.windowStart(), LocalDateTime.MIN), true,
+                    new Window(slot.windowEnd(), LocalDateTime.MIN), false).entrySet()) {
+                if (e.getKey().end().isAfter(slot.windowEnd())) {
+                    continue;
+                }
+                ArrayDeque<WaitlistEntry> head = e.getValue().headFor(slot);
+                if (head != null && (best == null || head.peekFirst().getSequence() < best.peekFirst().getSequence())) {
+                    best = head;
+                    bestWindow = e.getKey();
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            WindowQueue queue = windows.get(bestWindow);
+            WaitlistEntry winner = best.pollFirst();
+            winner.deactivate();
+            queue.byCustomer.remove(winner.getCustomerEmail());
+            if (--queue.waiting == 0) {
+                windows.remove(bestWindow);
+            }
+            return winner;
+        }
+    }
+
+    // All customers waiting for one lot and window
+    private static final class WindowQueue {
+
+        @SuppressWarnings("unchecked")
+        private final ArrayDeque<WaitlistEntry>[] bySignature = new ArrayDeque[SIGNATURES];
+        private final Map<String, WaitlistEntry> byCustomer = new HashMap<>();
+        private int waiting;
+
+        void add(WaitlistEntry entry) {
+            int signature = entry.signature();
+            if (bySignature[signature] == null) {
+                bySignature[signature] = new ArrayDeque<>();
+            }
+            bySignature[signature].addLast(entry);
+            byCustomer.put(entry.getCustomerEmail(), entry);
+            waiting++;
+        }
+
+        // Like add(), for an entry that may have arrived before others in its queue (requeue)
+        void insert(WaitlistEntry entry) {
+            int signature = entry.signature();
+            if (bySignature[signature] == null) {
+                bySignature[signature] = new ArrayDeque<>();
+            }
+            ArrayDeque<WaitlistEntry> deque = bySignature[signature];
+            ArrayDeque<WaitlistEntry> earlier = new ArrayDeque<>();
+            while (!deque.isEmpty() && deque.peekFirst().getSequence() < entry.getSequence()) {
+                earlier.push(deque.pollFirst());
+            }
+            deque.addFirst(entry);
+            while (!earlier.isEmpty()) {
+                deque.addFirst(earlier.pop());
+            }
+            byCustomer.put(entry.getCustomerEmail(), entry);
+            waiting++;
+        }
+
+        // The queue whose head is the earliest active arrival that fits the slot, or null
+        ArrayDeque<WaitlistEntry> headFor(FreedSlot slot) {
+            ArrayDeque<WaitlistEntry> best = null;
+            int slotSignature = WaitlistEntry.signature(slot.ev(), slot.accessible(), slot.maxVehicleSize());
+            for (int signature : ELIGIBLE[slotSignature]) {
+                ArrayDeque<WaitlistEntry> deque = bySignature[signature];
+                if (deque == null) {
+                    continue;
+                }
+                // entries that left the list are dropped here rather than searched for on leave()
+                while (!deque.isEmpty() && !deque.peekFirst().isActive()) {
+                    deque.pollFirst();
+                }
+                if (!deque.isEmpty()
+                        && (best == null || deque.peekFirst().getSequence() < best.peekFirst().getSequence())) {
+                    best = deque;
+                }
+            }
+            return best;
+        }
+    }
+}
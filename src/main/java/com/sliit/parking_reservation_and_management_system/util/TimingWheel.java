@@ -0,0 +1,104 @@
+package com.sliit.parking_reservation_and_management_system.util;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Timing wheel: a ring of buckets, one per tick, covering the next wheelSize ticks. An item
+ * due within that span goes straight into the bucket of its tick (O(1)), and each tick only
+ * empties its own bucket. Items due further out wait in an overflow heap ordered by tick and
+ * drop into the wheel as it turns within range of them, so a far-future item costs one heap
+ * insert and removal instead of being revisited on every turn.
+ *
+ * Time is passed in (epoch millis) so callers and tests control the clock.
+ * Not thread-safe: the owner serialises access.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final Node<T>[] buckets;
+    private final PriorityQueue<Node<T>> overflow = new PriorityQueue<>(Comparator.comparingLong(n -> n.tick));
+    private long nextTick;      // the first tick not yet processed
+    private int inWheel;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (tickMillis < 1 || wheelSize < 1) {
+            throw new IllegalArgumentException("Timing wheel needs a tick of at least 1 ms and at least one bucket");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = (Node<T>[]) new Node[wheelSize];
+        this.nextTick = nowMillis / tickMillis;
+    }
+
+    // Items already due fire at the next tick
+    public void schedule(T item, long dueMillis) {
+        place(new Node<>(item, Math.max(nextTick, dueMillis / tickMillis)));
+    }
+
+    /**
+     * Process every tick up to nowMillis and hand the items that came due to expired, oldest
+     * tick first. Items scheduled from inside expired land in a later tick. Returns how many fired.
+     */
+    public int advance(long nowMillis, Consumer<T> expired) {
+        long lastTick = nowMillis / tickMillis;
+        int fired = 0;
+        while (nextTick <= lastTick) {
+            if (inWheel == 0) {
+                // nothing in the wheel: skip ahead to the earliest overflow item (or to now)
+                long skipTo = overflow.isEmpty() ? lastTick + 1 : Math.min(lastTick + 1, overflow.peek().tick);
+                nextTick = Math.max(nextTick, skipTo);
+                pullFromOverflow();
+                if (inWheel == 0) {
+                    break;
+                }
+                continue;
+            }
+            int bucket = (int) (nextTick++ % buckets.length);
+            Node<T> node = buckets[bucket];
+            buckets[bucket] = null;
+            while (node != null) {
+                inWheel--;
+                fired++;
+                expired.accept(node.item);
+                node = node.next;
+            }
+            pullFromOverflow();
+        }
+        return fired;
+    }
+
+    public int size() {
+        return inWheel + overflow.size();
+    }
+
+    private void place(Node<T> node) {
+        if (node.tick - nextTick >= buckets.length) {
+            overflow.add(node);
+            return;
+        }
+        int bucket = (int) (node.tick % buckets.length);
+        node.next = buckets[bucket];
+        buckets[bucket] = node;
+        inWheel++;
+    }
+
+    // Move items that are now within one turn of the wheel into their buckets
+    private void pullFromOverflow() {
+        while (!overflow.isEmpty() && overflow.peek().tick - nextTick < buckets.length) {
+            place(overflow.poll());
+        }
+    }
+
+    private static final class Node<T> {
+        private final T item;
+        private final long tick;
+        private Node<T> next;
+
+        Node(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+    }
+}
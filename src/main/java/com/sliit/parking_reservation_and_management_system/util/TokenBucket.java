@@ -0,0 +1,58 @@
+package com.sliit.parking_reservation_and_management_system.util;
+
+/**
+ * Classic token bucket: holds up to capacity tokens and refills continuously.
+ * Time is passed in (System.nanoTime() values) so callers and tests control the clock.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = nowNanos;
+    }
+
+    // Take one token if available
+    public synchronized boolean tryConsume(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    // Give back a token taken by tryConsume (e.g. the request was rejected further on)
+    public synchronized void refund(long nowNanos) {
+        refill(nowNanos);
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    public synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    // How long until the next token is available (0 if one is available now)
+    public synchronized long nanosUntilAvailable(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            return 0;
+        }
+        return refillPerNano <= 0 ? Long.MAX_VALUE : (long) Math.ceil((1 - tokens) / refillPerNano);
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefill = nowNanos;
+        }
+    }
+}
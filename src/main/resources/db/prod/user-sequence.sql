@@ -0,0 +1,34 @@
+-- One-off migration for the prod profile (SQL Server).
+--
+-- [User].UserID moves from an IDENTITY column to ids handed out by the sequence user_seq,
+-- 50 at a time (allocation-size in META-INF/orm-prod.xml), so Hibernate can batch inserts.
+-- SQL Server cannot drop the IDENTITY property in place, so the table is copied: casting the
+-- id in SELECT ... INTO leaves the property behind while every other column keeps its type.
+-- Run once, with the application stopped.
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+DECLARE @next BIGINT = (SELECT ISNULL(MAX(UserID), 0) + 1 FROM dbo.[User] WITH (TABLOCKX, HOLDLOCK));
+
+-- Hibernate treats each value as the top of a block of 50, so start one block above the
+-- current maximum
+DECLARE @sql NVARCHAR(400) = N'CREATE SEQUENCE dbo.user_seq AS BIGINT START WITH '
+    + CAST(@next + 49 AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+SELECT CAST(UserID AS BIGINT) AS UserID, Role, Email, PasswordHash, FirstName, LastName,
+       PhoneNumber, created_at, updated_at, Status
+INTO dbo.User_migrating
+FROM dbo.[User];
+
+ALTER TABLE dbo.User_migrating ALTER COLUMN UserID BIGINT NOT NULL;
+ALTER TABLE dbo.User_migrating ADD CONSTRAINT PK_User_seq PRIMARY KEY (UserID);
+ALTER TABLE dbo.User_migrating ADD CONSTRAINT UQ_User_Email UNIQUE (Email);
+-- rows inserted outside the application still get an id
+ALTER TABLE dbo.User_migrating ADD CONSTRAINT DF_User_UserID DEFAULT (NEXT VALUE FOR dbo.user_seq) FOR UserID;
+
+DROP TABLE dbo.[User];
+EXEC sp_rename 'dbo.User_migrating', 'User';
+
+COMMIT TRANSACTION;
@@ -0,0 +1,10 @@
+-- One-off migration (SQL Server): optimistic lock column for [User] (User.version).
+--
+-- Hibernate adds "AND Version = ?" to every update and bumps the value, so a write based on a
+-- stale copy of the row, such as one served by another node's second-level cache, updates
+-- nothing and fails instead of overwriting a newer write. Existing rows start at 0.
+-- On the prod profile run it after db/prod/user-sequence.sql, which copies the table column by
+-- column. Run once, with the application stopped.
+
+IF COL_LENGTH('dbo.[User]', 'Version') IS NULL
+    ALTER TABLE dbo.[User] ADD Version BIGINT NOT NULL CONSTRAINT DF_User_Version DEFAULT 0;
@@ -0,0 +1,46 @@
+package com.sliit.parking_reservation_and_management_system;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples (nanoseconds) for the benchmarks and prints percentiles.
+ * Not thread-safe: use one instance per thread and merge.
+ */
+public class LatencyStats {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public void merge(LatencyStats other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.samples[i]);
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    // Percentile in milliseconds, p between 0 and 100
+    public double percentileMs(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+    }
+
+    public String summary(String name) {
+        return String.format("%-28s n=%-8d p50=%8.3f ms  p90=%8.3f ms  p99=%8.3f ms  max=%8.3f ms",
+                name, count, percentileMs(50), percentileMs(90), percentileMs(99), percentileMs(100));
+    }
+}
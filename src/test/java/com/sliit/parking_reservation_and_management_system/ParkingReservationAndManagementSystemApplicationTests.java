@@ -2,8 +2,10 @@ package com.sliit.parking_reservation_and_management_system;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
+@ActiveProfiles("test")
 class ParkingReservationAndManagementSystemApplicationTests {
 
     @Test
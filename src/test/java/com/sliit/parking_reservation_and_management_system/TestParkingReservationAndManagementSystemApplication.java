@@ -0,0 +1,18 @@
+package com.sliit.parking_reservation_and_management_system;
+
+import org.springframework.boot.SpringApplication;
+
+/**
+ * Starts the application with the test profile: embedded H2 instead of SQL Server, and the
+ * synthetic users, slots and reservations of SyntheticDataGenerator. For local load runs:
+ *   mvn spring-boot:test-run
+ * then point loadtest.LoadDriver at http://localhost:8080.
+ */
+public class TestParkingReservationAndManagementSystemApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.from(ParkingReservationAndManagementSystemApplication::main)
+                .withAdditionalProfiles("test")
+                .run(args);
+    }
+}
@@ -0,0 +1,125 @@
+package com.sliit.parking_reservation_and_management_system.config.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two embedded H2 databases stand in for the primary and the replica; each knows its own name
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final ReadYourWritesGuard guard = new ReadYourWritesGuard(5_000, 1_000, now::get);
+    private final JdbcDataSource replicaDb = database("replica");
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(database("primary"), List.of(replicaDb), guard, 1);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactions = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactions);
+        readOnly = new TransactionTemplate(transactions);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        // the lazy proxy takes one primary connection up front to read the driver defaults
+        node();
+        long writesBefore = (Long) routing.metrics().get("primaryWrites");
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primary", readWrite.execute(status -> node()));
+        // no transaction at all: primary
+        assertEquals("primary", node());
+
+        Map<String, Object> metrics = routing.metrics();
+        assertEquals(1L, metrics.get("replicaReads"));
+        assertEquals(writesBefore + 2, (Long) metrics.get("primaryWrites"));
+    }
+
+    @Test
+    void readOnlyReadInsideAReadWriteTransactionStaysOnThePrimary() {
+        // e.g. Spring Data's findById called from a @Transactional read-modify-write service method
+        assertEquals("primary", readWrite.execute(outer -> readOnly.execute(inner -> node())));
+        assertEquals("primary", guard.onPrimary(() -> readOnly.execute(status -> node())));
+    }
+
+    @Test
+    void sessionReadsItsOwnWritesUntilTheWindowPasses() {
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        first.getSession(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(first));
+        readWrite.executeWithoutResult(status -> jdbc.update("UPDATE node SET hits = hits + 1"));
+        guard.recordWrite("new.user@mail.com");
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        // next request of the same session
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        second.setSession(first.getSession());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(second));
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        // some other session is not affected, except for the written key
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primary", guard.readFor("New.User@mail.com", () -> readOnly.execute(status -> node())));
+
+        now.addAndGet(5_001);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(second));
+        assertEquals("replica", readOnly.execute(status -> node()));
+        guard.evictExpired();
+        assertEquals(0, guard.pinCount());
+        assertEquals(3L, routing.metrics().get("primaryReadsPinned"));
+    }
+
+    @Test
+    void unhealthyReplicaFallsBackToPrimaryAndRecovers() {
+        replicaDb.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        routing.checkReplicas();
+        assertEquals("primary", readOnly.execute(status -> node()));
+        assertEquals(1L, routing.metrics().get("primaryReadsFallback"));
+
+        replicaDb.setURL("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+        routing.checkReplicas();
+        assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    private String node() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20), hits INT)");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
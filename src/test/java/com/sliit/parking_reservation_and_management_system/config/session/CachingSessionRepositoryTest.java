@@ -0,0 +1,282 @@
+package com.sliit.parking_reservation_and_management_system.config.session;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.session.Session;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CachingSessionRepositoryTest {
+
+    // starts at the real time: JdbcIndexedSessionRepository checks expiry against the system clock
+    private final MutableClock clock = new MutableClock(Instant.now());
+
+    private JdbcTemplate jdbc;
+    private JdbcIndexedSessionRepository jdbcRepository;
+    private CachingSessionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sessions-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("org/springframework/session/jdbc/schema-h2.sql"))
+                .execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        TransactionTemplate transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcRepository = new JdbcIndexedSessionRepository(jdbc, transactions);
+        repository = repository(100);
+    }
+
+    @Test
+    void newSessionIsWrittenOnFlushAndReadableThroughJdbc() {
+        CachingSessionRepository.CachedSession session = repository.createSession();
+        session.setAttribute("cart", new ArrayList<>(List.of("slot-7")));
+        repository.save(session);
+
+        assertEquals(0, rows());
+        repository.flush();
+        assertEquals(1, rows());
+
+        assertEquals(List.of("slot-7"), stored(session.getId()).getAttribute("cart"));
+    }
+
+    @Test
+    void unchangedRequestsWriteNothingUntilTheTouchInterval() {
+        String id = savedAndFlushed("lang", "en");
+        long rowWrites = repository.metrics().get("rowWrites");
+
+        for (int i = 0; i < 5; i++) {
+            clock.advance(Duration.ofSeconds(10));
+            CachingSessionRepository.CachedSession session = repository.findById(id);
+            session.setLastAccessedTime(clock.instant());
+            repository.save(session);
+            repository.flush();
+        }
+        assertEquals(rowWrites, repository.metrics().get("rowWrites"));
+        assertEquals(5L, repository.metrics().get("skippedWrites"));
+
+        // past the touch interval the stored expiry is pushed forward
+        clock.advance(Duration.ofSeconds(15));
+        CachingSessionRepository.CachedSession session = repository.findById(id);
+        session.setLastAccessedTime(clock.instant());
+        repository.save(session);
+        repository.flush();
+        assertEquals(clock.instant().toEpochMilli(),
+                jdbc.queryForObject("SELECT LAST_ACCESS_TIME FROM SPRING_SESSION", Long.class));
+    }
+
+    @Test
+    void changedAttributesAreUpdatedAndRemoved() {
+        String id = savedAndFlushed("lang", "en");
+
+        CachingSessionRepository.CachedSession session = repository.findById(id);
+        session.setAttribute("lang", "si");
+        session.setAttribute("theme", "dark");
+        repository.save(session);
+        repository.flush();
+        assertEquals("si", stored(id).getAttribute("lang"));
+        assertEquals("dark", stored(id).getAttribute("theme"));
+
+        session = repository.findById(id);
+        session.removeAttribute("theme");
+        repository.save(session);
+        repository.flush();
+        assertNull(stored(id).getAttribute("theme"));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION_ATTRIBUTES", Integer.class));
+    }
+
+    @Test
+    void changeSessionIdIsWrittenImmediately() {
+        String id = savedAndFlushed("lang", "en");
+
+        CachingSessionRepository.CachedSession session = repository.findById(id);
+        String newId = session.changeSessionId();
+        session.setAttribute("user", "admin@parking.lk");
+        repository.save(session);
+
+        assertNull(stored(id));
+        assertEquals("en", stored(newId).getAttribute("lang"));
+        assertNull(repository.findById(id));
+        repository.flush();
+        assertEquals("admin@parking.lk", stored(newId).getAttribute("user"));
+    }
+
+    @Test
+    void deleteRemovesRowAndDropsPendingWrites() {
+        String id = savedAndFlushed("lang", "en");
+        CachingSessionRepository.CachedSession session = repository.findById(id);
+        session.setAttribute("lang", "ta");
+        repository.save(session);
+
+        repository.deleteById(id);
+        repository.flush();
+
+        assertEquals(0, rows());
+        assertNull(repository.findById(id));
+    }
+
+    @Test
+    void evictedSessionsAreReloadedFromTheDatabase() {
+        repository = repository(2);
+        String first = savedAndFlushed("n", 1);
+        savedAndFlushed("n", 2);
+        savedAndFlushed("n", 3);
+
+        CachingSessionRepository.CachedSession session = repository.findById(first);
+        assertNotNull(session);
+        assertEquals(1, (int) session.getAttribute("n"));
+        assertEquals(1L, repository.metrics().get("misses"));
+    }
+
+    @Test
+    void pendingWritesSurviveEviction() {
+        repository = repository(1);
+        CachingSessionRepository.CachedSession a = repository.createSession();
+        a.setAttribute("n", 1);
+        repository.save(a);
+        CachingSessionRepository.CachedSession b = repository.createSession();
+        b.setAttribute("n", 2);
+        repository.save(b);
+
+        assertEquals(1, (int) repository.findById(a.getId()).getAttribute("n"));
+        repository.flush();
+        assertEquals(2, rows());
+    }
+
+    @Test
+    void expiredSessionsAreSweptFromMemory() {
+        String id = savedAndFlushed("lang", "en");
+        clock.advance(Duration.ofMinutes(31));
+        repository.sweepExpired();
+        assertEquals(0L, repository.metrics().get("cached"));
+        assertNull(repository.findById(id));
+    }
+
+    @Test
+    void unserializableAttributeDropsOnlyItsOwnSession() {
+        CachingSessionRepository.CachedSession good = repository.createSession();
+        good.setAttribute("lang", "en");
+        repository.save(good);
+        CachingSessionRepository.CachedSession bad = repository.createSession();
+        bad.setAttribute("handle", new Object());
+        repository.save(bad);
+
+        repository.flush();
+        assertEquals(1, rows());
+        assertEquals("en", stored(good.getId()).getAttribute("lang"));
+        assertNull(repository.findById(bad.getId()));
+        assertEquals(1L, repository.metrics().get("droppedSessions"));
+        assertEquals(0L, repository.metrics().get("pending"));
+    }
+
+    @Test
+    void sessionTheTableRejectsDoesNotHoldUpTheOthers() {
+        CachingSessionRepository.CachedSession good = repository.createSession();
+        good.setAttribute("lang", "en");
+        repository.save(good);
+        CachingSessionRepository.CachedSession bad = repository.createSession();
+        // longer than ATTRIBUTE_NAME allows
+        bad.setAttribute("x".repeat(300), "value");
+        repository.save(bad);
+
+        repository.flush();
+        assertEquals("en", stored(good.getId()).getAttribute("lang"));
+        assertNull(stored(bad.getId()));
+        assertNull(repository.findById(bad.getId()));
+        assertEquals(0L, repository.metrics().get("pending"));
+
+        // later changes to the good session still reach the table
+        CachingSessionRepository.CachedSession session = repository.findById(good.getId());
+        session.setAttribute("lang", "si");
+        repository.save(session);
+        repository.flush();
+        assertEquals("si", stored(good.getId()).getAttribute("lang"));
+    }
+
+    @Test
+    void failedFlushOfEverySessionIsRetried() {
+        String id = savedAndFlushed("lang", "en");
+        jdbc.execute("ALTER TABLE SPRING_SESSION_ATTRIBUTES RENAME TO SPRING_SESSION_ATTRIBUTES_OFFLINE");
+        CachingSessionRepository.CachedSession session = repository.findById(id);
+        session.setAttribute("lang", "si");
+        repository.save(session);
+        CachingSessionRepository.CachedSession other = repository.createSession();
+        other.setAttribute("lang", "ta");
+        repository.save(other);
+
+        repository.flush();
+        assertEquals(2L, repository.metrics().get("pending"));
+        assertEquals(0L, repository.metrics().get("droppedSessions"));
+
+        jdbc.execute("ALTER TABLE SPRING_SESSION_ATTRIBUTES_OFFLINE RENAME TO SPRING_SESSION_ATTRIBUTES");
+        repository.flush();
+        assertEquals("si", stored(id).getAttribute("lang"));
+        assertEquals("ta", stored(other.getId()).getAttribute("lang"));
+    }
+
+    private String savedAndFlushed(String name, Object value) {
+        CachingSessionRepository.CachedSession session = repository.createSession();
+        session.setAttribute(name, value);
+        repository.save(session);
+        repository.flush();
+        return session.getId();
+    }
+
+    // what another node would load from the tables
+    private Session stored(String id) {
+        return jdbcRepository.findById(id);
+    }
+
+    private int rows() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION", Integer.class);
+    }
+
+    private CachingSessionRepository repository(int maxEntries) {
+        return new CachingSessionRepository(jdbcRepository, jdbc,
+                new TransactionTemplate(new DataSourceTransactionManager(jdbc.getDataSource())),
+                "SPRING_SESSION", Duration.ofMinutes(30), Duration.ofSeconds(60), maxEntries, clock);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
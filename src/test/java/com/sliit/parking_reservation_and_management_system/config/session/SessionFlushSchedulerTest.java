@@ -0,0 +1,23 @@
+package com.sliit.parking_reservation_and_management_system.config.session;
+
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.*;
+
+class SessionFlushSchedulerTest {
+
+    @Test
+    void flushKeepsRunningAfterAFailure() throws InterruptedException {
+        CachingSessionRepository repository = mock(CachingSessionRepository.class);
+        doThrow(new IllegalStateException("database down")).doNothing().when(repository).flush();
+        SessionFlushScheduler scheduler = new SessionFlushScheduler(repository, 10, 60_000);
+
+        scheduler.start();
+        try {
+            verify(repository, timeout(2_000).atLeast(3)).flush();
+        } finally {
+            scheduler.stop();
+        }
+        verify(repository, never()).sweepExpired();
+    }
+}
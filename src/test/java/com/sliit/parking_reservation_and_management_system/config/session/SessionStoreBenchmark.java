@@ -0,0 +1,130 @@
+package com.sliit.parking_reservation_and_management_system.config.session;
+
+import com.sliit.parking_reservation_and_management_system.LatencyStats;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Database round trips per request for spring-session-jdbc alone and with CachingSessionRepository
+ * in front. Each simulated request loads the session, touches it and saves it; one in ten also
+ * changes an attribute. The caching run flushes every 250 requests (about the 500 ms default
+ * flush interval at 500 requests/s).
+ * Not part of the normal build; run with: mvn test -Dtest=SessionStoreBenchmark
+ */
+class SessionStoreBenchmark {
+
+    private static final int SESSIONS = 2_000;
+    private static final int REQUESTS = 50_000;
+    private static final int FLUSH_EVERY = 250;
+
+    @Test
+    void statementsPerRequest() {
+        System.out.println(run(false));
+        System.out.println(run(true));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private String run(boolean caching) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:bench-" + caching + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("org/springframework/session/jdbc/schema-h2.sql"))
+                .execute(h2);
+        CountingDataSource dataSource = new CountingDataSource(h2);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        TransactionTemplate transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        JdbcIndexedSessionRepository jdbcRepository = new JdbcIndexedSessionRepository(jdbc, transactions);
+        CachingSessionRepository cachingRepository = new CachingSessionRepository(jdbcRepository, jdbc, transactions,
+                "SPRING_SESSION", Duration.ofMinutes(30), Duration.ofSeconds(60), 20_000, Clock.systemUTC());
+        SessionRepository repository = caching ? cachingRepository : jdbcRepository;
+
+        List<String> ids = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            Session session = repository.createSession();
+            session.setAttribute("SPRING_SECURITY_CONTEXT_USER", "user" + i + "@mail.com");
+            repository.save(session);
+            ids.add(session.getId());
+        }
+        if (caching) {
+            cachingRepository.flush();
+        }
+
+        dataSource.roundTrips.set(0);
+        Random random = new Random(3);
+        LatencyStats latency = new LatencyStats();
+        for (int i = 0; i < REQUESTS; i++) {
+            long t = System.nanoTime();
+            Session session = repository.findById(ids.get(random.nextInt(SESSIONS)));
+            session.setLastAccessedTime(Instant.now());
+            if (i % 10 == 0) {
+                session.setAttribute("recentSearch", "lot " + random.nextInt(40));
+            }
+            repository.save(session);
+            latency.record(System.nanoTime() - t);
+            if (caching && i % FLUSH_EVERY == FLUSH_EVERY - 1) {
+                cachingRepository.flush();
+            }
+        }
+        if (caching) {
+            cachingRepository.flush();
+        }
+        String name = caching ? "caching" : "jdbc only";
+        return String.format("%-9s %.3f round trips/request (%d total)%s%n%s", name,
+                dataSource.roundTrips.get() / (double) REQUESTS, dataSource.roundTrips.get(),
+                caching ? "  " + cachingRepository.metrics() : "",
+                latency.summary("  " + name + " request"));
+    }
+
+    // Counts statement executions (one per executeBatch, however many rows it carries)
+    private static final class CountingDataSource extends DelegatingDataSource {
+        private final AtomicLong roundTrips = new AtomicLong();
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws java.sql.SQLException {
+            return wrap(super.getConnection(), Connection.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T wrap(T target, Class<T> type) {
+            return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && target instanceof Statement) {
+                    roundTrips.incrementAndGet();
+                }
+                try {
+                    Object result = method.invoke(target, args);
+                    if (result instanceof java.sql.PreparedStatement statement) {
+                        return wrap(statement, java.sql.PreparedStatement.class);
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.sliit.parking_reservation_and_management_system.loadtest;
+
+import com.sliit.parking_reservation_and_management_system.LatencyStats;
+import com.sliit.parking_reservation_and_management_system.controller.AdminController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Scripted HTTP load against a running instance of the application seeded by
+ * SyntheticDataGenerator. Each virtual user is a thread with its own HttpClient and cookie
+ * jar (its own session); redirects are not followed, so every request is timed on its own.
+ *
+ * Flows, run one after the other with all virtual users at once:
+ *   login               POST /login as an active customer, expecting the customer dashboard
+ *   customer-dashboard  GET /customer/dashboard in that session
+ *   registration        POST /register with a new email, expecting /?success
+ *   admin-search        GET /admin/api/users with random filters, logged in as admin
+ *   admin-dashboard     GET /admin/dashboard on a random page
+ *
+ * Results go to load-report.csv and load-report.txt in the output directory. Neither holds a
+ * timestamp, so reports from two releases can be diffed directly.
+ *
+ * Against a server started with mvn spring-boot:test-run (see
+ * TestParkingReservationAndManagementSystemApplication):
+ *   java -cp target/test-classes:target/classes ...loadtest.LoadDriver http://localhost:8080 [users] [virtual users] [requests per flow]
+ */
+public class LoadDriver {
+
+    public static final List<String> FLOWS = List.of(
+            "login", "customer-dashboard", "registration", "admin-search", "admin-dashboard");
+
+    /**
+     * @param users             app.test-data.users of the server, to know which accounts exist
+     * @param requestsPerFlow   spread evenly over the virtual users
+     */
+    public record Settings(String baseUrl, int users, int virtualUsers, int requestsPerFlow, String password) {
+    }
+
+    public record FlowResult(String flow, int requests, int errors, double seconds, LatencyStats latency) {
+        public double throughput() {
+            return seconds == 0 ? 0 : requests / seconds;
+        }
+    }
+
+    private final Settings settings;
+    private final List<String> customers;
+    // registration emails stay unique across runs, and across drivers against the same server
+    private final String runToken = Long.toString(System.nanoTime(), 36);
+    private final AtomicLong registrations = new AtomicLong();
+
+    public LoadDriver(Settings settings) {
+        if (settings.virtualUsers() < 1 || settings.requestsPerFlow() < settings.virtualUsers()) {
+            throw new IllegalArgumentException("Need at least one virtual user and one request per virtual user");
+        }
+        this.settings = settings;
+        this.customers = SyntheticDataGenerator.activeCustomers(settings.users());
+    }
+
+    public List<FlowResult> run() {
+        List<FlowResult> results = new ArrayList<>();
+        for (String flow : FLOWS) {
+            results.add(runFlow(flow));
+        }
+        return results;
+    }
+
+    // ==========================
+    // Flows
+    // ==========================
+
+    private FlowResult runFlow(String flow) {
+        int vus = settings.virtualUsers();
+        ExecutorService pool = Executors.newFixedThreadPool(vus);
+        try {
+            List<VirtualUser> users = new ArrayList<>(vus);
+            for (int i = 0; i < vus; i++) {
+                users.add(new VirtualUser(i));
+            }
+            // sessions are set up before the clock starts, except for the login flow itself
+            if (!flow.equals("login") && !flow.equals("registration")) {
+                boolean admin = flow.startsWith("admin");
+                await(pool, users.stream().map(user -> (Runnable) () -> user.logIn(admin)).toList());
+            }
+            long began = System.nanoTime();
+            await(pool, users.stream().map(user -> (Runnable) () -> {
+                int share = settings.requestsPerFlow() / vus + (user.index < settings.requestsPerFlow() % vus ? 1 : 0);
+                for (int n = 0; n < share; n++) {
+                    user.step(flow, n);
+                }
+            }).toList());
+            double seconds = (System.nanoTime() - began) / 1e9;
+
+            LatencyStats latency = new LatencyStats();
+            int errors = 0;
+            for (VirtualUser user : users) {
+                latency.merge(user.latency);
+                errors += user.errors;
+            }
+            return new FlowResult(flow, latency.count(), errors, seconds, latency);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(ExecutorService pool, List<Runnable> tasks) {
+        List<Future<?>> futures = new ArrayList<>();
+        tasks.forEach(task -> futures.add(pool.submit(task)));
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("Virtual user failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private final class VirtualUser {
+        private final int index;
+        private final HttpClient client;
+        private final HttpClient visitor;
+        private final LatencyStats latency = new LatencyStats();
+        private int errors;
+
+        VirtualUser(int index) {
+            this.index = index;
+            this.client = newClient(true);
+            this.visitor = newClient(false);
+        }
+
+        void logIn(boolean admin) {
+            String email = admin ? SyntheticDataGenerator.emailOf(AdminController.ROLE_OPTIONS.indexOf("ADMIN"))
+                    : customers.get(index % customers.size());
+            HttpResponse<String> response = send(client, post("/login", Map.of("username", email,
+                    "password", settings.password())));
+            if (!redirectsTo(response, admin ? "/admin/dashboard" : "/customer/dashboard")) {
+                throw new IllegalStateException("Login as " + email + " failed: " + response.statusCode() + " "
+                        + response.headers().firstValue("Location").orElse(""));
+            }
+        }
+
+        void step(String flow, int n) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            switch (flow) {
+                case "login" -> {
+                    // no cookie jar: a fresh session each time, as a new visitor would have
+                    String email = customers.get((index + n * settings.virtualUsers()) % customers.size());
+                    timed(visitor, post("/login", Map.of("username", email, "password", settings.password())),
+                            response -> redirectsTo(response, "/customer/dashboard"));
+                }
+                case "customer-dashboard" -> timed(client, get("/customer/dashboard"),
+                        response -> response.statusCode() == 200);
+                case "registration" -> {
+                    Map<String, String> form = new LinkedHashMap<>();
+                    form.put("email", "reg-" + runToken + "-" + registrations.incrementAndGet() + "@register.test");
+                    form.put("passwordHash", settings.password());
+                    form.put("confirmPassword", settings.password());
+                    form.put("firstName", "Load");
+                    form.put("lastName", "Tester" + index);
+                    form.put("phoneNumber", String.format("07%08d", random.nextInt(100_000_000)));
+                    timed(client, post("/register", form), response -> redirectsTo(response, "/?success"));
+                }
+                case "admin-search" -> {
+                    StringBuilder query = new StringBuilder("/admin/api/users?size=50&page=").append(random.nextInt(5));
+                    if (random.nextBoolean()) {
+                        query.append("&role=").append(AdminController.ROLE_OPTIONS.get(random.nextInt(AdminController.ROLE_OPTIONS.size())));
+                    }
+                    if (random.nextInt(4) == 0) {
+                        query.append("&status=INACTIVE");
+                    }
+                    if (random.nextInt(3) == 0) {
+                        query.append("&email=user").append(random.nextInt(10));
+                    }
+                    timed(client, get(query.toString()), response -> response.statusCode() == 200);
+                }
+                case "admin-dashboard" -> timed(client, get("/admin/dashboard?page=" + random.nextInt(10)),
+                        response -> response.statusCode() == 200);
+                default -> throw new IllegalArgumentException("Unknown flow " + flow);
+            }
+        }
+
+        private void timed(HttpClient with, HttpRequest request, Predicate<HttpResponse<String>> ok) {
+            long began = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = send(with, request);
+            } catch (UncheckedIOException e) {
+                latency.record(System.nanoTime() - began);
+                errors++;
+                return;
+            }
+            latency.record(System.nanoTime() - began);
+            if (!ok.test(response)) {
+                errors++;
+            }
+        }
+    }
+
+    // ==========================
+    // HTTP
+    // ==========================
+
+    private static HttpClient newClient(boolean cookies) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10));
+        if (cookies) {
+            builder.cookieHandler(new CookieManager());
+        }
+        return builder.build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(settings.baseUrl() + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Map<String, String> form) {
+        StringBuilder body = new StringBuilder();
+        form.forEach((name, value) -> {
+            if (!body.isEmpty()) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(name, StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        });
+        return HttpRequest.newBuilder(URI.create(settings.baseUrl() + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Request to " + request.uri() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during request to " + request.uri(), e);
+        }
+    }
+
+    private static boolean redirectsTo(HttpResponse<String> response, String path) {
+        return response.statusCode() == 302
+                && response.headers().firstValue("Location").map(l -> l.endsWith(path)).orElse(false);
+    }
+
+    // ==========================
+    // Reports
+    // ==========================
+
+    // Writes load-report.csv and load-report.txt into dir and returns the text report
+    public String writeReport(List<FlowResult> results, Path dir) {
+        StringBuilder csv = new StringBuilder("flow,requests,errors,throughput_per_s,p50_ms,p90_ms,p99_ms,max_ms\n");
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                "Load test: %d seeded users, %d virtual users, %d requests per flow%n%n",
+                settings.users(), settings.virtualUsers(), settings.requestsPerFlow()));
+        for (FlowResult result : results) {
+            LatencyStats latency = result.latency();
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f%n", result.flow(),
+                    result.requests(), result.errors(), result.throughput(), latency.percentileMs(50),
+                    latency.percentileMs(90), latency.percentileMs(99), latency.percentileMs(100)));
+            text.append(String.format(Locale.ROOT, "%s  errors=%-5d %9.1f req/s%n",
+                    latency.summary(result.flow()), result.errors(), result.throughput()));
+        }
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("load-report.csv"), csv);
+            Files.writeString(dir.resolve("load-report.txt"), text);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write load report to " + dir, e);
+        }
+        return text.toString();
+    }
+
+    // args: base URL [users] [virtual users] [requests per flow] [output dir]
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: LoadDriver <base url> [users] [virtual users] [requests per flow] [output dir]");
+            System.exit(2);
+        }
+        Settings settings = new Settings(args[0],
+                args.length > 1 ? Integer.parseInt(args[1]) : 500,
+                args.length > 2 ? Integer.parseInt(args[2]) : 8,
+                args.length > 3 ? Integer.parseInt(args[3]) : 400,
+                System.getProperty("password", "LoadTest@1"));
+        LoadDriver driver = new LoadDriver(settings);
+        System.out.print(driver.writeReport(driver.run(), Path.of(args.length > 4 ? args[4] : "target/load-reports")));
+    }
+}
@@ -0,0 +1,37 @@
+package com.sliit.parking_reservation_and_management_system.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+
+/**
+ * The full application on a random port with the test profile (H2 and synthetic data), driven
+ * by LoadDriver: 8 virtual users, 400 requests per flow. Reports land in target/load-reports;
+ * keep the csv of a release to diff the next one against.
+ * Not part of the normal build; run with: mvn test -Dtest=LoadTestBenchmark
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.test-data.users=5000",
+        "app.test-data.lots=50",
+        "app.test-data.slots-per-lot=100",
+        "app.test-data.reservations=20000"
+})
+@ActiveProfiles("test")
+class LoadTestBenchmark {
+
+    private static final int USERS = 5000;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void loginRegistrationAndAdminFlows() {
+        LoadDriver driver = new LoadDriver(new LoadDriver.Settings("http://localhost:" + port, USERS, 8, 400, "LoadTest@1"));
+        // one short pass to warm up the JIT and the connection pools
+        driver.run();
+        System.out.print(driver.writeReport(driver.run(), Path.of("target/load-reports")));
+    }
+}
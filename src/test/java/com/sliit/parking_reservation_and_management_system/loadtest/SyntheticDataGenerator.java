@@ -0,0 +1,182 @@
+package com.sliit.parking_reservation_and_management_system.loadtest;
+
+import com.sliit.parking_reservation_and_management_system.controller.AdminController;
+import com.sliit.parking_reservation_and_management_system.entity.User;
+import com.sliit.parking_reservation_and_management_system.repository.UserRepository;
+import com.sliit.parking_reservation_and_management_system.service.reservation.Reservation;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fills the in-memory database of the test profile: users in every role of
+ * AdminController.ROLE_OPTIONS, then lots, slots and reservations in the reservation engine.
+ *
+ * Users are numbered and everything about user i (email, role, status) follows from i, so the
+ * load driver can pick its accounts without asking the server. The first users are one fixed
+ * account per role (admin@load.test, customer@load.test, ...); after that mostly customers,
+ * every 20th a staff member and every 10th inactive. All share app.test-data.password.
+ *
+ * Runs as an ApplicationRunner, i.e. before ApplicationReadyEvent, so the user statistics and
+ * the email filter are seeded from the generated users.
+ */
+@Component
+@Profile("test")
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    static final String DOMAIN = "@load.test";
+    private static final List<String> STAFF_ROLES = AdminController.ROLE_OPTIONS.stream()
+            .filter(role -> !role.equals("CUSTOMER"))
+            .toList();
+    private static final int SAVE_BATCH = 500;
+    private static final long HOUR = 60 * 60 * 1000;
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ReservationStore reservationStore;
+    private final int users;
+    private final String password;
+    private final int lots;
+    private final int slotsPerLot;
+    private final int reservations;
+
+    public SyntheticDataGenerator(UserRepository userRepository,
+                                  PasswordEncoder passwordEncoder,
+                                  ReservationStore reservationStore,
+                                  @Value("${app.test-data.users:500}") int users,
+                                  @Value("${app.test-data.password:LoadTest@1}") String password,
+                                  @Value("${app.test-data.lots:10}") int lots,
+                                  @Value("${app.test-data.slots-per-lot:40}") int slotsPerLot,
+                                  @Value("${app.test-data.reservations:1000}") int reservations) {
+        if (users < AdminController.ROLE_OPTIONS.size()) {
+            throw new IllegalArgumentException("app.test-data.users must be at least "
+                    + AdminController.ROLE_OPTIONS.size() + " (one account per role)");
+        }
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.reservationStore = reservationStore;
+        this.users = users;
+        this.password = password;
+        this.lots = lots;
+        this.slotsPerLot = slotsPerLot;
+        this.reservations = reservations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long began = System.nanoTime();
+        generateUsers();
+        int booked = generateReservations();
+        System.out.println("🧪 Generated " + users + " users, " + lots * slotsPerLot + " slots in " + lots
+                + " lots and " + booked + " reservations in " + (System.nanoTime() - began) / 1_000_000 + " ms");
+    }
+
+    // ==========================
+    // Users
+    // ==========================
+
+    public static String emailOf(int i) {
+        if (i < AdminController.ROLE_OPTIONS.size()) {
+            return AdminController.ROLE_OPTIONS.get(i).toLowerCase().replace('_', '-') + DOMAIN;
+        }
+        return String.format("user%06d%s", i, DOMAIN);
+    }
+
+    public static String roleOf(int i) {
+        if (i < AdminController.ROLE_OPTIONS.size()) {
+            return AdminController.ROLE_OPTIONS.get(i);
+        }
+        return i % 20 == 0 ? STAFF_ROLES.get((i / 20) % STAFF_ROLES.size()) : "CUSTOMER";
+    }
+
+    public static boolean isActive(int i) {
+        return i < AdminController.ROLE_OPTIONS.size() || i % 10 != 3;
+    }
+
+    // Emails of the active customers among the first `users` generated users
+    public static List<String> activeCustomers(int users) {
+        List<String> customers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            if (isActive(i) && roleOf(i).equals("CUSTOMER")) {
+                customers.add(emailOf(i));
+            }
+        }
+        return customers;
+    }
+
+    private void generateUsers() {
+        // one BCrypt hash for everyone: hashing is deliberately slow
+        String hash = passwordEncoder.encode(password);
+        Random random = new Random(42);
+        List<User> batch = new ArrayList<>(SAVE_BATCH);
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setEmail(emailOf(i));
+            user.setRole(roleOf(i));
+            user.setStatus(isActive(i) ? "ACTIVE" : "INACTIVE");
+            user.setPasswordHash(hash);
+            user.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+            user.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            user.setPhoneNumber(String.format("07%08d", i));
+            batch.add(user);
+            if (batch.size() == SAVE_BATCH) {
+                userRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        userRepository.saveAll(batch);
+    }
+
+    // ==========================
+    // Lots, slots and reservations
+    // ==========================
+
+    /**
+     * Two-hour bookings spread round-robin over the slots, so they never overlap: the first
+     * round started an hour ago (every other one is checked in), later rounds lie ahead.
+     */
+    private int generateReservations() {
+        List<CompletableFuture<Boolean>> slots = new ArrayList<>(lots * slotsPerLot);
+        for (long lot = 1; lot <= lots; lot++) {
+            for (long slot = 1; slot <= slotsPerLot; slot++) {
+                slots.add(reservationStore.addSlotAsync(lot, slot));
+            }
+        }
+        CompletableFuture.allOf(slots.toArray(CompletableFuture[]::new)).join();
+
+        int totalSlots = lots * slotsPerLot;
+        if (totalSlots == 0) {
+            return 0;
+        }
+        List<String> customers = activeCustomers(users);
+        long firstStart = System.currentTimeMillis() - HOUR;
+        List<CompletableFuture<Reservation>> booked = new ArrayList<>(reservations);
+        for (int i = 0; i < reservations; i++) {
+            int slot = i % totalSlots;
+            long start = firstStart + (long) (i / totalSlots) * 2 * HOUR;
+            booked.add(reservationStore.reserveAsync(slot / slotsPerLot + 1, slot % slotsPerLot + 1,
+                    customers.get(i % customers.size()), start, start + 2 * HOUR));
+        }
+        List<CompletableFuture<Void>> checkIns = new ArrayList<>();
+        for (int i = 0; i < Math.min(reservations, totalSlots); i += 2) {
+            checkIns.add(reservationStore.checkInAsync(booked.get(i).join().getId()));
+        }
+        CompletableFuture.allOf(booked.toArray(CompletableFuture[]::new)).join();
+        CompletableFuture.allOf(checkIns.toArray(CompletableFuture[]::new)).join();
+        return booked.size();
+    }
+
+    private static final String[] FIRST_NAMES = {"Amal", "Nimali", "Kasun", "Dilini", "Ruwan", "Sachini",
+            "Tharindu", "Ishara", "Chamara", "Harini", "Nuwan", "Malsha", "Pradeep", "Sanduni", "Lahiru"};
+    private static final String[] LAST_NAMES = {"Perera", "Fernando", "Silva", "Jayasinghe", "Bandara",
+            "Wickramasinghe", "Gunawardena", "Rajapaksa", "Dissanayake", "Herath", "Kumara", "Senanayake"};
+}
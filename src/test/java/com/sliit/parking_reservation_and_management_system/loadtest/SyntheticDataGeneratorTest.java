@@ -0,0 +1,70 @@
+package com.sliit.parking_reservation_and_management_system.loadtest;
+
+import com.sliit.parking_reservation_and_management_system.controller.AdminController;
+import com.sliit.parking_reservation_and_management_system.dto.UserStatistics;
+import com.sliit.parking_reservation_and_management_system.service.UserStatisticsService;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.test-data.users=120",
+        "app.test-data.lots=2",
+        "app.test-data.slots-per-lot=5",
+        "app.test-data.reservations=25"
+})
+@ActiveProfiles("test")
+class SyntheticDataGeneratorTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserStatisticsService userStatisticsService;
+
+    @Autowired
+    private ReservationStore reservationStore;
+
+    @TempDir
+    Path reports;
+
+    @Test
+    void seedsEveryRoleAndSomeInactiveUsers() {
+        UserStatistics stats = userStatisticsService.getStatistics();
+        assertEquals(120, stats.total());
+        for (String role : AdminController.ROLE_OPTIONS) {
+            assertTrue(stats.countForRole(role) > 0, "no users with role " + role);
+        }
+        assertEquals(11, stats.countForStatus("INACTIVE"));
+        // 10 slots: the first round of bookings fills them, the second is two hours later
+        assertEquals(25, reservationStore.getLastSequence() - 10 - 5);
+        assertEquals(10, reservationStore.findFreeSlots(System.currentTimeMillis() + 10 * 60 * 60 * 1000L,
+                System.currentTimeMillis() + 11 * 60 * 60 * 1000L, 100).size());
+    }
+
+    @Test
+    void everyFlowOfTheLoadDriverSucceeds() throws Exception {
+        LoadDriver driver = new LoadDriver(new LoadDriver.Settings("http://localhost:" + port, 120, 2, 4, "LoadTest@1"));
+        List<LoadDriver.FlowResult> results = driver.run();
+        driver.writeReport(results, reports);
+
+        assertEquals(LoadDriver.FLOWS, results.stream().map(LoadDriver.FlowResult::flow).toList());
+        for (LoadDriver.FlowResult result : results) {
+            assertEquals(4, result.requests(), result.flow());
+            assertEquals(0, result.errors(), result.flow());
+        }
+        List<String> csv = Files.readAllLines(reports.resolve("load-report.csv"));
+        assertEquals("flow,requests,errors,throughput_per_s,p50_ms,p90_ms,p99_ms,max_ms", csv.get(0));
+        assertEquals(1 + LoadDriver.FLOWS.size(), csv.size());
+    }
+}
@@ -0,0 +1,119 @@
+package com.sliit.parking_reservation_and_management_system.repository;
+
+import com.sliit.parking_reservation_and_management_system.LatencyStats;
+import com.sliit.parking_reservation_and_management_system.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Default persistence settings against the prod profile (sequence ids + JDBC batching,
+ * second-level cache): statements and time for bulk inserts, and repeated findById.
+ * Runs on H2 in MSSQLServer mode, so round trips are nearly free here; the statement counts
+ * are what carries over to a networked SQL Server.
+ * Not part of the normal build; run with: mvn test -Dtest=PersistenceProfileBenchmark
+ */
+class PersistenceProfileBenchmark {
+
+    private static final int USERS = 20_000;
+    private static final int CHUNK = 500;
+    private static final int LOOKUPS = 50_000;
+
+    @Test
+    void defaultVersusProdProfile() {
+        String defaults = run("default");
+        String prod = run("prod");
+        System.out.println(defaults);
+        System.out.println(prod);
+    }
+
+    private String run(String profile) {
+        // command-line arguments, so they win over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + profile + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"));
+        if (profile.equals("prod")) {
+            args.add("--spring.profiles.active=prod");
+        }
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PersistenceOnly.class)
+                .web(WebApplicationType.NONE);
+        try (ConfigurableApplicationContext context = builder.run(args.toArray(String[]::new))) {
+            UserRepository users = context.getBean(UserRepository.class);
+            TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            Statistics stats = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+            stats.clear();
+            long began = System.nanoTime();
+            List<Long> ids = new ArrayList<>(USERS);
+            for (int start = 0; start < USERS; start += CHUNK) {
+                int from = start;
+                tx.executeWithoutResult(status -> {
+                    List<User> chunk = new ArrayList<>(CHUNK);
+                    for (int i = from; i < from + CHUNK; i++) {
+                        chunk.add(user(i));
+                    }
+                    users.saveAll(chunk).forEach(u -> ids.add(u.getUserID()));
+                });
+            }
+            long insertMs = (System.nanoTime() - began) / 1_000_000;
+            long insertStatements = stats.getPrepareStatementCount();
+            long rows = stats.getEntityInsertCount();
+
+            stats.clear();
+            Random random = new Random(5);
+            LatencyStats lookups = new LatencyStats();
+            for (int i = 0; i < LOOKUPS; i++) {
+                // a small set of hot users, like staff opening the same accounts
+                Long id = ids.get(random.nextInt(i % 4 == 0 ? USERS : 500));
+                long t = System.nanoTime();
+                tx.executeWithoutResult(status -> users.findById(id.intValue()));
+                lookups.record(System.nanoTime() - t);
+            }
+            return String.format("%-8s inserts: %d users in %d ms, %d statements prepared (%d rows)%n"
+                            + "         findById: %d queries, L2 hits %d misses %d%n%s",
+                    profile, USERS, insertMs, insertStatements, rows,
+                    stats.getEntityLoadCount(), stats.getSecondLevelCacheHitCount(),
+                    stats.getSecondLevelCacheMissCount(), lookups.summary("  " + profile + " findById"));
+        }
+    }
+
+    private static User user(int i) {
+        User user = new User();
+        user.setEmail("bulk" + i + "@mail.com");
+        user.setRole("CUSTOMER");
+        user.setStatus("ACTIVE");
+        user.setPasswordHash("$2a$10$7EqJtq98hPqEX7fNZaFWoO5rXjJ3k1nIv4mJYxY1sJ2e7zY8l5Y6W");
+        user.setFirstName("First" + i);
+        user.setLastName("Last" + i);
+        user.setPhoneNumber("0771234567");
+        return user;
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    static class PersistenceOnly {
+    }
+}
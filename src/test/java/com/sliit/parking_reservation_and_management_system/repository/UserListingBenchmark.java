@@ -0,0 +1,100 @@
+package com.sliit.parking_reservation_and_management_system.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sliit.parking_reservation_and_management_system.LatencyStats;
+import com.sliit.parking_reservation_and_management_system.dto.PageResponse;
+import com.sliit.parking_reservation_and_management_system.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+/**
+ * Entity listing (search) against the DTO projection (searchRows): JSON bytes, heap allocated
+ * and latency per page of users.
+ * Not part of the normal build; run with: mvn test -Dtest=UserListingBenchmark
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:listing;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserListingBenchmark {
+
+    private static final int USERS = 20_000;
+    private static final int PAGES = 300;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void entityVersusProjection() throws Exception {
+        String[] roles = {"ADMIN", "CUSTOMER", "PARKING_SLOT_MANAGER", "FINANCE_EXECUTIVE",
+                "SECURITY_OFFICER", "CUSTOMER_SUPPORT_OFFICER"};
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setEmail("user" + i + "@mail.com");
+            user.setRole(roles[i % roles.length]);
+            user.setStatus(i % 7 == 0 ? "INACTIVE" : "ACTIVE");
+            user.setPasswordHash("$2a$10$7EqJtq98hPqEX7fNZaFWoO5rXjJ3k1nIv4mJYxY1sJ2e7zY8l5Y6W");
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setPhoneNumber("07" + String.format("%08d", i));
+            entityManager.persist(user);
+            if (i % 1000 == 999) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        for (int size : new int[]{15, 100}) {
+            // warm-up both paths before measuring
+            measure("warm-up", size, p -> userRepository.search(null, null, null, p));
+            measure("warm-up", size, p -> userRepository.searchRows(null, null, null, p));
+            System.out.println(measure("entity, page size " + size, size,
+                    p -> userRepository.search(null, null, null, p)));
+            System.out.println(measure("dto,    page size " + size, size,
+                    p -> userRepository.searchRows(null, null, null, p)));
+        }
+    }
+
+    private String measure(String name, int size, Function<Pageable, Page<?>> query) throws Exception {
+        LatencyStats latency = new LatencyStats();
+        long thread = Thread.currentThread().getId();
+        long allocated = 0;
+        long bytes = 0;
+        int pageCount = USERS / size;
+        for (int i = 0; i < PAGES; i++) {
+            Pageable page = PageRequest.of((i * 37) % pageCount, size, Sort.by("userID"));
+            long before = threads.getThreadAllocatedBytes(thread);
+            long t = System.nanoTime();
+            Page<?> result = query.apply(page);
+            latency.record(System.nanoTime() - t);
+            allocated += threads.getThreadAllocatedBytes(thread) - before;
+            bytes += json.writeValueAsBytes(PageResponse.of(result)).length;
+            entityManager.clear();
+        }
+        return String.format("%s  json=%6d B/page  alloc=%8d B/page%n%s",
+                name, bytes / PAGES, allocated / PAGES, latency.summary("  " + name));
+    }
+}
@@ -0,0 +1,118 @@
+package com.sliit.parking_reservation_and_management_system.repository;
+
+import com.sliit.parking_reservation_and_management_system.dto.UserDTO;
+import com.sliit.parking_reservation_and_management_system.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:users;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        userRepository.save(user("alice@mail.com", "CUSTOMER", "ACTIVE"));
+        userRepository.save(user("bob@mail.com", "CUSTOMER", "INACTIVE"));
+        userRepository.save(user("carol@parking.lk", "ADMIN", "ACTIVE"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void searchRowsAppliesTheSameFiltersAsSearch() {
+        PageRequest page = PageRequest.of(0, 10, Sort.by("userID"));
+
+        Page<UserDTO> customers = userRepository.searchRows("customer", null, null, page);
+        assertEquals(2, customers.getTotalElements());
+        assertEquals("alice@mail.com", customers.getContent().get(0).getEmail());
+
+        Page<UserDTO> active = userRepository.searchRows(null, "ACTIVE", "mail", page);
+        assertEquals(1, active.getTotalElements());
+        assertEquals("Alice", active.getContent().get(0).getFirstName());
+
+        assertEquals(userRepository.search("CUSTOMER", null, null, page).getTotalElements(),
+                customers.getTotalElements());
+    }
+
+    @Test
+    void searchRowsLeavesThePersistenceContextEmpty() {
+        Page<UserDTO> rows = userRepository.searchRows(null, null, null, PageRequest.of(0, 2, Sort.by("userID")));
+
+        assertEquals(2, rows.getContent().size());
+        assertEquals(3, rows.getTotalElements());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void emailQueriesUsedByTheRegistrationPreCheck() {
+        assertEquals(List.of("alice@mail.com", "bob@mail.com", "carol@parking.lk"),
+                userRepository.findAllEmails().stream().sorted().toList());
+        assertTrue(userRepository.existsByEmail("bob@mail.com"));
+        assertFalse(userRepository.existsByEmail("dave@mail.com"));
+
+        Long aliceId = userRepository.findByEmail("alice@mail.com").orElseThrow().getUserID();
+        assertTrue(userRepository.existsByEmailForOtherUser("alice@mail.com", null));
+        assertFalse(userRepository.existsByEmailForOtherUser("alice@mail.com", aliceId));
+    }
+
+    @Test
+    void updateFromAStaleCopyFailsInsteadOfOverwriting() {
+        // e.g. served by another node's second-level cache after this one was written
+        User stale = userRepository.findByEmail("alice@mail.com").orElseThrow();
+        entityManager.clear();
+
+        User current = userRepository.findByEmail("alice@mail.com").orElseThrow();
+        current.setPhoneNumber("0712222222");
+        entityManager.flush();
+        entityManager.clear();
+
+        stale.setStatus("INACTIVE");
+        assertThrows(OptimisticLockingFailureException.class, () -> {
+            userRepository.save(stale);
+            entityManager.flush();
+        });
+        entityManager.clear();
+        User stored = userRepository.findByEmail("alice@mail.com").orElseThrow();
+        assertEquals("0712222222", stored.getPhoneNumber());
+        assertEquals("ACTIVE", stored.getStatus());
+    }
+
+    private static User user(String email, String role, String status) {
+        User user = new User();
+        user.setEmail(email);
+        user.setRole(role);
+        user.setStatus(status);
+        user.setPasswordHash("$2a$10$abcdefghijklmnopqrstuv");
+        user.setFirstName(email.substring(0, 1).toUpperCase() + email.substring(1, email.indexOf('@')));
+        user.setLastName("Perera");
+        user.setPhoneNumber("0771234567");
+        return user;
+    }
+}
@@ -0,0 +1,88 @@
+package com.sliit.parking_reservation_and_management_system.service;
+
+import com.sliit.parking_reservation_and_management_system.repository.UserRepository;
+import com.sliit.parking_reservation_and_management_system.util.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EmailMembershipFilterTest {
+
+    @Test
+    void everyCheckGoesToTheDatabaseUntilSeeded() {
+        EmailMembershipFilter filter = new EmailMembershipFilter(mock(UserRepository.class), 1000, 0.01, 0.1);
+
+        assertTrue(filter.mightExist("new@mail.com"));
+    }
+
+    @Test
+    void registeredEmailsAreNeverReportedMissing() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findAllEmails()).thenReturn(List.of("Admin@Parking.com", "user1@mail.com"));
+        EmailMembershipFilter filter = new EmailMembershipFilter(repository, 1000, 0.01, 0.1);
+        filter.seed();
+
+        filter.recordSaved("fresh@mail.com");
+
+        assertTrue(filter.mightExist(" admin@parking.com "));
+        assertTrue(filter.mightExist("USER1@mail.com"));
+        assertTrue(filter.mightExist("fresh@mail.com"));
+        assertFalse(filter.mightExist("nobody@mail.com"));
+    }
+
+    @Test
+    void deletesTriggerARebuildOnceStaleEntriesPileUp() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findAllEmails()).thenReturn(List.of("a@mail.com", "b@mail.com", "c@mail.com"));
+        EmailMembershipFilter filter = new EmailMembershipFilter(repository, 1000, 0.01, 0.5);
+        filter.seed();
+
+        when(repository.findAllEmails()).thenReturn(List.of("b@mail.com"));
+        filter.recordRemoved("a@mail.com");     // 1 of 3 stale: below the ratio
+        assertTrue(filter.mightExist("a@mail.com"));
+        filter.recordRemoved("c@mail.com");     // 2 of 3: rebuilt from the table
+
+        assertFalse(filter.mightExist("a@mail.com"));
+        assertFalse(filter.mightExist("c@mail.com"));
+        assertTrue(filter.mightExist("b@mail.com"));
+        verify(repository, times(2)).findAllEmails();
+    }
+
+    @Test
+    void saveDuringRebuildScanIsKept() {
+        UserRepository repository = mock(UserRepository.class);
+        EmailMembershipFilter filter = new EmailMembershipFilter(repository, 1000, 0.01, 0.1);
+        when(repository.findAllEmails()).thenAnswer(invocation -> {
+            filter.recordSaved("racing@mail.com");   // committed after the scan read the table
+            return List.of("old@mail.com");
+        });
+
+        filter.seed();
+
+        assertTrue(filter.mightExist("racing@mail.com"));
+        assertTrue(filter.mightExist("old@mail.com"));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.add("user" + i + "@mail.com");
+        }
+        int falsePositives = 0;
+        List<String> probes = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            probes.add("visitor" + i + "@mail.com");
+        }
+        for (String probe : probes) {
+            if (bloom.mightContain(probe)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
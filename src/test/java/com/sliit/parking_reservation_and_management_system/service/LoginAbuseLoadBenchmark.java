@@ -0,0 +1,100 @@
+package com.sliit.parking_reservation_and_management_system.service;
+
+import com.sliit.parking_reservation_and_management_system.LatencyStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Legitimate login latency while a credential-stuffing attack is running, with and without
+ * the limiter in front of the BCrypt check (the dominant cost of a login).
+ * Not part of the normal build; run with: mvn test -Dtest=LoginAbuseLoadBenchmark
+ */
+class LoginAbuseLoadBenchmark {
+
+    private static final int ATTACKERS = 4;
+    private static final long RUN_MILLIS = 6_000;
+
+    private final PasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final String storedHash = encoder.encode("Secret#123");
+
+    @Test
+    void legitimateLatencyDuringAttack() throws Exception {
+        LatencyStats idle = run(null, 0);
+        LatencyStats unprotected = run(null, ATTACKERS);
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(20, 20, 10, 5, 10, 15, 15, 100_000);
+        LatencyStats protectedRun = run(limiter, ATTACKERS);
+
+        System.out.println(idle.summary("no attack"));
+        System.out.println(unprotected.summary("attack, no limiter"));
+        System.out.println(protectedRun.summary("attack, limiter"));
+        System.out.println("Limiter metrics: " + limiter.metrics());
+    }
+
+    private LatencyStats run(LoginAttemptLimiter limiter, int attackers) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong attackAttempts = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int a = 0; a < attackers; a++) {
+            String ip = "203.0.113." + a;
+            Thread attacker = new Thread(() -> {
+                long n = 0;
+                try {
+                    while (running.get()) {
+                        login(limiter, ip, "victim" + (n % 500) + "@mail.com", "guess" + n++);
+                        attackAttempts.incrementAndGet();
+                        // a network round trip between attempts; a rejected request is not free either
+                        TimeUnit.MILLISECONDS.sleep(1);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            attacker.setDaemon(true);
+            threads.add(attacker);
+        }
+        threads.forEach(Thread::start);
+
+        // regular customers: each logs in once, from their own address
+        LatencyStats legit = new LatencyStats();
+        long end = System.currentTimeMillis() + RUN_MILLIS;
+        for (int i = 0; System.currentTimeMillis() < end; i++) {
+            long t = System.nanoTime();
+            boolean ok = login(limiter, "198.51." + (i / 250) + "." + (i % 250), "customer" + i + "@mail.com", "Secret#123");
+            legit.record(System.nanoTime() - t);
+            if (!ok) {
+                throw new IllegalStateException("Legitimate login was rejected");
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("attackers=%d limiter=%s attack attempts=%d%n",
+                attackers, limiter != null, attackAttempts.get());
+        return legit;
+    }
+
+    // Mirrors the request path: limiter first, then the password check, then failure bookkeeping
+    private boolean login(LoginAttemptLimiter limiter, String ip, String email, String password) {
+        if (limiter != null && !limiter.tryAcquire(ip, email).isAllowed()) {
+            return false;
+        }
+        boolean ok = encoder.matches(password, storedHash);
+        if (limiter != null) {
+            if (ok) {
+                limiter.recordSuccess(email);
+            } else {
+                limiter.recordFailure(ip, email);
+            }
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,117 @@
+package com.sliit.parking_reservation_and_management_system.service;
+
+import com.sliit.parking_reservation_and_management_system.service.LoginAttemptLimiter.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    // 5 attempts per IP (5/min refill), 3 per account (1/min), lock after 4 failures in 10 min for 15 min
+    private LoginAttemptLimiter limiter(int maxKeys) {
+        return new LoginAttemptLimiter(5, 5, 3, 1, 4, 10, 15, maxKeys, now::get);
+    }
+
+    private void advanceMinutes(long minutes) {
+        now.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+    }
+
+    @Test
+    void ipBucketThrottlesBursts() {
+        LoginAttemptLimiter limiter = limiter(100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Decision.ALLOWED, limiter.tryAcquire("10.0.0.1", "user" + i + "@mail.com"));
+        }
+        assertEquals(Decision.IP_THROTTLED, limiter.tryAcquire("10.0.0.1", "other@mail.com"));
+        // other clients are unaffected
+        assertEquals(Decision.ALLOWED, limiter.tryAcquire("10.0.0.2", "other@mail.com"));
+
+        advanceMinutes(1);
+        assertEquals(Decision.ALLOWED, limiter.tryAcquire("10.0.0.1", "other@mail.com"));
+    }
+
+    @Test
+    void retryAfterCoversTheNextTokenOrTheLockout() {
+        LoginAttemptLimiter limiter = limiter(100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("10.0.5.1", "user" + i + "@mail.com");
+        }
+        assertEquals(Decision.IP_THROTTLED, limiter.tryAcquire("10.0.5.1", "other@mail.com"));
+        // 5 tokens a minute: one every 12 s
+        assertEquals(TimeUnit.SECONDS.toNanos(12),
+                limiter.retryAfterNanos(Decision.IP_THROTTLED, "10.0.5.1", "other@mail.com"), 1_000);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.recordFailure("10.0.6." + i, "victim@mail.com");
+        }
+        advanceMinutes(5);
+        assertEquals(Decision.ACCOUNT_LOCKED, limiter.tryAcquire("10.0.6.9", "victim@mail.com"));
+        assertEquals(TimeUnit.MINUTES.toNanos(10),
+                limiter.retryAfterNanos(Decision.ACCOUNT_LOCKED, "10.0.6.9", "victim@mail.com"));
+    }
+
+    @Test
+    void accountBucketThrottlesDistributedGuessing() {
+        LoginAttemptLimiter limiter = limiter(100);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("10.0.1." + i, "victim@mail.com").isAllowed());
+        }
+        assertEquals(Decision.ACCOUNT_THROTTLED, limiter.tryAcquire("10.0.1.9", "VICTIM@mail.com "));
+    }
+
+    @Test
+    void failuresInsideWindowLockTheAccount() {
+        LoginAttemptLimiter limiter = limiter(100);
+        for (int i = 0; i < 4; i++) {
+            limiter.recordFailure("10.0.2." + i, "victim@mail.com");
+            advanceMinutes(2);
+        }
+        assertEquals(Decision.ACCOUNT_LOCKED, limiter.tryAcquire("10.0.2.50", "victim@mail.com"));
+
+        advanceMinutes(15);
+        assertEquals(Decision.ALLOWED, limiter.tryAcquire("10.0.2.50", "victim@mail.com"));
+        assertEquals(1, limiter.metrics().get("lockouts"));
+    }
+
+    @Test
+    void failuresSpreadBeyondWindowDoNotLock() {
+        LoginAttemptLimiter limiter = limiter(100);
+        for (int i = 0; i < 8; i++) {
+            limiter.recordFailure("10.0.3." + i, "slow@mail.com");
+            advanceMinutes(4);
+        }
+        assertEquals(Decision.ALLOWED, limiter.tryAcquire("10.0.3.50", "slow@mail.com"));
+    }
+
+    @Test
+    void successClearsFailureHistory() {
+        LoginAttemptLimiter limiter = limiter(100);
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("10.0.4." + i, "typo@mail.com");
+        }
+        limiter.recordSuccess("typo@mail.com");
+        limiter.recordFailure("10.0.4.9", "typo@mail.com");
+        assertNotEquals(Decision.ACCOUNT_LOCKED, limiter.tryAcquire("10.0.4.10", "typo@mail.com"));
+    }
+
+    @Test
+    void memoryIsBoundedAndIdleKeysAreForgotten() {
+        LoginAttemptLimiter limiter = limiter(50);
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire("10.1." + (i / 256) + "." + (i % 256), "random" + i + "@mail.com");
+        }
+        assertEquals(50, limiter.metrics().get("trackedIps"));
+        assertEquals(50, limiter.metrics().get("trackedAccounts"));
+        assertEquals(1_900, limiter.metrics().get("evictions"));
+
+        advanceMinutes(30);
+        limiter.evictIdle();
+        assertEquals(0, limiter.metrics().get("trackedIps"));
+        assertEquals(0, limiter.metrics().get("trackedAccounts"));
+    }
+}
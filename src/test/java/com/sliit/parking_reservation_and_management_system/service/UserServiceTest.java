@@ -0,0 +1,85 @@
+package com.sliit.parking_reservation_and_management_system.service;
+
+import com.sliit.parking_reservation_and_management_system.config.datasource.ReadYourWritesGuard;
+import com.sliit.parking_reservation_and_management_system.entity.User;
+import com.sliit.parking_reservation_and_management_system.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final EmailMembershipFilter emailFilter = new EmailMembershipFilter(repository, 1000, 0.01, 0.1);
+    private final ReadYourWritesGuard guard = new ReadYourWritesGuard(5000, 1000);
+    private final UserService service = new UserService(repository, mock(PasswordEncoder.class),
+            mock(UserStatisticsService.class), guard, emailFilter);
+
+    private static User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("$2a$10$already.hashed");
+        user.setRole("CUSTOMER");
+        return user;
+    }
+
+    @Test
+    void newEmailIsAnsweredWithoutAQuery() {
+        when(repository.findAllEmails()).thenReturn(List.of("taken@mail.com"));
+        emailFilter.seed();
+        when(repository.existsByEmail("taken@mail.com")).thenReturn(true);
+
+        assertFalse(service.emailExists("new@mail.com"));
+        assertTrue(service.emailExists("taken@mail.com"));
+        verify(repository, never()).existsByEmail("new@mail.com");
+    }
+
+    @Test
+    void savedEmailIsSeenByTheNextPreCheck() {
+        when(repository.findAllEmails()).thenReturn(List.of());
+        emailFilter.seed();
+        when(repository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.existsByEmail("just.registered@mail.com")).thenReturn(true);
+
+        service.saveUser(user("just.registered@mail.com"));
+
+        assertTrue(service.emailExists("just.registered@mail.com"));
+    }
+
+    @Test
+    void concurrentDuplicateInsertBecomesDuplicateEmailException() {
+        when(repository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("UQ_Email"));
+        when(repository.existsByEmailForOtherUser("twice@mail.com", null)).thenReturn(true);
+
+        assertThrows(DuplicateEmailException.class, () -> service.saveUser(user("twice@mail.com")));
+    }
+
+    @Test
+    void otherConstraintViolationsAreNotReportedAsDuplicates() {
+        when(repository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("NOT NULL"));
+        when(repository.existsByEmailForOtherUser("once@mail.com", null)).thenReturn(false);
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> service.saveUser(user("once@mail.com")));
+        assertEquals("NOT NULL", e.getMessage());
+    }
+
+    @Test
+    void userLoadedForUpdateIsReadFromThePrimary() {
+        User stored = user("edit.me@mail.com");
+        when(repository.findById(7)).thenAnswer(invocation -> {
+            assertTrue(guard.mustReadPrimary());
+            return Optional.of(stored);
+        });
+
+        assertSame(stored, service.getUserForUpdate(7).orElseThrow());
+        assertFalse(guard.mustReadPrimary());
+    }
+}
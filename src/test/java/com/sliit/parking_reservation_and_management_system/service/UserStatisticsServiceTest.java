@@ -0,0 +1,110 @@
+package com.sliit.parking_reservation_and_management_system.service;
+
+import com.sliit.parking_reservation_and_management_system.dto.UserRoleStatusView;
+import com.sliit.parking_reservation_and_management_system.dto.UserStatistics;
+import com.sliit.parking_reservation_and_management_system.entity.User;
+import com.sliit.parking_reservation_and_management_system.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserStatisticsServiceTest {
+
+    private static User user(long id, String role, String status) {
+        User user = new User();
+        user.setUserID(id);
+        user.setRole(role);
+        user.setStatus(status);
+        return user;
+    }
+
+    private static UserRoleStatusView row(long id, String role, String status) {
+        return new UserRoleStatusView() {
+            public Long getUserID() { return id; }
+            public String getRole() { return role; }
+            public String getStatus() { return status; }
+        };
+    }
+
+    @Test
+    void countsFollowSavesAndDeletes() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findAllRoleStatus()).thenReturn(List.of(
+                row(1, "ADMIN", "ACTIVE"),
+                row(2, "customer", "ACTIVE")));
+        UserStatisticsService stats = new UserStatisticsService(repository);
+        stats.seed();
+
+        stats.recordSaved(user(3, "CUSTOMER", "ACTIVE"));       // registration
+        stats.recordSaved(user(2, "CUSTOMER", "INACTIVE"));     // deactivate
+        stats.recordSaved(user(1, "FINANCE_EXECUTIVE", "ACTIVE")); // role change
+        stats.recordDeleted(3);
+        stats.recordDeleted(99);                                 // unknown id is ignored
+
+        UserStatistics snapshot = stats.getStatistics();
+        assertEquals(2, snapshot.total());
+        assertEquals(1, snapshot.countForRole("CUSTOMER"));
+        assertEquals(1, snapshot.countForRole("FINANCE_EXECUTIVE"));
+        assertEquals(0, snapshot.countForRole("ADMIN"));
+        assertEquals(1, snapshot.countForStatus("ACTIVE"));
+        assertEquals(1, snapshot.countForStatus("INACTIVE"));
+        verify(repository, times(1)).findAllRoleStatus();
+    }
+
+    @Test
+    void reconcileFixesDrift() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findAllRoleStatus()).thenReturn(List.of(row(1, "ADMIN", "ACTIVE")));
+        UserStatisticsService stats = new UserStatisticsService(repository);
+        stats.seed();
+
+        // row added behind the application's back
+        when(repository.findAllRoleStatus()).thenReturn(List.of(
+                row(1, "ADMIN", "ACTIVE"),
+                row(5, "SECURITY_OFFICER", "ACTIVE")));
+        stats.reconcile();
+
+        assertEquals(2, stats.getStatistics().total());
+        assertEquals(1, stats.getStatistics().countForRole("SECURITY_OFFICER"));
+    }
+
+    @Test
+    void scanRacingWithSaveIsDiscarded() {
+        UserRepository repository = mock(UserRepository.class);
+        UserStatisticsService stats = new UserStatisticsService(repository);
+        when(repository.findAllRoleStatus()).thenReturn(List.of());
+        stats.seed();
+        when(repository.findAllRoleStatus()).thenAnswer(invocation -> {
+            stats.recordSaved(user(7, "CUSTOMER", "ACTIVE"));
+            return List.of();
+        });
+
+        assertFalse(stats.tryReconcile());
+        assertEquals(1, stats.getStatistics().total());
+    }
+
+    @Test
+    void savesBeforeTheSeedAreLeftToTheScan() {
+        UserRepository repository = mock(UserRepository.class);
+        UserStatisticsService stats = new UserStatisticsService(repository);
+        // every seed attempt races with a registration, so the seed gives up
+        when(repository.findAllRoleStatus()).thenAnswer(invocation -> {
+            stats.recordSaved(user(7, "CUSTOMER", "ACTIVE"));
+            return List.of(row(7, "CUSTOMER", "ACTIVE"));
+        });
+        stats.seed();
+        stats.recordSaved(user(8, "ADMIN", "ACTIVE"));
+        stats.recordDeleted(7);
+        assertEquals(0, stats.getStatistics().total());
+
+        // the next reconcile is the seed, and counts each user once
+        when(repository.findAllRoleStatus()).thenReturn(List.of(row(8, "ADMIN", "ACTIVE")));
+        stats.reconcile();
+        stats.recordSaved(user(8, "ADMIN", "ACTIVE"));
+        assertEquals(1, stats.getStatistics().total());
+        assertEquals(1, stats.getStatistics().countForRole("ADMIN"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.sliit.parking_reservation_and_management_system.service.notification;
+
+import com.sliit.parking_reservation_and_management_system.service.reservation.Reservation;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationEvent;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationEventType;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationJournal;
+import com.sliit.parking_reservation_and_management_system.util.TimingWheel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A million queued notifications: 500,000 bookings spread over the next day each queue a
+ * confirmation and a reminder. Measures turning the outbox into queued notifications (with
+ * sending paused by a near-zero rate), restarting over the full queue file, then draining
+ * everything in batches of 100 to counting senders with the clock moved past the last
+ * reminder. The queue is fsynced as in production; the reservation log is not.
+ * Also times the timing wheel alone: a million reminders scheduled, then a day of 100 ms ticks.
+ * Not part of the normal build; run with: mvn test -Dtest=NotificationDispatcherBenchmark
+ */
+class NotificationDispatcherBenchmark {
+
+    private static final int BOOKINGS = 500_000;
+    private static final long MINUTE = 60_000;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void millionQueuedNotifications() {
+        long now = Instant.parse("2026-03-02T00:00:00Z").toEpochMilli();
+        ReservationJournal journal = new ReservationJournal(dir.resolve("log"), 64L * 1024 * 1024, false, 2);
+        Path queueFile = dir.resolve("notifications/queue.log");
+
+        // the consumer has to exist before the events it should see
+        NotificationQueue queue = new NotificationQueue(queueFile, true, 256L * 1024 * 1024);
+        NotificationDispatcher paused = dispatcher(journal, queue, new CountingSender(NotificationChannel.EMAIL),
+                new CountingSender(NotificationChannel.SMS), 1e-9, now);
+        List<ReservationEvent> events = new ArrayList<>(1000);
+        for (int i = 1; i <= BOOKINGS; i++) {
+            long start = now + MINUTE + (i * DAY / BOOKINGS);
+            events.add(ReservationEvent.reservation(ReservationEventType.RESERVED, now,
+                    new Reservation(i, i % 200 + 1, i % 100 + 1, "driver" + (i % 50_000) + "@mail.com", start, start + 60 * MINUTE)));
+            if (events.size() == 1000) {
+                journal.append(events);
+                events.clear();
+            }
+        }
+
+        long began = System.nanoTime();
+        paused.runOnce();
+        double ingestSeconds = (System.nanoTime() - began) / 1e9;
+        Map<String, Object> queued = paused.metrics();
+        System.out.printf("ingest: %,d events -> %,d queued notifications in %.2f s (%,.0f/s), %,d scheduled, queue file %,d bytes%n",
+                BOOKINGS, (Integer) queued.get("pending"), ingestSeconds, (Integer) queued.get("pending") / ingestSeconds,
+                (Integer) queued.get("scheduled"), (Long) queued.get("fileBytes"));
+        queue.close();
+
+        // restart over the full queue, with senders that take everything
+        CountingSender email = new CountingSender(NotificationChannel.EMAIL);
+        CountingSender sms = new CountingSender(NotificationChannel.SMS);
+        began = System.nanoTime();
+        NotificationQueue reopened = new NotificationQueue(queueFile, true, 256L * 1024 * 1024);
+        NotificationDispatcher dispatcher = dispatcher(journal, reopened, email, sms, 1e12, now + DAY + 2 * 60 * MINUTE);
+        double recoverySeconds = (System.nanoTime() - began) / 1e9;
+        System.out.printf("restart: %,d pending notifications reloaded in %.2f s%n", reopened.size(), recoverySeconds);
+
+        began = System.nanoTime();
+        int sent = dispatcher.runOnce();
+        double drainSeconds = (System.nanoTime() - began) / 1e9;
+        Map<String, Object> drained = dispatcher.metrics();
+        System.out.printf("drain: %,d sent (%,d email, %,d sms) in %.2f s (%,.0f/s), %,d left, %d compactions%n",
+                sent, email.count, sms.count, drainSeconds, sent / drainSeconds, (Integer) drained.get("pending"),
+                (Long) drained.get("compactions"));
+        reopened.close();
+        journal.close();
+    }
+
+    @Test
+    void timingWheelWithAMillionReminders() {
+        long now = 0;
+        TimingWheel<Long> wheel = new TimingWheel<>(100, 4096, now);
+        long began = System.nanoTime();
+        for (long i = 0; i < 1_000_000; i++) {
+            wheel.schedule(i, now + (i * 7919) % DAY);
+        }
+        double scheduleSeconds = (System.nanoTime() - began) / 1e9;
+        long[] fired = new long[1];
+        began = System.nanoTime();
+        for (long t = now; t <= now + DAY; t += 100) {
+            wheel.advance(t, id -> fired[0]++);
+        }
+        double advanceSeconds = (System.nanoTime() - began) / 1e9;
+        System.out.printf("timing wheel: scheduled 1,000,000 in %.3f s, %,d ticks fired %,d in %.3f s%n",
+                scheduleSeconds, DAY / 100, fired[0], advanceSeconds);
+    }
+
+    private static NotificationDispatcher dispatcher(ReservationJournal journal, NotificationQueue queue,
+                                                     NotificationSender email, NotificationSender sms,
+                                                     double perSecond, long now) {
+        return new NotificationDispatcher(journal, queue, List.of(email, sms),
+                address -> address.hashCode() % 2 == 0 ? Optional.of("+94770000000") : Optional.empty(),
+                new NotificationDispatcher.Settings(100, perSecond, perSecond, 6, 2000, 600_000, 30 * MINUTE, 100),
+                Clock.fixed(Instant.ofEpochMilli(now), ZoneOffset.UTC));
+    }
+
+    private static final class CountingSender implements NotificationSender {
+        private final NotificationChannel channel;
+        private long count;
+
+        CountingSender(NotificationChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public NotificationChannel channel() {
+            return channel;
+        }
+
+        @Override
+        public void send(List<Notification> batch) {
+            count += batch.size();
+        }
+    }
+}
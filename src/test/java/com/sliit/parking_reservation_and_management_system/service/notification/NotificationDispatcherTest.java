@@ -0,0 +1,312 @@
+package com.sliit.parking_reservation_and_management_system.service.notification;
+
+import com.sliit.parking_reservation_and_management_system.service.reservation.Reservation;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationEvent;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationEventType;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationDispatcherTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+
+    @TempDir
+    Path dir;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-02T08:00:00Z"));
+    private final RecordingSender email = new RecordingSender(NotificationChannel.EMAIL);
+    private final RecordingSender sms = new RecordingSender(NotificationChannel.SMS);
+    private ReservationJournal journal;
+    private NotificationQueue queue;
+    private NotificationDispatcher dispatcher;
+    private long nextReservation;
+
+    private NotificationDispatcher open(double emailPerSecond) {
+        journal = new ReservationJournal(dir.resolve("log"), 64 * 1024, false, 2);
+        queue = new NotificationQueue(dir.resolve("notifications/queue.log"), false, 64 * 1024 * 1024);
+        dispatcher = new NotificationDispatcher(journal, queue, List.of(email, sms),
+                address -> address.startsWith("sms") ? Optional.of("+94770000000") : Optional.empty(),
+                new NotificationDispatcher.Settings(2, emailPerSecond, 1000, 3, 1000, 10_000, 30 * MINUTE, 100),
+                clock);
+        return dispatcher;
+    }
+
+    // A crash: nothing is closed or flushed, the next instance just opens the same files
+    private NotificationDispatcher crashAndRestart() {
+        journal.close();
+        queue.close();
+        return open(1000);
+    }
+
+    @AfterEach
+    void close() {
+        if (journal != null) {
+            journal.close();
+            queue.close();
+        }
+    }
+
+    private Reservation book(String customer, long startsIn) {
+        long start = clock.millis() + startsIn;
+        Reservation reservation = new Reservation(++nextReservation, 1, nextReservation, customer, start, start + HOUR);
+        journal.append(ReservationEvent.reservation(ReservationEventType.RESERVED, clock.millis(), reservation));
+        return reservation;
+    }
+
+    private void record(ReservationEventType type, Reservation reservation) {
+        journal.append(ReservationEvent.reservation(type, clock.millis(), reservation));
+    }
+
+    @Test
+    void confirmationsGoOutInBatchesAndRemindersWaitForTheirTime() {
+        open(1000);
+        for (int i = 1; i <= 4; i++) {
+            book("driver" + i + "@mail.com", 2 * HOUR);
+        }
+        book("sms-driver@mail.com", 2 * HOUR);
+
+        assertEquals(5, dispatcher.runOnce());
+        assertEquals(List.of(2, 2, 1), email.batchSizes);
+        assertTrue(email.received.stream().allMatch(n -> n.kind() == NotificationKind.CONFIRMATION));
+        assertEquals(5, ((Number) dispatcher.metrics().get("scheduled")).intValue());
+        assertEquals(0L, dispatcher.metrics().get("outboxLag"));
+
+        clock.advance(Duration.ofMinutes(89));
+        assertEquals(0, dispatcher.runOnce());
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(5, dispatcher.runOnce());
+        assertEquals(1, sms.received.size());
+        assertEquals("+94770000000", sms.received.get(0).recipient());
+        assertEquals(NotificationKind.REMINDER, sms.received.get(0).kind());
+        assertEquals(4, email.received.stream().filter(n -> n.kind() == NotificationKind.REMINDER).count());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void cancelledOrStartedBookingsGetNoReminder() {
+        open(1000);
+        Reservation cancelled = book("a@mail.com", 2 * HOUR);
+        Reservation early = book("b@mail.com", 2 * HOUR);
+        dispatcher.runOnce();
+        record(ReservationEventType.CANCELLED, cancelled);
+        record(ReservationEventType.CHECKED_IN, early);
+        dispatcher.runOnce();
+
+        clock.advance(Duration.ofHours(3));
+        dispatcher.runOnce();
+        assertEquals(List.of(NotificationKind.CONFIRMATION, NotificationKind.CONFIRMATION, NotificationKind.CANCELLATION),
+                email.received.stream().map(Notification::kind).toList());
+        assertEquals(2L, dispatcher.metrics().get("remindersWithdrawn"));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void failedBatchesAreRetriedWithBackoffThenGivenUp() {
+        open(1000);
+        email.failing = true;
+        book("a@mail.com", -HOUR);      // already started: confirmation only
+
+        dispatcher.runOnce();
+        assertEquals(1, email.calls);
+        clock.advance(Duration.ofMillis(999));
+        dispatcher.runOnce();
+        assertEquals(1, email.calls, "waits out the first backoff");
+        clock.advance(Duration.ofMillis(1));
+        dispatcher.runOnce();
+        assertEquals(2, email.calls);
+        clock.advance(Duration.ofMillis(2000));     // backoff doubled
+        dispatcher.runOnce();
+        assertEquals(3, email.calls);
+
+        Map<String, Object> metrics = dispatcher.metrics();
+        assertEquals(2L, metrics.get("retried"));
+        assertEquals(1L, metrics.get("gaveUp"));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void rateLimitHoldsTheRestForLaterRounds() {
+        open(2);
+        for (int i = 0; i < 5; i++) {
+            book("driver" + i + "@mail.com", -HOUR);
+        }
+        assertEquals(2, dispatcher.runOnce());
+        assertEquals(0, dispatcher.runOnce());
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(2, dispatcher.runOnce());
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(1, dispatcher.runOnce());
+    }
+
+    @Test
+    void restartNeitherLosesNorRepeatsNotifications() {
+        open(1000);
+        book("a@mail.com", 2 * HOUR);
+        dispatcher.runOnce();       // confirmation sent, reminder waiting
+
+        // events turned into queued notifications, then a crash before the outbox was acknowledged
+        Reservation second = book("b@mail.com", -HOUR);
+        queue.enqueue(List.of(Notification.of(NotificationKind.CONFIRMATION, NotificationChannel.EMAIL,
+                "b@mail.com", second.getId(), 1, second.getSlotId(), second.getStart(), second.getEnd(),
+                clock.millis())), journal.getLastSequence());
+
+        crashAndRestart();
+        assertEquals(1, dispatcher.runOnce());
+        clock.advance(Duration.ofHours(2));
+        assertEquals(1, dispatcher.runOnce());
+
+        assertEquals(List.of("a@mail.com", "b@mail.com", "a@mail.com"),
+                email.received.stream().map(Notification::recipient).toList());
+        assertEquals(NotificationKind.REMINDER, email.received.get(2).kind());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void reminderWithdrawnBeforeACrashStaysWithdrawn() {
+        open(1000);
+        Reservation booking = book("a@mail.com", 2 * HOUR);
+        dispatcher.runOnce();       // confirmation sent, reminder waiting
+        long reminder = queue.pending().iterator().next().id();
+
+        // the cancellation was handled (notice queued, reminder withdrawn), then a crash before the acknowledgement
+        record(ReservationEventType.CANCELLED, booking);
+        queue.enqueue(List.of(Notification.of(NotificationKind.CANCELLATION, NotificationChannel.EMAIL,
+                "a@mail.com", booking.getId(), 1, booking.getSlotId(), booking.getStart(), booking.getEnd(),
+                clock.millis())), List.of(reminder), journal.getLastSequence());
+
+        crashAndRestart();
+        assertEquals(1, dispatcher.runOnce());
+        clock.advance(Duration.ofHours(3));
+        assertEquals(0, dispatcher.runOnce());
+        assertEquals(List.of(NotificationKind.CONFIRMATION, NotificationKind.CANCELLATION),
+                email.received.stream().map(Notification::kind).toList());
+    }
+
+    @Test
+    void damagedFrameBeforeValidOnesFailsLoudly() throws Exception {
+        Path file = dir.resolve("queue.log");
+        NotificationQueue writer = new NotificationQueue(file, true, 1 << 20);
+        for (int i = 0; i < 3; i++) {
+            writer.enqueue(List.of(Notification.of(NotificationKind.CONFIRMATION, NotificationChannel.EMAIL,
+                    "driver" + i + "@mail.com", i, 1, i, 0, HOUR, 1000)), i + 1);
+        }
+        writer.close();
+        byte[] intact = Files.readAllBytes(file);
+        int frame = intact.length / 3;
+
+        // damage in the last frame: a crash mid-write, cut off
+        byte[] bytes = intact.clone();
+        bytes[bytes.length - 3] ^= 0x10;
+        Files.write(file, bytes);
+        NotificationQueue reopened = new NotificationQueue(file, true, 1 << 20);
+        assertEquals(2, reopened.size());
+        reopened.close();
+
+        // damage in the first frame, with two good ones after it
+        bytes = intact.clone();
+        bytes[frame - 3] ^= 0x10;
+        Files.write(file, bytes);
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new NotificationQueue(file, true, 1 << 20));
+        assertTrue(e.getMessage().contains("corrupt"));
+        assertEquals(intact.length, Files.size(file), "nothing is cut off");
+    }
+
+    @Test
+    void queueKeepsPendingWorkAcrossCompactionAndATornTail() throws Exception {
+        Path file = dir.resolve("queue.log");
+        NotificationQueue small = new NotificationQueue(file, true, 1024);
+        List<Notification> batch = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            batch.add(Notification.of(NotificationKind.REMINDER, NotificationChannel.SMS, "+9477" + i,
+                    i, 1, i, 0, HOUR, 1000 + i));
+        }
+        List<Notification> stored = small.enqueue(batch, 17);
+        small.reschedule(stored.subList(0, 2), 5000);
+        small.finish(stored.subList(2, 35).stream().map(Notification::id).toList());
+        assertEquals(1L, small.metrics().get("compactions"));
+        small.close();
+
+        Files.write(file, new byte[]{0, 0, 1, 0, 9, 9, 9, 9, 1, 2}, StandardOpenOption.APPEND);
+        NotificationQueue reopened = new NotificationQueue(file, true, 1024);
+        assertEquals(7, reopened.size());
+        assertEquals(17, reopened.getLastSourceSequence());
+        assertEquals(1, reopened.get(stored.get(0).id()).attempts());
+        assertEquals(5000, reopened.get(stored.get(1).id()).dueAt());
+        // ids keep counting up after a restart
+        assertEquals(41, reopened.enqueue(List.of(batch.get(0)), 18).get(0).id());
+        reopened.close();
+    }
+
+    private static final class RecordingSender implements NotificationSender {
+        private final NotificationChannel channel;
+        private final List<Notification> received = new ArrayList<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private boolean failing;
+        private int calls;
+
+        RecordingSender(NotificationChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public NotificationChannel channel() {
+            return channel;
+        }
+
+        @Override
+        public void send(List<Notification> batch) {
+            calls++;
+            if (failing) {
+                throw new IllegalStateException("gateway unavailable");
+            }
+            received.addAll(batch);
+            batchSizes.add(batch.size());
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
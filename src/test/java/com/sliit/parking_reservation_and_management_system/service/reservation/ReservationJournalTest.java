@@ -0,0 +1,219 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private ReservationJournal open() {
+        return new ReservationJournal(dir, 2048, false, 2);
+    }
+
+    // Appended in batches of ten, so small segments fill up and roll
+    private static void appendInBatches(ReservationJournal journal, int n) {
+        for (int i = 0; i < n; i += 10) {
+            journal.append(events(Math.min(10, n - i)));
+        }
+    }
+
+    private static List<ReservationEvent> events(int n) {
+        List<ReservationEvent> events = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            events.add(new ReservationEvent(0, 1_000 + i, ReservationEventType.RESERVED, 1, i % 7, i + 1,
+                    "driver" + i + "@mail.com", 10_000, 20_000));
+        }
+        return events;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    @Test
+    void appendNumbersEventsAndRollsSegments() throws IOException {
+        ReservationJournal journal = open();
+        List<ReservationEvent> stored = journal.append(events(10));
+        appendInBatches(journal, 90);
+
+        assertEquals(1, stored.get(0).sequence());
+        assertEquals(100, journal.getLastSequence());
+        assertTrue(segmentFiles().size() > 1);
+
+        List<ReservationEvent> all = journal.read(0, 1000);
+        assertEquals(100, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(i + 1, all.get(i).sequence());
+            assertEquals("driver" + (i % 10) + "@mail.com", all.get(i).customerEmail());
+        }
+        List<ReservationEvent> page = journal.read(50, 10);
+        assertEquals(51, page.get(0).sequence());
+        assertEquals(60, page.get(9).sequence());
+    }
+
+    @Test
+    void eventsSurviveRestartAndTornTailIsDropped() throws IOException {
+        ReservationJournal journal = open();
+        journal.append(events(10));
+        journal.close();
+
+        // crash halfway through writing the next record
+        List<Path> segments = segmentFiles();
+        Files.write(segments.get(segments.size() - 1), new byte[]{0, 0, 0, 70, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        ReservationJournal reopened = open();
+        assertEquals(10, reopened.getLastSequence());
+        assertEquals(11, reopened.append(events(1).get(0)).sequence());
+        assertEquals(11, reopened.read(0, 100).size());
+    }
+
+    @Test
+    void checksumMismatchInTailCutsTheLogThere() throws IOException {
+        ReservationJournal journal = new ReservationJournal(dir, 1 << 20, false, 2);
+        journal.append(events(10));
+        journal.close();
+
+        // flip a byte inside the payload of the 6th record (records are 8 + 59 + email bytes)
+        Path segment = segmentFiles().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        long offset = 0;
+        for (int i = 0; i < 5; i++) {
+            offset += 8 + 59 + ("driver" + i + "@mail.com").length();
+        }
+        bytes[(int) offset + 20] ^= 0x40;
+        Files.write(segment, bytes);
+
+        ReservationJournal reopened = new ReservationJournal(dir, 1 << 20, false, 2);
+        assertEquals(5, reopened.getLastSequence());
+        assertEquals(5, reopened.read(0, 100).size());
+    }
+
+    @Test
+    void corruptionBeforeTheTailFailsLoudly() throws IOException {
+        ReservationJournal journal = open();
+        appendInBatches(journal, 100);
+        journal.close();
+
+        Path first = segmentFiles().get(0);
+        byte[] bytes = Files.readAllBytes(first);
+        bytes[30] ^= 0x01;
+        Files.write(first, bytes);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, this::open);
+        assertTrue(e.getMessage().contains("corrupt"));
+    }
+
+    @Test
+    void consumerPositionsSurviveRestart() {
+        ReservationJournal journal = open();
+        journal.append(events(5));
+        assertEquals(5, journal.registerConsumer("notifications"));
+        journal.append(events(20));
+
+        List<ReservationEvent> batch = journal.poll("notifications", 8);
+        assertEquals(6, batch.get(0).sequence());
+        assertEquals(8, batch.size());
+        journal.acknowledge("notifications", batch.get(batch.size() - 1).sequence());
+        journal.close();
+
+        ReservationJournal reopened = open();
+        assertEquals(13, reopened.registerConsumer("notifications"));
+        assertEquals(14, reopened.poll("notifications", 1).get(0).sequence());
+        assertThrows(IllegalArgumentException.class, () -> reopened.poll("unknown", 1));
+    }
+
+    @Test
+    void sequencesAConsumerSawAreNotReusedAfterTheyWereLost() throws IOException {
+        ReservationJournal journal = new ReservationJournal(dir, 1 << 20, false, 2);
+        journal.registerConsumer("notifications");
+        journal.append(events(10));
+        journal.acknowledge("notifications", 10);
+        journal.close();
+
+        // fsync off: only the first three records made it to disk before the crash
+        Path segment = segmentFiles().get(0);
+        long synced = 0;
+        for (int i = 0; i < 3; i++) {
+            synced += 8 + 59 + ("driver" + i + "@mail.com").length();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(synced);
+        }
+
+        ReservationJournal reopened = new ReservationJournal(dir, 1 << 20, false, 2);
+        assertEquals(10, reopened.getLastSequence());
+        assertEquals(11, reopened.append(events(1).get(0)).sequence());
+        assertEquals(11, reopened.poll("notifications", 10).get(0).sequence());
+        assertEquals(List.of(1L, 2L, 3L, 11L), reopened.read(0, 100).stream().map(ReservationEvent::sequence).toList());
+        reopened.close();
+
+        // the gap is expected from now on
+        ReservationJournal again = new ReservationJournal(dir, 1 << 20, false, 2);
+        assertEquals(11, again.getLastSequence());
+        assertEquals(4, again.replay(0, event -> { }));
+    }
+
+    @Test
+    void snapshotSyncsTheEventsItCovers() {
+        ReservationJournal journal = new ReservationJournal(dir, 1 << 20, false, 2);
+        journal.append(events(10));
+        assertEquals(0L, journal.metrics().get("syncs"));
+
+        journal.writeSnapshot(10, new byte[]{1});
+        assertEquals(1L, journal.metrics().get("syncs"));
+        assertThrows(IllegalArgumentException.class, () -> journal.writeSnapshot(11, new byte[]{1}));
+    }
+
+    @Test
+    void snapshotsDropOnlySegmentsEveryoneIsDoneWith() throws IOException {
+        ReservationJournal journal = open();
+        journal.registerConsumer("slow");
+        appendInBatches(journal, 200);
+        journal.acknowledge("slow", 10);
+
+        journal.writeSnapshot(150, new byte[]{1});
+        journal.writeSnapshot(200, new byte[]{2});
+        // the consumer still needs event 11 onwards
+        assertEquals(11, journal.poll("slow", 1).get(0).sequence());
+        int before = segmentFiles().size();
+
+        journal.acknowledge("slow", 200);
+        journal.writeSnapshot(200, new byte[]{2});
+        assertTrue(segmentFiles().size() < before);
+        // only what the older kept snapshot (150) needs is left, plus the active segment
+        assertTrue(journal.getFirstSequence() <= 151);
+        assertEquals(200, journal.latestSnapshot().orElseThrow().sequence());
+    }
+
+    @Test
+    void damagedSnapshotFallsBackToTheOlderOne() throws IOException {
+        ReservationJournal journal = open();
+        journal.append(events(10));
+        journal.writeSnapshot(5, new byte[]{5, 5});
+        journal.writeSnapshot(10, new byte[]{10, 10});
+
+        Path newest = dir.resolve(String.format("snapshot-%020d.snap", 10));
+        byte[] bytes = Files.readAllBytes(newest);
+        bytes[bytes.length - 1] ^= 0x7f;
+        Files.write(newest, bytes);
+
+        ReservationJournal.Snapshot snapshot = journal.latestSnapshot().orElseThrow();
+        assertEquals(5, snapshot.sequence());
+        assertArrayEquals(new byte[]{5, 5}, snapshot.state());
+    }
+}
@@ -0,0 +1,103 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Restart time for a node with millions of reservation events behind it: full log replay
+ * versus newest snapshot plus log tail. fsync is off so generating the history stays quick;
+ * it does not affect recovery.
+ * Not part of the normal build; run with: mvn test -Dtest=ReservationRecoveryBenchmark
+ */
+class ReservationRecoveryBenchmark {
+
+    private static final int LOTS = 200;
+    private static final int SLOTS_PER_LOT = 100;
+    private static final int EVENTS = 3_000_000;
+    private static final int TAIL_EVENTS = 100_000;
+    private static final long HOUR = 3_600_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoveryTime() {
+        ReservationJournal journal = new ReservationJournal(dir, 64L * 1024 * 1024, false, 2);
+        ReservationStore store = new ReservationStore(journal, Long.MAX_VALUE, Clock.systemUTC());
+
+        long began = System.nanoTime();
+        for (long lot = 1; lot <= LOTS; lot++) {
+            for (long slot = 1; slot <= SLOTS_PER_LOT; slot++) {
+                store.addSlot(lot, slot);
+            }
+        }
+        // each booking is reserved, checked in and out (3 events); one in ten is still open
+        long booking = 0;
+        while (journal.getLastSequence() < EVENTS - TAIL_EVENTS) {
+            booking = book(store, booking);
+        }
+        store.snapshot();
+        while (journal.getLastSequence() < EVENTS) {
+            booking = book(store, booking);
+        }
+        double writeSeconds = (System.nanoTime() - began) / 1e9;
+        Map<String, Object> written = store.metrics();
+        byte[] expected = store.toSnapshot();
+        journal.close();
+        System.out.printf("wrote %,d events in %.1f s (%,.0f events/s), log %,d bytes in %d segments, %d active reservations%n",
+                journal.getLastSequence(), writeSeconds, journal.getLastSequence() / writeSeconds,
+                (Long) written.get("bytes"), (Integer) written.get("segments"), (Integer) written.get("activeReservations"));
+
+        // snapshot + tail
+        ReservationJournal reopened = new ReservationJournal(dir, 64L * 1024 * 1024, false, 2);
+        ReservationStore fromSnapshot = new ReservationStore(reopened, Long.MAX_VALUE, Clock.systemUTC());
+        check(expected, fromSnapshot);
+        report("snapshot + tail", fromSnapshot.metrics());
+        reopened.close();
+
+        // full replay: same log, snapshot ignored
+        ReservationJournal noSnapshot = new ReservationJournal(dir, 64L * 1024 * 1024, false, 2) {
+            @Override
+            public Optional<Snapshot> latestSnapshot() {
+                return Optional.empty();
+            }
+        };
+        ReservationStore replayed = new ReservationStore(noSnapshot, Long.MAX_VALUE, Clock.systemUTC());
+        check(expected, replayed);
+        report("full replay", replayed.metrics());
+        noSnapshot.close();
+    }
+
+    private static long book(ReservationStore store, long booking) {
+        booking++;
+        long lot = booking % LOTS + 1;
+        long slot = (booking / LOTS) % SLOTS_PER_LOT + 1;
+        long start = (booking / (LOTS * SLOTS_PER_LOT)) * HOUR;
+        Reservation reservation = store.reserve(lot, slot, "driver" + (booking % 50_000) + "@mail.com",
+                start, start + HOUR);
+        if (booking % 10 != 0) {
+            store.checkIn(reservation.getId());
+            store.checkOut(reservation.getId());
+        }
+        return booking;
+    }
+
+    private static void check(byte[] expected, ReservationStore recovered) {
+        if (!Arrays.equals(expected, recovered.toSnapshot())) {
+            throw new IllegalStateException("Recovered state differs from the state before the restart");
+        }
+    }
+
+    private static void report(String name, Map<String, Object> metrics) {
+        long millis = (Long) metrics.get("recoveryMillis");
+        long events = (Long) metrics.get("recoveryReplayedEvents");
+        System.out.printf("%-16s recovered in %,6d ms, replayed %,9d events (snapshot at %,d)%n",
+                name, millis, events, (Long) metrics.get("recoveredFromSnapshot"));
+    }
+}
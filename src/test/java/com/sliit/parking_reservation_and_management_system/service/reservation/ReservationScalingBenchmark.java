@@ -0,0 +1,98 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking throughput of the partitioned reservation engine as partitions (worker threads)
+ * are added: 1, 2, 4, ... up to twice the available processors. As many producer threads as
+ * partitions keep a window of bookings in flight against 256 lots. Partitions beyond the
+ * core count cannot run in parallel; on a single-core machine what gain remains comes from
+ * fuller batches per log append, not from the extra threads.
+ * fsync is off so the log's disk flush does not hide the scaling; the second table turns it
+ * on to show group commit (one fsync per partition batch).
+ * Not part of the normal build; run with: mvn test -Dtest=ReservationScalingBenchmark
+ */
+class ReservationScalingBenchmark {
+
+    private static final int LOTS = 256;
+    private static final int SLOTS_PER_LOT = 50;
+    private static final int BOOKINGS = 400_000;
+    private static final int FSYNC_BOOKINGS = 40_000;
+    private static final int WINDOW = 512;
+    private static final long HOUR = 3_600_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void throughputByPartitionCount() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d available processors%n", cores);
+        run(2, false, BOOKINGS);     // warm-up
+        for (boolean fsync : new boolean[]{false, true}) {
+            System.out.printf("%nfsync=%s%n%10s %14s %10s%n", fsync, "partitions", "bookings/s", "speed-up");
+            double base = 0;
+            for (int partitions = 1; partitions <= Math.max(4, cores * 2); partitions *= 2) {
+                double rate = run(partitions, fsync, fsync ? FSYNC_BOOKINGS : BOOKINGS);
+                if (base == 0) {
+                    base = rate;
+                }
+                System.out.printf("%10d %,14.0f %9.2fx%n", partitions, rate, rate / base);
+            }
+        }
+    }
+
+    private double run(int partitions, boolean fsync, int bookings) throws Exception {
+        Path runDir = Files.createTempDirectory(dir, "run");
+        ReservationJournal journal = new ReservationJournal(runDir, 64L * 1024 * 1024, fsync, 2);
+        ReservationStore store = new ReservationStore(journal, Long.MAX_VALUE, partitions,
+                ReservationStore.DEFAULT_MAX_BATCH, Clock.systemUTC());
+        List<CompletableFuture<Boolean>> slots = new ArrayList<>();
+        for (long lot = 1; lot <= LOTS; lot++) {
+            for (long slot = 1; slot <= SLOTS_PER_LOT; slot++) {
+                slots.add(store.addSlotAsync(lot, slot));
+            }
+        }
+        slots.forEach(CompletableFuture::join);
+
+        AtomicLong next = new AtomicLong();
+        Thread[] producers = new Thread[partitions];
+        long began = System.nanoTime();
+        for (int p = 0; p < partitions; p++) {
+            producers[p] = new Thread(() -> {
+                List<CompletableFuture<Reservation>> window = new ArrayList<>(WINDOW);
+                long booking;
+                while ((booking = next.getAndIncrement()) < bookings) {
+                    // every booking gets its own (lot, slot, hour), so none is refused
+                    long lot = booking % LOTS + 1;
+                    long slot = (booking / LOTS) % SLOTS_PER_LOT + 1;
+                    long start = (booking / (LOTS * SLOTS_PER_LOT)) * HOUR;
+                    window.add(store.reserveAsync(lot, slot, "driver" + (booking % 10_000) + "@mail.com",
+                            start, start + HOUR));
+                    if (window.size() == WINDOW) {
+                        window.forEach(CompletableFuture::join);
+                        window.clear();
+                    }
+                }
+                window.forEach(CompletableFuture::join);
+            });
+            producers[p].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+        store.shutdown();
+        journal.close();
+        return bookings / seconds;
+    }
+}
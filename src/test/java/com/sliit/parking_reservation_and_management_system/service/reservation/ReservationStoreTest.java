@@ -0,0 +1,346 @@
+package com.sliit.parking_reservation_and_management_system.service.reservation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationStoreTest {
+
+    private static final long HOUR = 3_600_000;
+    private static final long T0 = Instant.parse("2026-03-02T08:00:00Z").toEpochMilli();
+
+    @TempDir
+    Path dir;
+
+    private ReservationJournal journal;
+
+    private ReservationStore open() {
+        return open(0);
+    }
+
+    private ReservationStore open(int partitions) {
+        journal = new ReservationJournal(dir, 4096, true, 2);
+        return new ReservationStore(journal, 1_000_000, partitions, ReservationStore.DEFAULT_MAX_BATCH,
+                Clock.fixed(Instant.ofEpochMilli(T0), ZoneOffset.UTC));
+    }
+
+    // A crash: nothing is flushed or snapshotted on the way down, the files are just left as they are
+    private ReservationStore crashAndRestart() {
+        return crashAndRestart(0);
+    }
+
+    private ReservationStore crashAndRestart(int partitions) {
+        journal.close();
+        return open(partitions);
+    }
+
+    private static void busyMorning(ReservationStore store) {
+        for (long slot = 1; slot <= 20; slot++) {
+            store.addSlot(1, slot);
+            store.addSlot(2, slot);
+        }
+        for (long slot = 1; slot <= 20; slot++) {
+            Reservation morning = store.reserve(1, slot, "driver" + slot + "@mail.com", T0, T0 + 2 * HOUR);
+            store.reserve(1, slot, "late" + slot + "@mail.com", T0 + 3 * HOUR, T0 + 4 * HOUR);
+            if (slot % 3 == 0) {
+                store.cancel(morning.getId());
+            } else {
+                store.checkIn(morning.getId());
+                if (slot % 2 == 0) {
+                    store.checkOut(morning.getId());
+                }
+            }
+        }
+    }
+
+    @Test
+    void stateIsRebuiltFromTheLogAfterACrash() {
+        ReservationStore store = open();
+        busyMorning(store);
+        byte[] before = store.toSnapshot();
+        long sequence = store.getLastSequence();
+
+        ReservationStore recovered = crashAndRestart();
+
+        assertArrayEquals(before, recovered.toSnapshot());
+        assertEquals(sequence, recovered.getLastSequence());
+        assertEquals(7, recovered.getOccupiedCount(1));     // odd slots not divisible by 3
+        assertEquals(sequence, ((Number) recovered.metrics().get("recoveryReplayedEvents")).longValue());
+    }
+
+    @Test
+    void recoveryLoadsTheSnapshotAndReplaysOnlyTheTail() {
+        ReservationStore store = open();
+        busyMorning(store);
+        store.snapshot();
+        long snapshotAt = store.getLastSequence();
+        Reservation extra = store.reserve(2, 5, "evening@mail.com", T0 + 10 * HOUR, T0 + 11 * HOUR);
+        store.checkIn(extra.getId());
+        byte[] before = store.toSnapshot();
+
+        ReservationStore recovered = crashAndRestart();
+
+        assertArrayEquals(before, recovered.toSnapshot());
+        assertEquals(snapshotAt, ((Number) recovered.metrics().get("recoveredFromSnapshot")).longValue());
+        assertEquals(2L, ((Number) recovered.metrics().get("recoveryReplayedEvents")).longValue());
+        assertEquals(Reservation.Status.CHECKED_IN, recovered.getReservation(extra.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void eventTornByTheCrashIsLostAndNothingElse() throws IOException {
+        ReservationStore store = open();
+        busyMorning(store);
+        byte[] before = store.toSnapshot();
+
+        Path tail;
+        try (Stream<Path> files = Files.list(dir)) {
+            tail = files.filter(p -> p.toString().endsWith(".log")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        Files.write(tail, new byte[]{0, 0, 0, 90, 7, 7, 7, 7, 1}, StandardOpenOption.APPEND);
+
+        ReservationStore recovered = crashAndRestart();
+        assertArrayEquals(before, recovered.toSnapshot());
+        // and the log keeps going from where the intact part ended
+        assertTrue(recovered.addSlot(3, 1));
+    }
+
+    @Test
+    void damagedSnapshotFallsBackToAFullReplay() throws IOException {
+        ReservationStore store = open();
+        busyMorning(store);
+        store.snapshot();
+        byte[] before = store.toSnapshot();
+
+        Path snapshot;
+        try (Stream<Path> files = Files.list(dir)) {
+            snapshot = files.filter(p -> p.toString().endsWith(".snap")).findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(snapshot, bytes);
+
+        ReservationStore recovered = crashAndRestart();
+        assertArrayEquals(before, recovered.toSnapshot());
+        assertEquals(0L, ((Number) recovered.metrics().get("recoveredFromSnapshot")).longValue());
+    }
+
+    @Test
+    void rejectedChangesAreNeverLogged() {
+        ReservationStore store = open();
+        store.addSlot(1, 1);
+        Reservation booked = store.reserve(1, 1, "a@mail.com", T0, T0 + HOUR);
+        long sequence = journal.getLastSequence();
+
+        assertThrows(IllegalStateException.class, () -> store.reserve(1, 1, "b@mail.com", T0 + HOUR / 2, T0 + 2 * HOUR));
+        assertThrows(IllegalArgumentException.class, () -> store.reserve(1, 2, "b@mail.com", T0, T0 + HOUR));
+        assertThrows(IllegalStateException.class, () -> store.checkOut(booked.getId()));
+        assertThrows(IllegalStateException.class, () -> store.removeSlot(1, 1));
+        assertFalse(store.addSlot(1, 1));
+        assertEquals(sequence, journal.getLastSequence());
+
+        // back-to-back bookings are fine
+        Reservation next = store.reserve(1, 1, "b@mail.com", T0 + HOUR, T0 + 2 * HOUR);
+        assertEquals(List.of(), store.freeSlots(1, T0, T0 + 2 * HOUR, 10));
+        assertEquals(List.of(1L), store.freeSlots(1, T0 + 2 * HOUR, T0 + 3 * HOUR, 10));
+
+        // but the next driver cannot check in while the first is still parked
+        store.checkIn(booked.getId());
+        sequence = journal.getLastSequence();
+        assertThrows(IllegalStateException.class, () -> store.checkIn(next.getId()));
+        assertEquals(sequence, journal.getLastSequence());
+        assertEquals(Reservation.Status.BOOKED, store.getReservation(next.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void concurrentBookingsAcrossPartitionsNeverDoubleBookASlot() throws Exception {
+        ReservationStore store = open(4);
+        for (long lot = 1; lot <= 8; lot++) {
+            for (long slot = 1; slot <= 5; slot++) {
+                store.addSlot(lot, slot);
+            }
+        }
+        Set<Integer> used = new HashSet<>();
+        for (long lot = 1; lot <= 8; lot++) {
+            used.add(store.partitionOf(lot));
+        }
+        assertEquals(4, used.size(), "new lots are spread over all partitions");
+
+        // 6 threads all try to book every slot for the same hour; exactly one wins each
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(6);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < 6; t++) {
+            int driver = t;
+            done.add(threads.submit(() -> {
+                for (long lot = 1; lot <= 8; lot++) {
+                    for (long slot = 1; slot <= 5; slot++) {
+                        try {
+                            store.reserve(lot, slot, "driver" + driver + "@mail.com", T0, T0 + HOUR);
+                            booked.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            refused.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : done) {
+            f.get();
+        }
+        threads.shutdown();
+
+        assertEquals(40, booked.get());
+        assertEquals(200, refused.get());
+        assertEquals(80, journal.getLastSequence());    // 40 slots + 40 bookings, refusals not logged
+        assertEquals(List.of(), store.findFreeSlots(T0, T0 + HOUR, 10));
+
+        byte[] before = store.toSnapshot();
+        ReservationStore recovered = crashAndRestart(3);
+        assertArrayEquals(before, recovered.toSnapshot());
+    }
+
+    @Test
+    void cityWideSearchMergesEveryPartition() {
+        ReservationStore store = open(3);
+        for (long lot = 1; lot <= 6; lot++) {
+            for (long slot = 1; slot <= 3; slot++) {
+                store.addSlot(lot, slot);
+            }
+        }
+        // lots 1 and 2 are full for the morning, lot 3 has only slot 3 left
+        for (long slot = 1; slot <= 3; slot++) {
+            store.reserve(1, slot, "a@mail.com", T0, T0 + 2 * HOUR);
+            store.reserve(2, slot, "b@mail.com", T0, T0 + 2 * HOUR);
+        }
+        store.reserve(3, 1, "c@mail.com", T0, T0 + 2 * HOUR);
+        store.reserve(3, 2, "c@mail.com", T0, T0 + 2 * HOUR);
+
+        assertEquals(List.of(new ReservationStore.FreeSlot(3, 3), new ReservationStore.FreeSlot(4, 1),
+                        new ReservationStore.FreeSlot(4, 2), new ReservationStore.FreeSlot(4, 3)),
+                store.findFreeSlots(T0 + HOUR, T0 + 3 * HOUR, 4));
+        assertEquals(10, store.findFreeSlots(T0 + HOUR, T0 + 3 * HOUR, 100).size());
+        assertEquals(18, store.findFreeSlots(T0 + 2 * HOUR, T0 + 3 * HOUR, 100).size());
+    }
+
+    @Test
+    void rebalanceMovesGrownLotsWhileTheyKeepTakingBookings() throws Exception {
+        ReservationStore store = open(2);
+        for (long lot = 1; lot <= 4; lot++) {
+            store.addSlot(lot, 1);
+        }
+        int crowded = store.partitionOf(1);
+        assertEquals(crowded, store.partitionOf(3));
+        assertNotEquals(crowded, store.partitionOf(2));
+        // lots 1 and 3 grow after they were placed: 42 slots against 2
+        for (long slot = 2; slot <= 21; slot++) {
+            store.addSlot(1, slot);
+            store.addSlot(3, slot);
+        }
+
+        // keep booking lot 1 while lots move
+        CompletableFuture<Integer> bookings = CompletableFuture.supplyAsync(() -> {
+            int count = 0;
+            for (long hour = 0; hour < 50; hour++) {
+                for (long slot = 1; slot <= 21; slot += 5) {
+                    Reservation r = store.reserve(1, slot, "busy@mail.com", T0 + hour * HOUR, T0 + (hour + 1) * HOUR);
+                    store.checkIn(r.getId());
+                    store.checkOut(r.getId());
+                    count++;
+                }
+            }
+            return count;
+        });
+        int moved = store.rebalance();
+        assertEquals(250, bookings.get());
+
+        assertTrue(moved >= 1);
+        assertEquals(moved, ((Number) store.metrics().get("lotsMoved")).intValue());
+        List<?> partitions = (List<?>) store.metrics().get("partitions");
+        int first = (Integer) ((java.util.Map<?, ?>) partitions.get(0)).get("slots");
+        int second = (Integer) ((java.util.Map<?, ?>) partitions.get(1)).get("slots");
+        assertEquals(44, first + second);
+        assertTrue(Math.abs(first - second) <= 2, first + " vs " + second);
+
+        // every lot still answers, wherever it lives now
+        for (long lot = 1; lot <= 4; lot++) {
+            assertFalse(store.addSlot(lot, 1));
+        }
+        Reservation late = store.reserve(3, 21, "late@mail.com", T0, T0 + HOUR);
+        assertEquals(Reservation.Status.BOOKED, store.getReservation(late.getId()).orElseThrow().getStatus());
+
+        byte[] before = store.toSnapshot();
+        ReservationStore recovered = crashAndRestart(2);
+        assertArrayEquals(before, recovered.toSnapshot());
+    }
+
+    @Test
+    void asyncChangesReportValidationErrorsThroughTheFuture() {
+        ReservationStore store = open(2);
+        store.addSlot(1, 1);
+        CompletableFuture<Reservation> first = store.reserveAsync(1, 1, "a@mail.com", T0, T0 + HOUR);
+        CompletableFuture<Reservation> second = store.reserveAsync(1, 1, "b@mail.com", T0, T0 + HOUR);
+
+        assertEquals("a@mail.com", first.join().getCustomerEmail());
+        CompletionException refused = assertThrows(CompletionException.class, second::join);
+        assertInstanceOf(IllegalStateException.class, refused.getCause());
+        assertThrows(IllegalArgumentException.class, () -> store.cancel(999));
+        assertThrows(IllegalArgumentException.class, () -> store.reserve(7, 1, "a@mail.com", T0, T0 + HOUR));
+    }
+
+    @Test
+    void emailTooLongForTheLogIsRefusedWithoutStoppingThePartition() {
+        ReservationStore store = open(2);
+        store.addSlot(1, 1);
+        long sequence = journal.getLastSequence();
+
+        String huge = "x".repeat(70_000) + "@mail.com";
+        CompletionException refused = assertThrows(CompletionException.class,
+                () -> store.reserveAsync(1, 1, huge, T0, T0 + HOUR).join());
+        assertInstanceOf(IllegalArgumentException.class, refused.getCause());
+        assertEquals(sequence, journal.getLastSequence());
+
+        assertEquals(List.of(1L), store.freeSlots(1, T0, T0 + HOUR, 10));
+        assertEquals("a@mail.com", store.reserve(1, 1, "a@mail.com", T0, T0 + HOUR).getCustomerEmail());
+    }
+
+    @Test
+    void emailThatFitsTheLogButNotTheSnapshotIsRefused() {
+        ReservationStore store = open(2);
+        store.addSlot(1, 1);
+        store.addSlot(1, 2);
+
+        // 4 bytes per character in UTF-8, 6 in the snapshot's modified UTF-8
+        String emoji = "\uD83D\uDE97";
+        String tooLong = emoji.repeat(12_000) + "@mail.com";
+        CompletionException refused = assertThrows(CompletionException.class,
+                () -> store.reserveAsync(1, 1, tooLong, T0, T0 + HOUR).join());
+        assertInstanceOf(IllegalArgumentException.class, refused.getCause());
+
+        String nearLimit = emoji.repeat(10_000) + "@mail.com";
+        Reservation kept = store.reserve(1, 2, nearLimit, T0, T0 + HOUR);
+        store.snapshot();
+        ReservationStore recovered = crashAndRestart(2);
+        assertEquals(nearLimit, recovered.getReservation(kept.getId()).orElseThrow().getCustomerEmail());
+    }
+}
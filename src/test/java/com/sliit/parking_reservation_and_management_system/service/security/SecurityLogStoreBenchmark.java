@@ -0,0 +1,87 @@
+package com.sliit.parking_reservation_and_management_system.service.security;
+
+import com.sliit.parking_reservation_and_management_system.LatencyStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Ingestion rate and time-window query latency over three months of synthetic CCTV logs.
+ * Not part of the normal build; run with: mvn test -Dtest=SecurityLogStoreBenchmark
+ */
+class SecurityLogStoreBenchmark {
+
+    private static final int DAYS = 90;
+    private static final int SOURCES = 100;
+    private static final long STEP = Duration.ofMinutes(5).toMillis();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void threeMonthsOfLogs() {
+        long start = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+        long end = start + Duration.ofDays(DAYS).toMillis();
+        SecurityLogStore store = new SecurityLogStore(dir, Duration.ofHours(1), Duration.ofDays(365), 200_000,
+                Clock.fixed(Instant.ofEpochMilli(end), ZoneOffset.UTC));
+        Random random = new Random(11);
+
+        long began = System.nanoTime();
+        long total = 0;
+        List<SecurityLogRecord> batch = new ArrayList<>(SOURCES);
+        for (long ts = start; ts < end; ts += STEP) {
+            batch.clear();
+            for (int s = 0; s < SOURCES; s++) {
+                // each camera only reports in some intervals, like motion-triggered recording
+                if (random.nextInt(3) == 0) {
+                    continue;
+                }
+                batch.add(new SecurityLogRecord(ts + random.nextInt((int) STEP), SecurityLogKind.CCTV,
+                        "CAM-" + s, "motion detected zone " + random.nextInt(8)));
+            }
+            store.appendAll(batch);
+            total += batch.size();
+        }
+        long ingestMs = (System.nanoTime() - began) / 1_000_000;
+        System.out.printf("Ingested %d records in %d ms (%.0f records/s), %d segments%n",
+                total, ingestMs, total * 1000.0 / Math.max(1, ingestMs), store.segmentCount());
+
+        began = System.nanoTime();
+        store.compact();
+        System.out.printf("Compacted in %d ms, %d segments%n",
+                (System.nanoTime() - began) / 1_000_000, store.segmentCount());
+
+        LatencyStats hour = new LatencyStats();
+        LatencyStats day = new LatencyStats();
+        LatencyStats week = new LatencyStats();
+        for (int i = 0; i < 2_000; i++) {
+            String source = "CAM-" + random.nextInt(SOURCES);
+            long from = start + (long) (random.nextDouble() * (end - start - Duration.ofDays(7).toMillis()));
+
+            long t = System.nanoTime();
+            store.query(source, null, from, from + Duration.ofHours(1).toMillis(), 1000);
+            hour.record(System.nanoTime() - t);
+
+            t = System.nanoTime();
+            store.query(source, null, from, from + Duration.ofDays(1).toMillis(), 1000);
+            day.record(System.nanoTime() - t);
+
+            t = System.nanoTime();
+            store.query(source, SecurityLogKind.INCIDENT, from, from + Duration.ofDays(7).toMillis(), 1000);
+            week.record(System.nanoTime() - t);
+        }
+        System.out.println(hour.summary("1 camera, 1 hour"));
+        System.out.println(day.summary("1 camera, 1 day"));
+        System.out.println(week.summary("1 camera, 7 days, incidents"));
+        System.out.printf("Segments read %d, skipped %d%n", store.getSegmentsRead(), store.getSegmentsSkipped());
+        store.close();
+    }
+}
@@ -0,0 +1,250 @@
+package com.sliit.parking_reservation_and_management_system.service.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityLogStoreTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final long T0 = Instant.parse("2026-02-01T00:00:00Z").toEpochMilli();
+
+    @TempDir
+    Path dir;
+
+    private SecurityLogStore open(Instant now) {
+        return new SecurityLogStore(dir, Duration.ofHours(1), Duration.ofDays(30), 1000,
+                Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static SecurityLogRecord cctv(long ts, String source) {
+        return new SecurityLogRecord(ts, SecurityLogKind.CCTV, source, "motion at " + ts);
+    }
+
+    @Test
+    void queryBySourceAndWindowSkipsOtherSegments() {
+        SecurityLogStore store = open(Instant.ofEpochMilli(T0 + 48 * HOUR));
+        List<SecurityLogRecord> records = new ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            for (int minute = 0; minute < 60; minute += 10) {
+                long ts = T0 + hour * HOUR + minute * 60_000L;
+                records.add(cctv(ts, "CAM-" + (hour % 4)));
+                records.add(cctv(ts, "GATE-1"));
+            }
+        }
+        store.appendAll(records);
+        store.append(new SecurityLogRecord(T0 + 5 * HOUR + 1, SecurityLogKind.INCIDENT, "GATE-1", "tailgating"));
+
+        List<SecurityLogRecord> cam1 = store.query("CAM-1", null, T0 + HOUR, T0 + 6 * HOUR, 100);
+        assertEquals(12, cam1.size()); // hours 1 and 5, six records each
+        assertTrue(cam1.stream().allMatch(r -> r.source().equals("CAM-1")));
+        for (int i = 1; i < cam1.size(); i++) {
+            assertTrue(cam1.get(i - 1).timestamp() <= cam1.get(i).timestamp());
+        }
+        // hours 2, 3, 4 hold other cameras only
+        assertEquals(3, store.getSegmentsSkipped());
+        assertEquals(2, store.getSegmentsRead());
+
+        List<SecurityLogRecord> incidents = store.query("GATE-1", SecurityLogKind.INCIDENT, T0, T0 + 24 * HOUR, 100);
+        assertEquals(1, incidents.size());
+        assertEquals("tailgating", incidents.get(0).message());
+
+        assertEquals(5, store.query(null, null, T0, T0 + 24 * HOUR, 5).size());
+    }
+
+    @Test
+    void recordsSurviveRestartAndTornTailIsDropped() throws IOException {
+        SecurityLogStore store = open(Instant.ofEpochMilli(T0));
+        store.append(cctv(T0 + 1, "CAM-1"));
+        store.append(cctv(T0 + 2, "CAM-1"));
+
+        // simulate a crash in the middle of writing a record (never sealed, so no sidecar)
+        Path segment = segmentFiles().get(0);
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        SecurityLogStore reopened = open(Instant.ofEpochMilli(T0));
+        assertEquals(2, reopened.query("CAM-1", null, T0, T0 + HOUR, 10).size());
+        reopened.append(cctv(T0 + 3, "CAM-1"));
+        assertEquals(3, reopened.query("CAM-1", null, T0, T0 + HOUR, 10).size());
+    }
+
+    @Test
+    void compactionMergesClosedBucketsInTimeOrder() {
+        SecurityLogStore store = open(Instant.ofEpochMilli(T0 + 10 * HOUR));
+        // out of order, and more than one segment per bucket (max 1000 records)
+        List<SecurityLogRecord> records = new ArrayList<>();
+        for (int i = 2500; i > 0; i--) {
+            records.add(cctv(T0 + i, "CAM-" + (i % 3)));
+        }
+        store.appendAll(records);
+        store.append(cctv(T0 + 10 * HOUR + 5, "CAM-1")); // current bucket, left alone
+        assertEquals(4, store.segmentCount());
+
+        assertEquals(1, store.compact());
+        assertEquals(2, store.segmentCount());
+
+        List<SecurityLogRecord> all = store.query(null, null, T0, T0 + HOUR, 10_000);
+        assertEquals(2500, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(T0 + i + 1, all.get(i).timestamp());
+        }
+        assertEquals(834, store.query("CAM-1", null, T0, T0 + HOUR, 10_000).size());
+    }
+
+    @Test
+    void crashBeforeCompactionInputsAreDeletedDoesNotDuplicateRecords() throws IOException {
+        SecurityLogStore store = open(Instant.ofEpochMilli(T0 + 10 * HOUR));
+        List<SecurityLogRecord> records = new ArrayList<>();
+        for (int i = 1; i <= 2500; i++) {
+            records.add(cctv(T0 + i, "CAM-1"));
+        }
+        store.appendAll(records);
+        store.close();
+        Path saved = Files.createDirectories(dir.resolve("saved"));
+        List<Path> inputs = segmentFiles();
+        for (Path input : inputs) {
+            Files.copy(input, saved.resolve(input.getFileName()));
+        }
+
+        assertEquals(1, store.compact());
+        // the merged segment is in place but the inputs were never deleted
+        for (Path input : inputs) {
+            Files.copy(saved.resolve(input.getFileName()), input);
+        }
+        // a late record for the compacted bucket, written after the merge
+        SecurityLogStore reopened = open(Instant.ofEpochMilli(T0 + 10 * HOUR));
+        reopened.append(cctv(T0 + 2501, "CAM-1"));
+        reopened.close();
+
+        SecurityLogStore recovered = open(Instant.ofEpochMilli(T0 + 10 * HOUR));
+        assertEquals(2501, recovered.query("CAM-1", null, T0, T0 + HOUR, 10_000).size());
+        assertEquals(2, recovered.segmentCount());
+        for (Path input : inputs) {
+            assertFalse(Files.exists(input));
+        }
+    }
+
+    @Test
+    void corruptRecordCutsOffTheRestOfAnAppendedSegment() throws IOException {
+        SecurityLogStore store = open(Instant.ofEpochMilli(T0));
+        for (int i = 1; i <= 3; i++) {
+            store.append(cctv(T0 + i, "CAM-1"));
+        }
+        // no close(): the segment was still active when we crashed
+        Path segment = segmentFiles().get(0);
+        flipByteOfSecondRecord(segment);
+
+        SecurityLogStore reopened = open(Instant.ofEpochMilli(T0));
+        assertEquals(List.of(T0 + 1), reopened.query("CAM-1", null, T0, T0 + HOUR, 10).stream()
+                .map(SecurityLogRecord::timestamp).toList());
+    }
+
+    @Test
+    void corruptCompactedSegmentIsAnError() throws IOException {
+        SecurityLogStore store = open(Instant.ofEpochMilli(T0 + 10 * HOUR));
+        for (int i = 1; i <= 3; i++) {
+            store.append(cctv(T0 + i, "CAM-1"));
+        }
+        store.compact();
+        store.close();
+        Path segment = segmentFiles().get(0);
+        flipByteOfSecondRecord(segment);
+
+        // the sidecar spares the startup scan, so the damage shows up when the records are read
+        SecurityLogStore reopened = open(Instant.ofEpochMilli(T0 + 10 * HOUR));
+        assertThrows(IllegalStateException.class, () -> reopened.query("CAM-1", null, T0, T0 + HOUR, 10));
+
+        Files.delete(dir.resolve(segment.getFileName() + LogSegment.SUMMARY_SUFFIX));
+        assertThrows(IllegalStateException.class, () -> open(Instant.ofEpochMilli(T0 + 10 * HOUR)));
+    }
+
+    @Test
+    void sealedSegmentsReopenFromTheirSidecars() throws IOException {
+        SecurityLogStore store = open(Instant.ofEpochMilli(T0 + 10 * HOUR));
+        List<SecurityLogRecord> records = new ArrayList<>();
+        for (int i = 1; i <= 2500; i++) {
+            records.add(cctv(T0 + i, "CAM-" + (i % 2)));
+        }
+        store.appendAll(records);
+        store.compact();
+        store.append(cctv(T0 + 2 * HOUR, "CAM-9"));
+        store.close();
+        for (Path segment : segmentFiles()) {
+            assertTrue(Files.exists(dir.resolve(segment.getFileName() + LogSegment.SUMMARY_SUFFIX)));
+        }
+
+        SecurityLogStore reopened = open(Instant.ofEpochMilli(T0 + 10 * HOUR));
+        List<SecurityLogRecord> window = reopened.query("CAM-1", null, T0 + 2000, T0 + 2100, 1000);
+        assertEquals(50, window.size());
+        assertEquals(T0 + 2001, window.get(0).timestamp());
+        assertTrue(reopened.query("CAM-9", null, T0, T0 + HOUR, 10).isEmpty());
+        assertEquals(1, reopened.query("CAM-9", null, T0, T0 + 3 * HOUR, 10).size());
+
+        // a sidecar that no longer matches its segment is ignored and the segment rescanned
+        Path compacted = segmentFiles().get(0);
+        Files.write(dir.resolve(compacted.getFileName() + LogSegment.SUMMARY_SUFFIX), new byte[]{1, 2, 3});
+        assertEquals(2500, open(Instant.ofEpochMilli(T0 + 10 * HOUR)).query(null, null, T0, T0 + HOUR, 10_000).size());
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().endsWith(LogSegment.SUMMARY_SUFFIX))
+                    .sorted().toList();
+        }
+    }
+
+    // The kind byte of the second record: all records here have the same length
+    private static void flipByteOfSecondRecord(Path segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        int recordLength = bytes.length / 3;
+        bytes[recordLength + 8] ^= 0x7f;
+        Files.write(segment, bytes);
+    }
+
+    @Test
+    void expiredSegmentsAreDeleted() throws IOException {
+        SecurityLogStore store = open(Instant.ofEpochMilli(T0 + Duration.ofDays(31).toMillis()));
+        store.append(cctv(T0, "CAM-1"));
+        store.append(cctv(T0 + Duration.ofDays(20).toMillis(), "CAM-1"));
+
+        assertEquals(1, store.expire());
+        assertEquals(1, store.segmentCount());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+        assertTrue(store.query("CAM-1", null, T0, T0 + HOUR, 10).isEmpty());
+    }
+
+    @Test
+    void recordWithoutSourceIsRejected() {
+        SecurityLogStore store = open(Instant.ofEpochMilli(T0));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.append(new SecurityLogRecord(T0, SecurityLogKind.CCTV, " ", "x")));
+    }
+
+    @Test
+    void batchWithAnOversizedMessageStoresNothing() {
+        SecurityLogStore store = open(Instant.ofEpochMilli(T0));
+        List<SecurityLogRecord> batch = List.of(
+                cctv(T0 + 1, "CAM-1"),
+                new SecurityLogRecord(T0 + 2, SecurityLogKind.CCTV, "CAM-1", "x".repeat(70_000)),
+                cctv(T0 + 3, "CAM-1"));
+
+        assertThrows(IllegalArgumentException.class, () -> store.appendAll(batch));
+        assertTrue(store.query("CAM-1", null, T0, T0 + HOUR, 10).isEmpty());
+    }
+}
@@ -0,0 +1,84 @@
+package com.sliit.parking_reservation_and_management_system.service.support;
+
+import com.sliit.parking_reservation_and_management_system.LatencyStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Queue and search latency with a million tickets.
+ * Not part of the normal build; run with: mvn test -Dtest=SupportTicketBenchmark
+ */
+class SupportTicketBenchmark {
+
+    private static final int TICKETS = 1_000_000;
+    private static final int VOCABULARY = 20_000;
+
+    @Test
+    void millionTickets() {
+        Random random = new Random(7);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "w" + Integer.toString(i, 36);
+        }
+        SupportTicketService service = new SupportTicketService(Duration.ofMinutes(15), Clock.systemUTC());
+
+        long began = System.nanoTime();
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < TICKETS; i++) {
+            body.setLength(0);
+            for (int w = 0; w < 12; w++) {
+                body.append(words[zipf(random)]).append(' ');
+            }
+            service.createTicket("customer" + (i % 50_000) + "@mail.com", "ticket " + i, body.toString(),
+                    TicketPriority.values()[random.nextInt(TicketPriority.values().length)]);
+        }
+        System.out.printf("Created %d tickets in %d ms%n", TICKETS, (System.nanoTime() - began) / 1_000_000);
+
+        LatencyStats oneWord = new LatencyStats();
+        LatencyStats twoWords = new LatencyStats();
+        LatencyStats byEmail = new LatencyStats();
+        for (int i = 0; i < 5_000; i++) {
+            String a = words[zipf(random)];
+            String b = words[zipf(random)];
+            long t = System.nanoTime();
+            service.search(a, 20);
+            oneWord.record(System.nanoTime() - t);
+
+            t = System.nanoTime();
+            service.search(a + " " + b, 20);
+            twoWords.record(System.nanoTime() - t);
+
+            t = System.nanoTime();
+            service.search("customer" + random.nextInt(50_000) + "@mail.com " + a, 20);
+            byEmail.record(System.nanoTime() - t);
+        }
+
+        LatencyStats claim = new LatencyStats();
+        LatencyStats resolve = new LatencyStats();
+        for (int i = 0; i < 50_000; i++) {
+            String officer = "officer" + (i % 20);
+            long t = System.nanoTime();
+            SupportTicket ticket = service.claimNext(officer).orElseThrow();
+            claim.record(System.nanoTime() - t);
+
+            t = System.nanoTime();
+            service.resolve(ticket.getId(), officer);
+            resolve.record(System.nanoTime() - t);
+        }
+
+        System.out.println(oneWord.summary("search (1 word)"));
+        System.out.println(twoWords.summary("search (2 words)"));
+        System.out.println(byEmail.summary("search (email + word)"));
+        System.out.println(claim.summary("claim next"));
+        System.out.println(resolve.summary("resolve"));
+    }
+
+    // Skewed word choice so common words have long posting lists
+    private static int zipf(Random random) {
+        double u = random.nextDouble();
+        return (int) (Math.pow(u, 3) * VOCABULARY);
+    }
+}
@@ -0,0 +1,155 @@
+package com.sliit.parking_reservation_and_management_system.service.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SupportTicketServiceTest {
+
+    // Clock the test can move forward
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-03-01T09:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+    }
+
+    @Test
+    void claimsFollowSlaOrder() {
+        MutableClock clock = new MutableClock();
+        SupportTicketService service = new SupportTicketService(Duration.ofMinutes(15), clock);
+        SupportTicket low = service.createTicket("a@mail.com", "Receipt", "Need a copy", TicketPriority.LOW);
+        clock.advance(Duration.ofMinutes(1));
+        SupportTicket urgent = service.createTicket("b@mail.com", "Gate stuck", "Cannot exit", TicketPriority.URGENT);
+        SupportTicket normal = service.createTicket("c@mail.com", "Refund", "Double charged", TicketPriority.NORMAL);
+
+        assertEquals(urgent.getId(), service.claimNext("officer1").orElseThrow().getId());
+        assertEquals(normal.getId(), service.claimNext("officer1").orElseThrow().getId());
+        assertEquals(low.getId(), service.claimNext("officer1").orElseThrow().getId());
+        assertTrue(service.claimNext("officer1").isEmpty());
+    }
+
+    @Test
+    void onlyTheOwnerCanResolve() {
+        SupportTicketService service = new SupportTicketService(Duration.ofMinutes(15), new MutableClock());
+        SupportTicket ticket = service.createTicket("a@mail.com", "Help", "Lost ticket", TicketPriority.HIGH);
+        service.claimNext("officer1");
+
+        assertThrows(IllegalStateException.class, () -> service.resolve(ticket.getId(), "officer2"));
+        service.resolve(ticket.getId(), "officer1");
+        assertEquals(TicketStatus.RESOLVED, ticket.getStatus());
+        assertThrows(IllegalArgumentException.class, () -> service.resolve(999, "officer1"));
+    }
+
+    @Test
+    void expiredLeaseReturnsTicketToQueue() {
+        MutableClock clock = new MutableClock();
+        SupportTicketService service = new SupportTicketService(Duration.ofMinutes(15), clock);
+        SupportTicket ticket = service.createTicket("a@mail.com", "Help", "Card declined", TicketPriority.HIGH);
+
+        assertEquals(ticket.getId(), service.claimNext("officer1").orElseThrow().getId());
+        clock.advance(Duration.ofMinutes(10));
+        service.renewLease(ticket.getId(), "officer1");
+        clock.advance(Duration.ofMinutes(10));
+        // renewed lease still running
+        assertTrue(service.claimNext("officer2").isEmpty());
+
+        clock.advance(Duration.ofMinutes(6));
+        SupportTicket reclaimed = service.claimNext("officer2").orElseThrow();
+        assertEquals(ticket.getId(), reclaimed.getId());
+        assertEquals("officer2", reclaimed.getClaimedBy());
+        assertThrows(IllegalStateException.class, () -> service.resolve(ticket.getId(), "officer1"));
+    }
+
+    @Test
+    void releasedTicketCanBeClaimedAgain() {
+        SupportTicketService service = new SupportTicketService(Duration.ofMinutes(15), new MutableClock());
+        SupportTicket ticket = service.createTicket("a@mail.com", "Help", "Wrong plate", TicketPriority.NORMAL);
+        service.claimNext("officer1");
+        service.release(ticket.getId(), "officer1");
+
+        assertEquals(ticket.getId(), service.claimNext("officer2").orElseThrow().getId());
+    }
+
+    @Test
+    void concurrentOfficersNeverShareATicket() throws Exception {
+        SupportTicketService service = new SupportTicketService(Duration.ofMinutes(15), new MutableClock());
+        int ticketCount = 20_000;
+        for (int i = 0; i < ticketCount; i++) {
+            service.createTicket("c" + i + "@mail.com", "Issue " + i, "body",
+                    TicketPriority.values()[i % TicketPriority.values().length]);
+        }
+
+        int officers = 8;
+        Set<Integer> claimed = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(officers);
+        for (int o = 0; o < officers; o++) {
+            String officer = "officer" + o;
+            pool.submit(() -> {
+                start.await();
+                SupportTicket ticket;
+                while ((ticket = service.claimNext(officer).orElse(null)) != null) {
+                    if (!claimed.add(ticket.getId())) {
+                        duplicates.incrementAndGet();
+                    }
+                    service.resolve(ticket.getId(), officer);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(0, duplicates.get());
+        assertEquals(ticketCount, claimed.size());
+    }
+
+    @Test
+    void searchMatchesAllWordsAndEmail() {
+        SupportTicketService service = new SupportTicketService(Duration.ofMinutes(15), new MutableClock());
+        SupportTicket refund = service.createTicket("nimal@mail.com", "Refund", "I was charged twice for slot B12", null);
+        service.createTicket("kamal@mail.com", "Refund", "Please refund my booking", null);
+        SupportTicket newer = service.createTicket("nimal@mail.com", "Gate", "Gate charged me twice", null);
+
+        List<SupportTicket> charged = service.search("Charged TWICE", 10);
+        assertEquals(List.of(newer, refund), charged);
+
+        assertEquals(List.of(refund), service.search("refund NIMAL@mail.com", 10));
+        assertEquals(List.of(newer), service.search("charged", 1));
+        assertTrue(service.search("nothing-here", 10).isEmpty());
+        assertTrue(service.search("  ", 10).isEmpty());
+    }
+}
@@ -0,0 +1,64 @@
+package com.sliit.parking_reservation_and_management_system.service.waitlist;
+
+import com.sliit.parking_reservation_and_management_system.service.reservation.Reservation;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationJournal;
+import com.sliit.parking_reservation_and_management_system.service.reservation.ReservationStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistFeederTest {
+
+    private static final long HOUR = 3_600_000;
+    private static final Instant T0 = Instant.parse("2026-03-02T08:00:00Z");
+    private static final LocalDateTime LOCAL_T0 = LocalDateTime.ofInstant(T0, ZoneOffset.UTC);
+
+    @TempDir
+    Path dir;
+
+    private ReservationJournal journal;
+    private ReservationStore store;
+
+    @AfterEach
+    void close() {
+        store.shutdown();
+        journal.close();
+    }
+
+    @Test
+    void cancelledBookingGoesToTheFirstCustomerWhoseWindowItCovers() {
+        journal = new ReservationJournal(dir, 64 * 1024, false, 2);
+        store = new ReservationStore(journal, 1_000_000, Clock.fixed(T0, ZoneOffset.UTC));
+        WaitlistService waitlist = new WaitlistService();
+        WaitlistFeeder feeder = new WaitlistFeeder(journal, store, waitlist, ZoneOffset.UTC);
+
+        store.addSlot(1, 1);
+        Reservation booked = store.reserve(1, 1, "a@mail.com", T0.toEpochMilli() + HOUR, T0.toEpochMilli() + 3 * HOUR);
+        waitlist.join("late@mail.com", 1, LOCAL_T0.plusHours(2), LOCAL_T0.plusHours(4), false, false, VehicleSize.SMALL);
+        waitlist.join("b@mail.com", 1, LOCAL_T0.plusHours(1), LOCAL_T0.plusHours(2), false, false, VehicleSize.SMALL);
+
+        feeder.feedOnce();
+        assertEquals(1, waitlist.waitingCount(1, LOCAL_T0.plusHours(1), LOCAL_T0.plusHours(2)));
+
+        store.cancel(booked.getId());
+        feeder.feedOnce();
+
+        Reservation offered = store.getReservation(booked.getId() + 1).orElseThrow();
+        assertEquals("b@mail.com", offered.getCustomerEmail());
+        assertEquals(1, offered.getSlotId());
+        assertEquals(T0.toEpochMilli() + HOUR, offered.getStart());
+        assertEquals(T0.toEpochMilli() + 2 * HOUR, offered.getEnd());
+        assertEquals(0, waitlist.waitingCount(1, LOCAL_T0.plusHours(1), LOCAL_T0.plusHours(2)));
+        // runs past the end of the freed booking
+        assertEquals(1, waitlist.waitingCount(1, LOCAL_T0.plusHours(2), LOCAL_T0.plusHours(4)));
+        assertEquals(1, feeder.feedOnce(), "only the new booking is left to read");
+    }
+}
@@ -0,0 +1,221 @@
+package com.sliit.parking_reservation_and_management_system.service.waitlist;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 5, 8, 0);
+    private static final LocalDateTime END = START.plusHours(2);
+
+    private static FreedSlot slot(long lotId, boolean ev, boolean accessible, VehicleSize size) {
+        return new FreedSlot(lotId, 1, START, END, ev, accessible, size);
+    }
+
+    @Test
+    void firstArrivalGetsThePlainSlot() {
+        WaitlistService service = new WaitlistService();
+        service.join("a@mail.com", 1, START, END, false, false, VehicleSize.SMALL);
+        service.join("b@mail.com", 1, START, END, false, false, VehicleSize.SMALL);
+
+        List<WaitlistMatch> match = service.onSlotFreed(slot(1, false, false, VehicleSize.MEDIUM));
+
+        assertEquals(1, match.size());
+        assertEquals("a@mail.com", match.get(0).entry().getCustomerEmail());
+        assertEquals(1, service.waitingCount(1, START, END));
+    }
+
+    @Test
+    void constraintsAreRespected() {
+        WaitlistService service = new WaitlistService();
+        service.join("ev@mail.com", 1, START, END, true, false, VehicleSize.MEDIUM);
+        service.join("large@mail.com", 1, START, END, false, false, VehicleSize.LARGE);
+
+        // plain medium slot fits neither customer
+        assertTrue(service.onSlotFreed(slot(1, false, false, VehicleSize.MEDIUM)).isEmpty());
+
+        List<WaitlistMatch> ev = service.onSlotFreed(slot(1, true, false, VehicleSize.MEDIUM));
+        assertEquals("ev@mail.com", ev.get(0).entry().getCustomerEmail());
+
+        List<WaitlistMatch> large = service.onSlotFreed(slot(1, false, false, VehicleSize.LARGE));
+        assertEquals("large@mail.com", large.get(0).entry().getCustomerEmail());
+    }
+
+    @Test
+    void batchKeepsSpecialSlotsForCustomersWhoNeedThem() {
+        WaitlistService service = new WaitlistService();
+        service.join("plain@mail.com", 1, START, END, false, false, VehicleSize.SMALL);
+        service.join("accessible@mail.com", 1, START, END, false, true, VehicleSize.SMALL);
+
+        // accessible slot listed first, but the plain slot is handed out first
+        List<WaitlistMatch> matches = service.onSlotsFreed(List.of(
+                slot(1, false, true, VehicleSize.SMALL),
+                slot(1, false, false, VehicleSize.SMALL)));
+
+        assertEquals(2, matches.size());
+        assertEquals("plain@mail.com", matches.get(0).entry().getCustomerEmail());
+        assertFalse(matches.get(0).slot().accessible());
+        assertEquals("accessible@mail.com", matches.get(1).entry().getCustomerEmail());
+        assertTrue(matches.get(1).slot().accessible());
+    }
+
+    @Test
+    void slotFreedForALongerRangeServesWindowsInsideIt() {
+        WaitlistService service = new WaitlistService();
+        service.join("overlap@mail.com", 1, START.minusHours(1), START.plusHours(1), false, false, VehicleSize.SMALL);
+        service.join("inside@mail.com", 1, START.plusMinutes(30), START.plusHours(1), false, false, VehicleSize.SMALL);
+        service.join("exact@mail.com", 1, START, END, false, false, VehicleSize.SMALL);
+
+        // only partly covered: the first customer is not offered the slot despite arriving first
+        List<WaitlistMatch> first = service.onSlotFreed(slot(1, false, false, VehicleSize.SMALL));
+        assertEquals("inside@mail.com", first.get(0).entry().getCustomerEmail());
+        List<WaitlistMatch> second = service.onSlotFreed(slot(1, false, false, VehicleSize.SMALL));
+        assertEquals("exact@mail.com", second.get(0).entry().getCustomerEmail());
+        assertTrue(service.onSlotFreed(slot(1, false, false, VehicleSize.SMALL)).isEmpty());
+        assertEquals(1, service.waitingCount(1, START.minusHours(1), START.plusHours(1)));
+
+        // a slot freed for less than the window is no use either
+        assertTrue(service.onSlotFreed(new FreedSlot(1, 2, START, START.plusMinutes(45), false, false,
+                VehicleSize.SMALL)).isEmpty());
+    }
+
+    @Test
+    void whatIsLeftOfARangeGoesToTheNextCustomers() {
+        WaitlistService service = new WaitlistService();
+        service.join("middle@mail.com", 1, START.plusMinutes(30), START.plusMinutes(90), false, false, VehicleSize.SMALL);
+        service.join("early@mail.com", 1, START, START.plusMinutes(30), false, false, VehicleSize.SMALL);
+        service.join("late@mail.com", 1, START.plusMinutes(90), END, false, false, VehicleSize.SMALL);
+        service.join("whole@mail.com", 1, START, END, false, false, VehicleSize.SMALL);
+
+        List<WaitlistMatch> matches = service.onSlotFreed(slot(1, false, false, VehicleSize.SMALL));
+
+        assertEquals(List.of("middle@mail.com", "early@mail.com", "late@mail.com"),
+                matches.stream().map(m -> m.entry().getCustomerEmail()).toList());
+        assertEquals(START, matches.get(1).slot().windowStart());
+        assertEquals(START.plusMinutes(30), matches.get(1).slot().windowEnd());
+        assertEquals(START.plusMinutes(90), matches.get(2).slot().windowStart());
+        assertEquals(END, matches.get(2).slot().windowEnd());
+        assertEquals(1, service.waitingCount(1, START, END));
+    }
+
+    @Test
+    void requeuedCustomerKeepsTheirPlace() {
+        WaitlistService service = new WaitlistService();
+        service.join("a@mail.com", 1, START, END, false, false, VehicleSize.SMALL);
+        service.join("b@mail.com", 1, START, END, false, false, VehicleSize.SMALL);
+        List<WaitlistMatch> matches = service.onSlotsFreed(List.of(
+                slot(1, false, false, VehicleSize.SMALL), slot(1, false, false, VehicleSize.SMALL)));
+        service.join("c@mail.com", 1, START, END, false, false, VehicleSize.SMALL);
+
+        // both bookings fell through; handed back in the order the feeder books them
+        for (WaitlistMatch match : matches) {
+            WaitlistEntry restored = service.requeue(match.entry());
+            assertEquals(match.entry().getSequence(), restored.getSequence());
+        }
+
+        assertEquals(3, service.waitingCount(1, START, END));
+        assertEquals(List.of("a@mail.com", "b@mail.com", "c@mail.com"), List.of(
+                service.onSlotFreed(slot(1, false, false, VehicleSize.SMALL)).get(0).entry().getCustomerEmail(),
+                service.onSlotFreed(slot(1, false, false, VehicleSize.SMALL)).get(0).entry().getCustomerEmail(),
+                service.onSlotFreed(slot(1, false, false, VehicleSize.SMALL)).get(0).entry().getCustomerEmail()));
+    }
+
+    @Test
+    void leavingAndRejoining() {
+        WaitlistService service = new WaitlistService();
+        WaitlistEntry first = service.join("a@mail.com", 1, START, END, false, false, VehicleSize.SMALL);
+        assertSame(first, service.join("A@mail.com ", 1, START, END, false, false, VehicleSize.SMALL));
+        service.join("b@mail.com", 1, START, END, false, false, VehicleSize.SMALL);
+
+        assertTrue(service.leave("a@mail.com", 1, START, END));
+        assertFalse(service.leave("a@mail.com", 1, START, END));
+
+        List<WaitlistMatch> match = service.onSlotFreed(slot(1, false, false, VehicleSize.SMALL));
+        assertEquals("b@mail.com", match.get(0).entry().getCustomerEmail());
+        assertEquals(0, service.waitingCount(1, START, END));
+        assertTrue(service.entriesFor("a@mail.com").isEmpty());
+    }
+
+    @Test
+    void invalidWindowIsRejected() {
+        WaitlistService service = new WaitlistService();
+        assertThrows(IllegalArgumentException.class,
+                () -> service.join("a@mail.com", 1, END, START, false, false, VehicleSize.SMALL));
+    }
+
+    @Test
+    void endedWindowsArePurged() {
+        WaitlistService service = new WaitlistService();
+        service.join("a@mail.com", 1, START, END, false, false, VehicleSize.SMALL);
+
+        assertEquals(1, service.purgeEndedBefore(END.plusMinutes(1)));
+        assertEquals(0, service.waitingCount(1, START, END));
+    }
+
+    // Simulation: rush-hour demand on full lots, then a large cancellation burst
+    @Test
+    void largeCancellationBurst() {
+        int lots = 200;
+        int windowsPerLot = 8;
+        int customers = 100_000;
+        int freedSlots = 60_000;
+        Random random = new Random(42);
+        WaitlistService service = new WaitlistService();
+
+        for (int i = 0; i < customers; i++) {
+            int lot = random.nextInt(lots);
+            LocalDateTime start = START.plusHours(random.nextInt(windowsPerLot));
+            service.join("customer" + i + "@mail.com", lot, start, start.plusHours(1),
+                    random.nextInt(10) == 0, random.nextInt(20) == 0,
+                    VehicleSize.values()[random.nextInt(VehicleSize.values().length)]);
+        }
+
+        List<FreedSlot> burst = new ArrayList<>(freedSlots);
+        for (int i = 0; i < freedSlots; i++) {
+            int lot = random.nextInt(lots);
+            LocalDateTime start = START.plusHours(random.nextInt(windowsPerLot));
+            burst.add(new FreedSlot(lot, i, start, start.plusHours(1),
+                    random.nextInt(4) == 0, random.nextInt(8) == 0,
+                    VehicleSize.values()[random.nextInt(VehicleSize.values().length)]));
+        }
+
+        List<WaitlistMatch> matches = new ArrayList<>();
+        for (int from = 0; from < burst.size(); from += 500) {
+            matches.addAll(service.onSlotsFreed(burst.subList(from, Math.min(burst.size(), from + 500))));
+        }
+
+        assertFalse(matches.isEmpty());
+        Set<String> served = new HashSet<>();
+        Set<Long> usedSlots = new HashSet<>();
+        Map<String, Long> lastSequence = new HashMap<>();
+        for (WaitlistMatch match : matches) {
+            WaitlistEntry entry = match.entry();
+            FreedSlot slot = match.slot();
+            assertTrue(entry.fits(slot));
+            assertTrue(served.add(entry.getCustomerEmail()), "customer matched twice");
+            assertTrue(usedSlots.add(slot.slotId()), "slot matched twice");
+
+            // customers with identical needs are served strictly in arrival order
+            String queue = entry.getLotId() + "|" + entry.getWindowStart() + "|" + entry.signature();
+            Long previous = lastSequence.put(queue, entry.getSequence());
+            assertTrue(previous == null || previous < entry.getSequence(), "arrival order violated");
+        }
+
+        // a slot went unmatched only because nobody waiting could use it
+        for (FreedSlot slot : burst) {
+            if (!usedSlots.contains(slot.slotId())) {
+                assertTrue(service.onSlotFreed(slot).isEmpty(), "eligible customer left waiting");
+            }
+        }
+    }
+}